@@ -0,0 +1,63 @@
+package com.mypolicy.bff.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Opens the ingestion job status event stream. Feign buffers whole responses,
+ * so the stream is read through a plain HttpClient instead.
+ */
+@Component
+public class IngestionStreamClient {
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+  private final String baseUrl;
+
+  public IngestionStreamClient(@Value("${ingestion.service.url}") String baseUrl) {
+    this.baseUrl = baseUrl;
+  }
+
+  /**
+   * Open the stream without holding a thread for it: the body is pushed to
+   * lines as it arrives, one call per line, on the HttpClient's threads.
+   *
+   * @return completes with the upstream status code once the response headers
+   *         arrive; lines only receive the body of a 200 response
+   */
+  public CompletableFuture<Integer> openJobStatusStream(String jobId, Flow.Subscriber<String> lines) {
+    URI uri = UriComponentsBuilder.fromHttpUrl(baseUrl)
+        .path("/api/v1/ingestion/status/{jobId}/stream")
+        .buildAndExpand(jobId)
+        .encode()
+        .toUri();
+    HttpRequest request = HttpRequest.newBuilder(uri)
+        .header("Accept", MediaType.TEXT_EVENT_STREAM_VALUE)
+        .GET()
+        .build();
+    CompletableFuture<Integer> status = new CompletableFuture<>();
+    HttpResponse.BodyHandler<Void> handler = info -> {
+      status.complete(info.statusCode());
+      return info.statusCode() == 200
+          ? HttpResponse.BodySubscribers.fromLineSubscriber(lines)
+          : HttpResponse.BodySubscribers.discarding();
+    };
+    httpClient.sendAsync(request, handler).whenComplete((response, error) -> {
+      if (error != null) {
+        status.completeExceptionally(error);
+      }
+    });
+    return status;
+  }
+}
@@ -1,17 +1,31 @@
 package com.mypolicy.bff.controller;
 
 import com.mypolicy.bff.client.IngestionClient;
+import com.mypolicy.bff.client.IngestionStreamClient;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @RestController
 @RequestMapping("/api/bff/upload")
 @RequiredArgsConstructor
 public class FileUploadController {
 
+  private static final long STREAM_OPEN_TIMEOUT_SECONDS = 10;
+
   private final IngestionClient ingestionClient;
+  private final IngestionStreamClient ingestionStreamClient;
 
   @PostMapping
   public ResponseEntity<Object> uploadFile(
@@ -26,4 +40,102 @@ public class FileUploadController {
   public ResponseEntity<Object> getJobStatus(@PathVariable String jobId) {
     return ResponseEntity.ok(ingestionClient.getJobStatus(jobId));
   }
+
+  /**
+   * Relays the ingestion job status event stream (Server-Sent Events) so the UI
+   * gets pushed updates instead of polling /status/{jobId}.
+   *
+   * Events are forwarded as the upstream HttpClient delivers them, so an open
+   * stream holds no servlet or async thread and the number of concurrent
+   * watchers is not bounded by a thread pool.
+   */
+  @GetMapping(value = "/status/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<ResponseBodyEmitter> streamJobStatus(@PathVariable String jobId)
+      throws IOException, InterruptedException {
+    ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+    EventRelay relay = new EventRelay(emitter);
+    int status;
+    try {
+      status = ingestionStreamClient.openJobStatusStream(jobId, relay)
+          .get(STREAM_OPEN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      throw new IOException("Job status stream unavailable: " + e.getCause().getMessage(), e.getCause());
+    } catch (TimeoutException e) {
+      relay.cancel();
+      throw new IOException("Job status stream did not open within " + STREAM_OPEN_TIMEOUT_SECONDS + "s", e);
+    }
+    if (status != HttpStatus.OK.value()) {
+      return ResponseEntity.status(status).build();
+    }
+
+    emitter.onCompletion(relay::cancel);
+    emitter.onTimeout(relay::cancel);
+    emitter.onError(error -> relay.cancel());
+    return ResponseEntity.ok()
+        .contentType(MediaType.TEXT_EVENT_STREAM)
+        .header("Cache-Control", "no-cache")
+        .header("X-Accel-Buffering", "no")
+        .body(emitter);
+  }
+
+  /**
+   * Copies upstream SSE lines to the client, one event (up to its blank line)
+   * per write, asking for the next line only once the previous one is handed on.
+   */
+  private static final class EventRelay implements Flow.Subscriber<String> {
+
+    private final ResponseBodyEmitter emitter;
+    private final StringBuilder event = new StringBuilder();
+    private final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+    private volatile boolean cancelled;
+
+    private EventRelay(ResponseBodyEmitter emitter) {
+      this.emitter = emitter;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription s) {
+      subscription.set(s);
+      if (cancelled) {
+        s.cancel();
+      } else {
+        s.request(1);
+      }
+    }
+
+    @Override
+    public void onNext(String line) {
+      event.append(line).append('\n');
+      if (line.isEmpty()) {
+        try {
+          emitter.send(event.toString(), MediaType.TEXT_PLAIN);
+        } catch (IOException | IllegalStateException e) {
+          // Client went away
+          cancel();
+          return;
+        } finally {
+          event.setLength(0);
+        }
+      }
+      subscription.get().request(1);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+      emitter.complete();
+    }
+
+    @Override
+    public void onComplete() {
+      emitter.complete();
+    }
+
+    private void cancel() {
+      cancelled = true;
+      Flow.Subscription s = subscription.get();
+      if (s != null) {
+        s.cancel();
+      }
+    }
+  }
 }
@@ -1,6 +1,7 @@
 package com.mypolicy.customer.controller;
 
 import com.mypolicy.customer.dto.AuthResponse;
+import com.mypolicy.customer.dto.CustomerBatchLookupRequest;
 import com.mypolicy.customer.dto.CustomerRegistrationRequest;
 import com.mypolicy.customer.dto.CustomerResponse;
 import com.mypolicy.customer.dto.CustomerUpdateRequest;
@@ -8,15 +9,21 @@ import com.mypolicy.customer.dto.LoginRequest;
 import com.mypolicy.customer.service.CustomerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/v1/customers")
 @RequiredArgsConstructor
 public class CustomerController {
 
+  private static final int MAX_EXPORT_PAGE_SIZE = 5000;
+
   private final CustomerService customerService;
 
   @PostMapping("/register")
@@ -41,4 +48,30 @@ public class CustomerController {
       @Valid @RequestBody CustomerUpdateRequest request) {
     return ResponseEntity.ok(customerService.updateCustomer(customerId, request));
   }
+
+  /**
+   * Bulk lookup for identity matching: resolves up to 5000 mobile numbers in
+   * one request. Numbers without a customer are simply absent from the result.
+   */
+  @PostMapping("/search/mobiles")
+  public ResponseEntity<List<CustomerResponse>> searchByMobiles(
+      @Valid @RequestBody CustomerBatchLookupRequest request) {
+    return ResponseEntity.ok(customerService.findByMobileNumbers(request));
+  }
+
+  /**
+   * Paged export for identity indexes kept by other services. Customers come in
+   * (updatedAt, customerId) order; pass the last row's values as the cursor for
+   * the next page. Without updatedSince the export starts from the beginning.
+   */
+  @GetMapping("/export")
+  public ResponseEntity<List<CustomerResponse>> exportChanged(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+      @RequestParam(required = false) String afterId,
+      @RequestParam(defaultValue = "1000") int size) {
+    if (size < 1 || size > MAX_EXPORT_PAGE_SIZE) {
+      throw new IllegalArgumentException("Page size must be between 1 and " + MAX_EXPORT_PAGE_SIZE);
+    }
+    return ResponseEntity.ok(customerService.findChangedSince(updatedSince, afterId, size));
+  }
 }
@@ -0,0 +1,13 @@
+package com.mypolicy.customer.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class CustomerBatchLookupRequest {
+  @NotEmpty(message = "At least one mobile number is required")
+  @Size(max = 5000, message = "At most 5000 mobile numbers per request")
+  private List<String> mobileNumbers;
+}
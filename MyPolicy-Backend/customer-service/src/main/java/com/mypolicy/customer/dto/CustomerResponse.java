@@ -4,6 +4,7 @@ import com.mypolicy.customer.model.CustomerStatus;
 import lombok.Builder;
 import lombok.Data;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -17,4 +18,5 @@ public class CustomerResponse {
   private LocalDate dateOfBirth;
   private String address;
   private CustomerStatus status;
+  private LocalDateTime updatedAt;
 }
@@ -1,7 +1,13 @@
 package com.mypolicy.customer.repository;
 
 import com.mypolicy.customer.model.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, String> {
@@ -9,8 +15,17 @@ public interface CustomerRepository extends JpaRepository<Customer, String> {
 
   Optional<Customer> findByMobileNumber(String mobileNumber);
 
+  List<Customer> findByMobileNumberIn(Collection<String> mobileNumbers);
+
   Optional<Customer> findByPanNumber(String panNumber);
 
+  // Keyset page over (updatedAt, customerId), strictly after the given cursor
+  @Query("select c from Customer c where c.updatedAt > :since"
+      + " or (c.updatedAt = :since and c.customerId > :afterId)"
+      + " order by c.updatedAt, c.customerId")
+  List<Customer> findChangedAfter(@Param("since") LocalDateTime since, @Param("afterId") String afterId,
+      Pageable page);
+
   boolean existsByEmail(String email);
 
   boolean existsByMobileNumber(String mobileNumber);
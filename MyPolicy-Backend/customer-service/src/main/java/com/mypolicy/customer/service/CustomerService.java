@@ -1,11 +1,15 @@
 package com.mypolicy.customer.service;
 
 import com.mypolicy.customer.dto.AuthResponse;
+import com.mypolicy.customer.dto.CustomerBatchLookupRequest;
 import com.mypolicy.customer.dto.CustomerRegistrationRequest;
 import com.mypolicy.customer.dto.CustomerResponse;
 import com.mypolicy.customer.dto.CustomerUpdateRequest;
 import com.mypolicy.customer.dto.LoginRequest;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface CustomerService {
   CustomerResponse registerCustomer(CustomerRegistrationRequest request);
 
@@ -14,4 +18,8 @@ public interface CustomerService {
   CustomerResponse getCustomerById(String customerId);
 
   CustomerResponse updateCustomer(String customerId, CustomerUpdateRequest request);
+
+  List<CustomerResponse> findByMobileNumbers(CustomerBatchLookupRequest request);
+
+  List<CustomerResponse> findChangedSince(LocalDateTime since, String afterId, int size);
 }
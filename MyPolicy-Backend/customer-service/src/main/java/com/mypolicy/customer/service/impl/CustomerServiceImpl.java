@@ -1,5 +1,6 @@
 package com.mypolicy.customer.service.impl;
 
+import com.mypolicy.customer.dto.CustomerBatchLookupRequest;
 import com.mypolicy.customer.dto.CustomerRegistrationRequest;
 import com.mypolicy.customer.dto.CustomerResponse;
 import com.mypolicy.customer.dto.CustomerUpdateRequest;
@@ -9,10 +10,17 @@ import com.mypolicy.customer.model.CustomerStatus;
 import com.mypolicy.customer.repository.CustomerRepository;
 import com.mypolicy.customer.service.CustomerService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -113,7 +121,11 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     if (request.getDateOfBirth() != null && !request.getDateOfBirth().isEmpty()) {
-      customer.setDateOfBirth(request.getDateOfBirth());
+      try {
+        customer.setDateOfBirth(LocalDate.parse(request.getDateOfBirth()));
+      } catch (DateTimeParseException e) {
+        throw new RuntimeException("Invalid date of birth, expected YYYY-MM-DD: " + request.getDateOfBirth());
+      }
     }
 
     if (request.getAddress() != null && !request.getAddress().isEmpty()) {
@@ -124,6 +136,34 @@ public class CustomerServiceImpl implements CustomerService {
     return mapToResponse(updated);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<CustomerResponse> findByMobileNumbers(CustomerBatchLookupRequest request) {
+    // De-duplicated, then resolved with a single IN query
+    Set<String> mobiles = new LinkedHashSet<>();
+    for (String mobile : request.getMobileNumbers()) {
+      if (mobile != null && !mobile.isBlank()) {
+        mobiles.add(mobile.trim());
+      }
+    }
+    if (mobiles.isEmpty()) {
+      return List.of();
+    }
+    return customerRepository.findByMobileNumberIn(mobiles).stream()
+        .map(this::mapToResponse)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<CustomerResponse> findChangedSince(LocalDateTime since, String afterId, int size) {
+    LocalDateTime from = since != null ? since : LocalDateTime.of(1970, 1, 1, 0, 0);
+    return customerRepository.findChangedAfter(from, afterId != null ? afterId : "", PageRequest.of(0, size))
+        .stream()
+        .map(this::mapToResponse)
+        .collect(Collectors.toList());
+  }
+
   private CustomerResponse mapToResponse(Customer c) {
     return CustomerResponse.builder()
         .customerId(c.getCustomerId())
@@ -135,6 +175,7 @@ public class CustomerServiceImpl implements CustomerService {
         .panNumber(c.getPanNumber())
         .dateOfBirth(c.getDateOfBirth())
         .address(c.getAddress())
+        .updatedAt(c.getUpdatedAt())
         .build();
   }
 }
@@ -0,0 +1,97 @@
+package com.mypolicy.pipeline.matching.service;
+
+import org.apache.commons.text.similarity.LevenshteinDistance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuzzy name check of the matcher: every customer name against every policy
+ * holder name from the sample CSVs, which is what matching a file does.
+ *
+ * Run with {@code mvn -Pjmh test-compile exec:exec}; pass JMH options with
+ * -Djmh.args, e.g. {@code -Djmh.args="BoundedEditDistance -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundedEditDistanceBenchmark {
+
+  private static final int THRESHOLD = 3;
+  private static final String[] POLICY_FILES = {"Health_Insurance.csv", "Life_Insurance.csv", "Auto_Insurance.csv"};
+
+  /** Directory holding the sample CSVs, relative to the module. */
+  @Param("..")
+  public String dataDir;
+
+  private String[] customers;
+  private String[] holders;
+  private final LevenshteinDistance unbounded = LevenshteinDistance.getDefaultInstance();
+  private final LevenshteinDistance bounded = new LevenshteinDistance(THRESHOLD);
+
+  @Setup
+  public void loadNames() throws IOException {
+    customers = names(Path.of(dataDir, "Customer_data.csv"));
+    List<String> all = new ArrayList<>();
+    for (String file : POLICY_FILES) {
+      all.addAll(List.of(names(Path.of(dataDir, file))));
+    }
+    holders = all.toArray(new String[0]);
+  }
+
+  @Benchmark
+  public void boundedEditDistance(Blackhole blackhole) {
+    for (String customer : customers) {
+      for (String holder : holders) {
+        blackhole.consume(BoundedEditDistance.apply(customer, holder, THRESHOLD) >= 0);
+      }
+    }
+  }
+
+  /** What isSimilar did before: lowercase both, full distance, then compare. */
+  @Benchmark
+  public void commonsTextUnbounded(Blackhole blackhole) {
+    for (String customer : customers) {
+      for (String holder : holders) {
+        blackhole.consume(unbounded.apply(customer.toLowerCase(), holder.toLowerCase()) <= THRESHOLD);
+      }
+    }
+  }
+
+  @Benchmark
+  public void commonsTextBounded(Blackhole blackhole) {
+    for (String customer : customers) {
+      for (String holder : holders) {
+        blackhole.consume(bounded.apply(customer.toLowerCase(), holder.toLowerCase()) >= 0);
+      }
+    }
+  }
+
+  // Second column of every sample file is the full name; none of them are quoted
+  private static String[] names(Path csv) throws IOException {
+    return Files.readAllLines(csv).stream()
+        .skip(1)
+        .filter(line -> !line.isBlank())
+        .map(line -> line.split(",", -1)[1])
+        .toArray(String[]::new);
+  }
+}
@@ -0,0 +1,142 @@
+package com.mypolicy.pipeline.processing.mapping;
+
+import com.mypolicy.pipeline.metadata.model.FieldMapping;
+import com.mypolicy.pipeline.metadata.transform.CompiledMapping;
+import com.mypolicy.pipeline.metadata.transform.TransformEngine;
+import com.mypolicy.pipeline.processing.model.PolicyRecord;
+import com.mypolicy.pipeline.processing.reader.HeaderIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Map stage over a synthetic 1M-row health feed: the per-row HashMap it
+ * replaced, the compiled plan, and the plan's record allocation on its own.
+ *
+ * The plan allocates one PolicyRecord per row because records stay queued
+ * between pipeline stages until persisted; {@link #recordAllocationOnly} shows
+ * what that allocation costs next to converting the row. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ColumnMappingPlan -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnMappingPlanBenchmark {
+
+  private static final int FEED_ROWS = 1_000_000;
+  // Distinct rows cycled through to make up the feed, so the feed itself fits in memory
+  private static final int DISTINCT_ROWS = 4096;
+
+  private static final String[] HEADERS = {"Policy Number", "Customer Name", "DOB", "Gender", "PAN", "Mobile",
+      "Email", "Insurer", "Plan Name", "Coverage Amount", "Annual Premium", "Policy Start Date",
+      "Policy End Date", "Policy Type", "City"};
+  private static final String[] FIRST_NAMES = {"Amit", "Sneha", "Rahul", "Priya", "Rohit", "Anjali", "Vikram",
+      "Pooja", "Suresh", "Kavita"};
+  private static final String[] LAST_NAMES = {"Sharma", "Patil", "Kulkarni", "Desai", "Iyer", "Reddy", "Gupta",
+      "Nair", "Joshi", "Verma"};
+  private static final String[] CITIES = {"PUNE", "MUMBAI", "DELHI", "HYDERABAD", "CHENNAI"};
+
+  private List<FieldMapping> mappings;
+  private HeaderIndex headerIndex;
+  private ColumnMappingPlan plan;
+  private String[][] rows;
+
+  @Setup
+  public void setUp() {
+    mappings = List.of(
+        mapping("Policy Number", "policyNumber", "STRING"),
+        mapping("Customer Name", "customerName", "STRING"),
+        mapping("DOB", "dateOfBirth", "DATE"),
+        mapping("Gender", "gender", "STRING"),
+        mapping("PAN", "panNumber", "STRING"),
+        mapping("Mobile", "mobileNumber", "STRING"),
+        mapping("Email", "email", "STRING"),
+        mapping("Plan Name", "planName", "STRING"),
+        mapping("Coverage Amount", "sumAssured", "DECIMAL"),
+        mapping("Annual Premium", "premiumAmount", "DECIMAL"),
+        mapping("Policy Start Date", "startDate", "DATE"),
+        mapping("Policy End Date", "endDate", "DATE"),
+        mapping("City", "city", "STRING"));
+    headerIndex = new HeaderIndex(List.of(HEADERS));
+
+    TransformEngine engine = new TransformEngine();
+    List<CompiledMapping> compiled = new ArrayList<>();
+    for (FieldMapping mapping : mappings) {
+      compiled.add(engine.compile(mapping));
+    }
+    plan = ColumnMappingPlan.compile(compiled, engine, headerIndex, "HDFC", "HEALTH");
+
+    Random random = new Random(1);
+    rows = new String[DISTINCT_ROWS][];
+    for (int i = 0; i < DISTINCT_ROWS; i++) {
+      String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+      String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+      rows[i] = new String[] {
+          "HEPOL" + (100000 + i), first + " " + last, String.format("19%02d%02d%02d", 50 + random.nextInt(50),
+              1 + random.nextInt(12), 1 + random.nextInt(28)), random.nextBoolean() ? "M" : "F",
+          "ABCDE" + (1000 + random.nextInt(9000)) + "F", "91" + (7000000000L + random.nextInt(999999999)),
+          first.toLowerCase() + "." + last.toLowerCase() + i + "@gmail.com", "HDFC Ergo", "Standard Plan",
+          String.valueOf(100000 * (1 + random.nextInt(10))), String.valueOf(5000 + random.nextInt(40000)),
+          "20240320", "20320220", "Family Floater", CITIES[random.nextInt(CITIES.length)]};
+    }
+  }
+
+  /** The map stage before the plan: header lookups and a HashMap per row, values left as text. */
+  @Benchmark
+  public void hashMapPerRow(Blackhole blackhole) {
+    for (int i = 0; i < FEED_ROWS; i++) {
+      String[] row = rows[i & (DISTINCT_ROWS - 1)];
+      Map<String, Object> record = new HashMap<>();
+      for (FieldMapping mapping : mappings) {
+        int column = headerIndex.indexOf(mapping.getSourceField());
+        if (column >= 0) {
+          record.put(mapping.getTargetField(), column < row.length ? row[column] : null);
+        }
+      }
+      record.put("insurerId", "HDFC");
+      record.put("policyType", "HEALTH");
+      blackhole.consume(record);
+    }
+  }
+
+  /** The map stage now: typed conversion into a new PolicyRecord per row. */
+  @Benchmark
+  public void compiledPlan(Blackhole blackhole) {
+    for (int i = 0; i < FEED_ROWS; i++) {
+      blackhole.consume(plan.map(rows[i & (DISTINCT_ROWS - 1)]));
+    }
+  }
+
+  /** Upper bound on what reusing one record per worker could save. */
+  @Benchmark
+  public void recordAllocationOnly(Blackhole blackhole) {
+    for (int i = 0; i < FEED_ROWS; i++) {
+      PolicyRecord record = new PolicyRecord();
+      record.setInsurerId("HDFC");
+      record.setPolicyType("HEALTH");
+      blackhole.consume(record);
+    }
+  }
+
+  private static FieldMapping mapping(String source, String target, String dataType) {
+    return FieldMapping.builder().sourceField(source).targetField(target).dataType(dataType).build();
+  }
+}
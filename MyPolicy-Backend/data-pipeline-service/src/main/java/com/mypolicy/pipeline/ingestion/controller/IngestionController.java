@@ -2,21 +2,31 @@ package com.mypolicy.pipeline.ingestion.controller;
 
 import com.mypolicy.pipeline.common.dto.ApiResponse;
 import com.mypolicy.pipeline.common.security.JwtUtil;
+import com.mypolicy.pipeline.ingestion.dto.JobPageResponse;
 import com.mypolicy.pipeline.ingestion.dto.JobStatusResponse;
 import com.mypolicy.pipeline.ingestion.dto.ProgressUpdateRequest;
 import com.mypolicy.pipeline.ingestion.dto.StatusUpdateRequest;
 import com.mypolicy.pipeline.ingestion.dto.UploadResponse;
+import com.mypolicy.pipeline.ingestion.dto.UploadSessionResponse;
+import com.mypolicy.pipeline.ingestion.model.IngestionStatus;
 import com.mypolicy.pipeline.ingestion.service.IngestionService;
+import com.mypolicy.pipeline.ingestion.service.JobProgressStreamer;
+import com.mypolicy.pipeline.ingestion.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 
 /**
  * Ingestion API: file upload, status retrieval, progress/status updates.
@@ -32,6 +42,8 @@ public class IngestionController {
 
   private static final Logger log = LoggerFactory.getLogger(IngestionController.class);
   private final IngestionService ingestionService;
+  private final UploadSessionService uploadSessionService;
+  private final JobProgressStreamer progressStreamer;
   private final JwtUtil jwtUtil;
 
   /**
@@ -54,8 +66,44 @@ public class IngestionController {
       UploadResponse response = ingestionService.uploadFile(file, insurerId, uploadedBy);
       log.info("[Ingestion API] Upload successful: jobId={}", response.getJobId());
 
-      return ResponseEntity.status(HttpStatus.CREATED)
-          .body(ApiResponse.success(response, "File uploaded successfully"));
+      return uploaded(response);
+    } catch (IllegalArgumentException e) {
+      log.warn("[Ingestion API] Upload validation failed: {}", e.getMessage());
+      return ResponseEntity.badRequest()
+          .body(ApiResponse.error(e.getMessage(), "VALIDATION_ERROR"));
+    } catch (IOException e) {
+      log.error("[Ingestion API] File storage failed", e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(ApiResponse.error("Error storing file", "STORAGE_ERROR", e.getMessage()));
+    } catch (Exception e) {
+      log.error("[Ingestion API] Unexpected error during upload", e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(ApiResponse.error("Unexpected error during upload", "INTERNAL_ERROR", e.getMessage()));
+    }
+  }
+
+  /**
+   * POST /api/v1/ingestion/upload/stream?insurerId=&filename=
+   * Same as /upload, but the file is the raw request body
+   * (application/octet-stream), so it is written to storage once without
+   * being spooled as a multipart first.
+   */
+  @PostMapping(value = "/upload/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  public ResponseEntity<ApiResponse<UploadResponse>> uploadStream(
+      HttpServletRequest request,
+      @RequestParam("insurerId") String insurerId,
+      @RequestParam("filename") String filename,
+      @RequestHeader("Authorization") String authorizationHeader) {
+
+    try {
+      String uploadedBy = jwtUtil.extractUsernameFromHeader(authorizationHeader);
+      log.info("[Ingestion API] POST /upload/stream - insurerId={}, uploadedBy={}", insurerId, uploadedBy);
+
+      UploadResponse response = ingestionService.uploadStream(request.getInputStream(), filename, insurerId,
+          uploadedBy);
+      log.info("[Ingestion API] Upload successful: jobId={}", response.getJobId());
+
+      return uploaded(response);
     } catch (IllegalArgumentException e) {
       log.warn("[Ingestion API] Upload validation failed: {}", e.getMessage());
       return ResponseEntity.badRequest()
@@ -71,6 +119,168 @@ public class IngestionController {
     }
   }
 
+  /**
+   * POST /api/v1/ingestion/uploads?insurerId=&filename=&totalSize=[&chunkSize=]
+   * Opens a resumable chunked upload for files beyond the single-request limit.
+   * The response says how many chunks of which size to PUT.
+   */
+  @PostMapping("/uploads")
+  public ResponseEntity<ApiResponse<UploadSessionResponse>> createUploadSession(
+      @RequestParam("insurerId") String insurerId,
+      @RequestParam("filename") String filename,
+      @RequestParam("totalSize") long totalSize,
+      @RequestParam(value = "chunkSize", required = false) Integer chunkSize,
+      @RequestHeader("Authorization") String authorizationHeader) {
+
+    try {
+      String uploadedBy = jwtUtil.extractUsernameFromHeader(authorizationHeader);
+      log.info("[Ingestion API] POST /uploads - insurerId={}, totalSize={}, uploadedBy={}", insurerId, totalSize,
+          uploadedBy);
+      UploadSessionResponse response = uploadSessionService.create(insurerId, filename, totalSize, chunkSize,
+          uploadedBy);
+      return ResponseEntity.status(HttpStatus.CREATED)
+          .body(ApiResponse.success(response, "Upload session created"));
+    } catch (IllegalArgumentException e) {
+      log.warn("[Ingestion API] Upload session rejected: {}", e.getMessage());
+      return ResponseEntity.badRequest()
+          .body(ApiResponse.error(e.getMessage(), "VALIDATION_ERROR"));
+    } catch (IllegalStateException e) {
+      log.warn("[Ingestion API] Upload session rejected: {}", e.getMessage());
+      return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE)
+          .body(ApiResponse.error(e.getMessage(), "STORAGE_ERROR"));
+    } catch (Exception e) {
+      log.error("[Ingestion API] Error creating upload session", e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(ApiResponse.error("Error creating upload session", "INTERNAL_ERROR", e.getMessage()));
+    }
+  }
+
+  /**
+   * PUT /api/v1/ingestion/uploads/{sessionId}/chunks/{index}
+   * Raw chunk bytes (application/octet-stream). Chunks may be sent in any
+   * order and in parallel; re-sending one is safe.
+   */
+  @PutMapping(value = "/uploads/{sessionId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  public ResponseEntity<ApiResponse<UploadSessionResponse>> uploadChunk(
+      @PathVariable String sessionId,
+      @PathVariable int index,
+      HttpServletRequest request,
+      @RequestHeader("Authorization") String authorizationHeader) {
+
+    try {
+      String user = jwtUtil.extractUsernameFromHeader(authorizationHeader);
+      UploadSessionResponse response = uploadSessionService.writeChunk(sessionId, index, request.getInputStream(),
+          user);
+      return ResponseEntity.ok(ApiResponse.success(response, "Chunk " + index + " received"));
+    } catch (IllegalArgumentException e) {
+      log.warn("[Ingestion API] Chunk {} of session {} rejected: {}", index, sessionId, e.getMessage());
+      return ResponseEntity.badRequest()
+          .body(ApiResponse.error(e.getMessage(), "VALIDATION_ERROR"));
+    } catch (IllegalStateException e) {
+      log.warn("[Ingestion API] Chunk {} of session {} rejected: {}", index, sessionId, e.getMessage());
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(ApiResponse.error(e.getMessage(), "INVALID_SESSION_STATE"));
+    } catch (IOException e) {
+      log.error("[Ingestion API] Chunk storage failed", e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(ApiResponse.error("Error storing chunk", "STORAGE_ERROR", e.getMessage()));
+    } catch (Exception e) {
+      log.error("[Ingestion API] Unexpected error storing chunk", e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(ApiResponse.error("Unexpected error storing chunk", "INTERNAL_ERROR", e.getMessage()));
+    }
+  }
+
+  /**
+   * GET /api/v1/ingestion/uploads/{sessionId}
+   * Received chunk ranges, so an interrupted client sends only what is missing.
+   */
+  @GetMapping("/uploads/{sessionId}")
+  public ResponseEntity<ApiResponse<UploadSessionResponse>> getUploadSession(
+      @PathVariable String sessionId,
+      @RequestHeader("Authorization") String authorizationHeader) {
+
+    try {
+      String user = jwtUtil.extractUsernameFromHeader(authorizationHeader);
+      UploadSessionResponse response = uploadSessionService.getStatus(sessionId, user);
+      return ResponseEntity.ok(ApiResponse.success(response, "Upload session retrieved successfully"));
+    } catch (IllegalArgumentException e) {
+      log.warn("[Ingestion API] Upload session not found: {}", sessionId);
+      return ResponseEntity.status(HttpStatus.NOT_FOUND)
+          .body(ApiResponse.error(e.getMessage(), "SESSION_NOT_FOUND"));
+    } catch (Exception e) {
+      log.error("[Ingestion API] Error retrieving upload session", e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(ApiResponse.error("Error retrieving upload session", "INTERNAL_ERROR", e.getMessage()));
+    }
+  }
+
+  /**
+   * POST /api/v1/ingestion/uploads/{sessionId}/complete
+   * Once every chunk is in, turns the session into an ingestion job (or links
+   * it to an existing job for the same content). 409 while chunks are missing.
+   */
+  @PostMapping("/uploads/{sessionId}/complete")
+  public ResponseEntity<ApiResponse<UploadResponse>> completeUploadSession(
+      @PathVariable String sessionId,
+      @RequestHeader("Authorization") String authorizationHeader) {
+
+    try {
+      String user = jwtUtil.extractUsernameFromHeader(authorizationHeader);
+      log.info("[Ingestion API] POST /uploads/{}/complete", sessionId);
+      return uploaded(uploadSessionService.complete(sessionId, user));
+    } catch (IllegalArgumentException e) {
+      log.warn("[Ingestion API] Upload session not found: {}", sessionId);
+      return ResponseEntity.status(HttpStatus.NOT_FOUND)
+          .body(ApiResponse.error(e.getMessage(), "SESSION_NOT_FOUND"));
+    } catch (IllegalStateException e) {
+      log.warn("[Ingestion API] Upload session {} not completed: {}", sessionId, e.getMessage());
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(ApiResponse.error(e.getMessage(), "INVALID_SESSION_STATE"));
+    } catch (Exception e) {
+      log.error("[Ingestion API] Error completing upload session", e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(ApiResponse.error("Error completing upload session", "INTERNAL_ERROR", e.getMessage()));
+    }
+  }
+
+  /**
+   * DELETE /api/v1/ingestion/uploads/{sessionId}
+   * Cancels an open session and deletes the received chunks.
+   */
+  @DeleteMapping("/uploads/{sessionId}")
+  public ResponseEntity<ApiResponse<Void>> abortUploadSession(
+      @PathVariable String sessionId,
+      @RequestHeader("Authorization") String authorizationHeader) {
+
+    try {
+      String user = jwtUtil.extractUsernameFromHeader(authorizationHeader);
+      uploadSessionService.abort(sessionId, user);
+      return ResponseEntity.ok(ApiResponse.success("Upload session aborted"));
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.status(HttpStatus.NOT_FOUND)
+          .body(ApiResponse.error(e.getMessage(), "SESSION_NOT_FOUND"));
+    } catch (IllegalStateException e) {
+      return ResponseEntity.status(HttpStatus.CONFLICT)
+          .body(ApiResponse.error(e.getMessage(), "INVALID_SESSION_STATE"));
+    } catch (Exception e) {
+      log.error("[Ingestion API] Error aborting upload session", e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(ApiResponse.error("Error aborting upload session", "INTERNAL_ERROR", e.getMessage()));
+    }
+  }
+
+  /**
+   * 201 for a new job; 200 when the content was already uploaded and the existing job is returned.
+   */
+  private ResponseEntity<ApiResponse<UploadResponse>> uploaded(UploadResponse response) {
+    if (response.isDuplicate()) {
+      return ResponseEntity.ok(ApiResponse.success(response, "File already uploaded as job " + response.getJobId()));
+    }
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .body(ApiResponse.success(response, "File uploaded successfully"));
+  }
+
   /**
    * GET /api/v1/ingestion/status/{jobId}
    * Returns job status for BFF UI and Processing Service.
@@ -92,6 +302,56 @@ public class IngestionController {
     }
   }
 
+  /**
+   * GET /api/v1/ingestion/jobs?insurerId=&status=&uploadedBy=&from=&to=&cursor=&limit=
+   * Job search for the ops console, newest first. All filters are optional;
+   * from (inclusive) and to (exclusive) are ISO date-times. Pass nextCursor
+   * of a page as cursor to get the next one.
+   */
+  @GetMapping("/jobs")
+  public ResponseEntity<ApiResponse<JobPageResponse>> searchJobs(
+      @RequestParam(required = false) String insurerId,
+      @RequestParam(required = false) IngestionStatus status,
+      @RequestParam(required = false) String uploadedBy,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int limit) {
+    try {
+      log.debug("[Ingestion API] GET /jobs - insurerId={}, status={}, uploadedBy={}", insurerId, status,
+          uploadedBy);
+      JobPageResponse response = ingestionService.searchJobs(insurerId, status, uploadedBy, from, to, cursor,
+          limit);
+      return ResponseEntity.ok(ApiResponse.success(response, "Jobs retrieved successfully"));
+    } catch (IllegalArgumentException e) {
+      log.warn("[Ingestion API] Invalid job search: {}", e.getMessage());
+      return ResponseEntity.badRequest()
+          .body(ApiResponse.error(e.getMessage(), "VALIDATION_ERROR"));
+    } catch (Exception e) {
+      log.error("[Ingestion API] Error searching jobs", e);
+      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+          .body(ApiResponse.error("Error searching jobs", "INTERNAL_ERROR", e.getMessage()));
+    }
+  }
+
+  /**
+   * GET /api/v1/ingestion/status/{jobId}/stream
+   * Server-Sent Events instead of polling /status/{jobId}: a "status" event
+   * with the current state, then "status" on every transition and throttled
+   * "progress" events; the stream ends once the job completes or fails.
+   */
+  @GetMapping(value = "/status/{jobId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamJobStatus(@PathVariable String jobId) {
+    try {
+      log.debug("[Ingestion API] GET /status/{}/stream", jobId);
+      return ResponseEntity.ok(progressStreamer.subscribe(jobId));
+    } catch (IllegalArgumentException e) {
+      // No ApiResponse body: the client only accepts text/event-stream
+      log.warn("[Ingestion API] Job not found: {}", jobId);
+      return ResponseEntity.notFound().build();
+    }
+  }
+
   /**
    * PATCH /api/v1/ingestion/{jobId}/progress
    * Internal: Processing Service updates processed record count.
@@ -0,0 +1,25 @@
+package com.mypolicy.pipeline.ingestion.dto;
+
+import java.util.List;
+
+/**
+ * One page of a job search, newest first. nextCursor is passed back as
+ * cursor for the following page and is null on the last page.
+ */
+public class JobPageResponse {
+  private List<JobStatusResponse> jobs;
+  private String nextCursor;
+
+  public JobPageResponse() {
+  }
+
+  public JobPageResponse(List<JobStatusResponse> jobs, String nextCursor) {
+    this.jobs = jobs;
+    this.nextCursor = nextCursor;
+  }
+
+  public List<JobStatusResponse> getJobs() { return jobs; }
+  public void setJobs(List<JobStatusResponse> jobs) { this.jobs = jobs; }
+  public String getNextCursor() { return nextCursor; }
+  public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
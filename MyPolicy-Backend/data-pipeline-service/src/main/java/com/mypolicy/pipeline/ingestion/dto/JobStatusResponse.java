@@ -16,6 +16,7 @@ public class JobStatusResponse {
   private String insurerId;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
+  private String failureReason;
 
   public JobStatusResponse() {
   }
@@ -49,4 +50,6 @@ public class JobStatusResponse {
   public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
   public LocalDateTime getUpdatedAt() { return updatedAt; }
   public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+  public String getFailureReason() { return failureReason; }
+  public void setFailureReason(String failureReason) { this.failureReason = failureReason; }
 }
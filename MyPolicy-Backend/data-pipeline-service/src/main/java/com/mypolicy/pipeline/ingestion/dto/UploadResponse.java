@@ -8,6 +8,10 @@ import com.mypolicy.pipeline.ingestion.model.IngestionStatus;
 public class UploadResponse {
   private String jobId;
   private IngestionStatus status;
+  private int totalRecords;
+  private String contentHash;
+  // True if the same content was already uploaded; jobId is then the existing job
+  private boolean duplicate;
 
   public UploadResponse() {
   }
@@ -17,8 +21,21 @@ public class UploadResponse {
     this.status = status;
   }
 
+  public UploadResponse(String jobId, IngestionStatus status, int totalRecords, String contentHash) {
+    this.jobId = jobId;
+    this.status = status;
+    this.totalRecords = totalRecords;
+    this.contentHash = contentHash;
+  }
+
   public String getJobId() { return jobId; }
   public void setJobId(String jobId) { this.jobId = jobId; }
   public IngestionStatus getStatus() { return status; }
   public void setStatus(IngestionStatus status) { this.status = status; }
+  public int getTotalRecords() { return totalRecords; }
+  public void setTotalRecords(int totalRecords) { this.totalRecords = totalRecords; }
+  public String getContentHash() { return contentHash; }
+  public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+  public boolean isDuplicate() { return duplicate; }
+  public void setDuplicate(boolean duplicate) { this.duplicate = duplicate; }
 }
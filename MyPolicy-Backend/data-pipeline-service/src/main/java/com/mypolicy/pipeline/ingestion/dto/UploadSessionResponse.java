@@ -0,0 +1,52 @@
+package com.mypolicy.pipeline.ingestion.dto;
+
+import com.mypolicy.pipeline.ingestion.model.UploadSessionStatus;
+
+import java.util.List;
+
+/**
+ * State of a chunked upload session: what to send and what has arrived.
+ * receivedRanges lists received chunk indexes as inclusive ranges ("0-41", "43").
+ */
+public class UploadSessionResponse {
+  private String sessionId;
+  private UploadSessionStatus status;
+  private long totalSize;
+  private int chunkSize;
+  private int chunkCount;
+  private int receivedCount;
+  private List<String> receivedRanges;
+  private String jobId;
+
+  public UploadSessionResponse() {
+  }
+
+  public UploadSessionResponse(String sessionId, UploadSessionStatus status, long totalSize, int chunkSize,
+      int chunkCount, int receivedCount, List<String> receivedRanges, String jobId) {
+    this.sessionId = sessionId;
+    this.status = status;
+    this.totalSize = totalSize;
+    this.chunkSize = chunkSize;
+    this.chunkCount = chunkCount;
+    this.receivedCount = receivedCount;
+    this.receivedRanges = receivedRanges;
+    this.jobId = jobId;
+  }
+
+  public String getSessionId() { return sessionId; }
+  public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+  public UploadSessionStatus getStatus() { return status; }
+  public void setStatus(UploadSessionStatus status) { this.status = status; }
+  public long getTotalSize() { return totalSize; }
+  public void setTotalSize(long totalSize) { this.totalSize = totalSize; }
+  public int getChunkSize() { return chunkSize; }
+  public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+  public int getChunkCount() { return chunkCount; }
+  public void setChunkCount(int chunkCount) { this.chunkCount = chunkCount; }
+  public int getReceivedCount() { return receivedCount; }
+  public void setReceivedCount(int receivedCount) { this.receivedCount = receivedCount; }
+  public List<String> getReceivedRanges() { return receivedRanges; }
+  public void setReceivedRanges(List<String> receivedRanges) { this.receivedRanges = receivedRanges; }
+  public String getJobId() { return jobId; }
+  public void setJobId(String jobId) { this.jobId = jobId; }
+}
@@ -0,0 +1,19 @@
+package com.mypolicy.pipeline.ingestion.event;
+
+import com.mypolicy.pipeline.ingestion.model.IngestionStatus;
+
+/**
+ * Change to one ingestion job, as published on the {@link JobEventBus}.
+ * Fields that did not change are null (status) or -1 (counts).
+ */
+public record JobEvent(String jobId, IngestionStatus status, String failureReason, int processedRecords,
+    int totalRecords) {
+
+  public static JobEvent status(String jobId, IngestionStatus status, String failureReason) {
+    return new JobEvent(jobId, status, failureReason, -1, -1);
+  }
+
+  public static JobEvent progress(String jobId, int processedRecords, int totalRecords) {
+    return new JobEvent(jobId, null, null, processedRecords, totalRecords);
+  }
+}
@@ -0,0 +1,56 @@
+package com.mypolicy.pipeline.ingestion.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus for job status and progress changes.
+ *
+ * Publishers are the places that write job state (status transitions,
+ * progress flushes); listeners must return quickly, since they run on the
+ * publisher's thread. Listeners register the jobs they care about with
+ * {@link #watch(String)}, which lets publishers skip work for jobs nobody is
+ * following.
+ */
+@Component
+public class JobEventBus {
+
+  private static final Logger log = LoggerFactory.getLogger(JobEventBus.class);
+
+  private final List<Consumer<JobEvent>> listeners = new CopyOnWriteArrayList<>();
+  private final Map<String, AtomicInteger> watchers = new ConcurrentHashMap<>();
+
+  public void addListener(Consumer<JobEvent> listener) {
+    listeners.add(listener);
+  }
+
+  public void publish(JobEvent event) {
+    for (Consumer<JobEvent> listener : listeners) {
+      try {
+        listener.accept(event);
+      } catch (RuntimeException e) {
+        log.warn("[Ingestion] Job event listener failed: jobId={}", event.jobId(), e);
+      }
+    }
+  }
+
+  public void watch(String jobId) {
+    watchers.computeIfAbsent(jobId, id -> new AtomicInteger()).incrementAndGet();
+  }
+
+  public void unwatch(String jobId) {
+    watchers.computeIfPresent(jobId, (id, count) -> count.decrementAndGet() <= 0 ? null : count);
+  }
+
+  public boolean isWatched(String jobId) {
+    return watchers.containsKey(jobId);
+  }
+}
@@ -1,7 +1,9 @@
 package com.mypolicy.pipeline.ingestion.model;
 
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -13,22 +15,50 @@ import java.time.LocalDateTime;
  * Consolidated Service: Part of data-pipeline-service.
  */
 @Document(collection = "ingestion_jobs")
+@CompoundIndexes({
+    @CompoundIndex(name = "idx_jobs_insurer_content_hash", def = "{'insurerId': 1, 'contentHash': 1}"),
+    // Job search: equality filters first, then the (createdAt, _id) keyset order, which also
+    // bounds the date range. The status index serves job claiming too.
+    @CompoundIndex(name = "idx_jobs_created", def = "{'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "idx_jobs_status_created", def = "{'status': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "idx_jobs_insurer_created", def = "{'insurerId': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "idx_jobs_insurer_status_created",
+        def = "{'insurerId': 1, 'status': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "idx_jobs_uploader_created", def = "{'uploadedBy': 1, 'createdAt': -1, '_id': -1}")
+})
 public class IngestionJob {
 
   @Id
   private String jobId;
 
+  // Optimistic lock for full-document saves; status transitions are conditional updates
+  @Version
+  private Long version;
+
   private String insurerId;
   private String filePath;
+  private String policyType;
+
+  // SHA-256 (hex) and size of the stored file, computed while it was written; the file is
+  // stored under its hash, so jobs for identical uploads share it
+  private String contentHash;
+  private long fileSize;
 
-  @Indexed
   private IngestionStatus status;
   private int totalRecords;
   private int processedRecords;
   private String uploadedBy;
   private String failureReason;
 
-  @Indexed
+  // Last row (1-based, header excluded) up to which every row has been fully processed
+  private long checkpointRow;
+  private LocalDateTime checkpointAt;
+
+  // Processing lease: the node currently working on the job and until when its claim holds
+  private String leaseOwner;
+  private LocalDateTime leaseExpiresAt;
+  private LocalDateTime heartbeatAt;
+
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
 
@@ -58,6 +88,14 @@ public class IngestionJob {
     this.jobId = jobId;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   public String getInsurerId() {
     return insurerId;
   }
@@ -74,6 +112,30 @@ public class IngestionJob {
     this.filePath = filePath;
   }
 
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  public long getFileSize() {
+    return fileSize;
+  }
+
+  public void setFileSize(long fileSize) {
+    this.fileSize = fileSize;
+  }
+
+  public String getPolicyType() {
+    return policyType;
+  }
+
+  public void setPolicyType(String policyType) {
+    this.policyType = policyType;
+  }
+
   public IngestionStatus getStatus() {
     return status;
   }
@@ -114,6 +176,46 @@ public class IngestionJob {
     this.failureReason = failureReason;
   }
 
+  public long getCheckpointRow() {
+    return checkpointRow;
+  }
+
+  public void setCheckpointRow(long checkpointRow) {
+    this.checkpointRow = checkpointRow;
+  }
+
+  public LocalDateTime getCheckpointAt() {
+    return checkpointAt;
+  }
+
+  public void setCheckpointAt(LocalDateTime checkpointAt) {
+    this.checkpointAt = checkpointAt;
+  }
+
+  public String getLeaseOwner() {
+    return leaseOwner;
+  }
+
+  public void setLeaseOwner(String leaseOwner) {
+    this.leaseOwner = leaseOwner;
+  }
+
+  public LocalDateTime getLeaseExpiresAt() {
+    return leaseExpiresAt;
+  }
+
+  public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+    this.leaseExpiresAt = leaseExpiresAt;
+  }
+
+  public LocalDateTime getHeartbeatAt() {
+    return heartbeatAt;
+  }
+
+  public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+    this.heartbeatAt = heartbeatAt;
+  }
+
   public LocalDateTime getCreatedAt() {
     return createdAt;
   }
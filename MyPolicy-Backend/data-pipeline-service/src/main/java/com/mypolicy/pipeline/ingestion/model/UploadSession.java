@@ -0,0 +1,147 @@
+package com.mypolicy.pipeline.ingestion.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumable chunked upload: the file is cut into chunkCount chunks of
+ * chunkSize bytes (the last one shorter), each written at its own offset of a
+ * preallocated file. receivedChunks grows with an atomic $addToSet, so chunks
+ * may arrive in any order and in parallel.
+ */
+@Document(collection = "upload_sessions")
+@CompoundIndex(name = "idx_upload_sessions_status_updated", def = "{'status': 1, 'updatedAt': 1}")
+public class UploadSession {
+
+  @Id
+  private String sessionId;
+
+  private String insurerId;
+  private String filename;
+  private String uploadedBy;
+  private long totalSize;
+  private int chunkSize;
+  private int chunkCount;
+  private List<Integer> receivedChunks = new ArrayList<>();
+  private UploadSessionStatus status;
+
+  // Reserved when completion starts; the job actually used once the session is completed
+  private String jobId;
+  // SHA-256 of the assembled file, recorded before its job is registered
+  private String contentHash;
+
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+
+  public UploadSession() {
+  }
+
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  public void setSessionId(String sessionId) {
+    this.sessionId = sessionId;
+  }
+
+  public String getInsurerId() {
+    return insurerId;
+  }
+
+  public void setInsurerId(String insurerId) {
+    this.insurerId = insurerId;
+  }
+
+  public String getFilename() {
+    return filename;
+  }
+
+  public void setFilename(String filename) {
+    this.filename = filename;
+  }
+
+  public String getUploadedBy() {
+    return uploadedBy;
+  }
+
+  public void setUploadedBy(String uploadedBy) {
+    this.uploadedBy = uploadedBy;
+  }
+
+  public long getTotalSize() {
+    return totalSize;
+  }
+
+  public void setTotalSize(long totalSize) {
+    this.totalSize = totalSize;
+  }
+
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
+  public void setChunkSize(int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  public int getChunkCount() {
+    return chunkCount;
+  }
+
+  public void setChunkCount(int chunkCount) {
+    this.chunkCount = chunkCount;
+  }
+
+  public List<Integer> getReceivedChunks() {
+    return receivedChunks;
+  }
+
+  public void setReceivedChunks(List<Integer> receivedChunks) {
+    this.receivedChunks = receivedChunks;
+  }
+
+  public UploadSessionStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(UploadSessionStatus status) {
+    this.status = status;
+  }
+
+  public String getJobId() {
+    return jobId;
+  }
+
+  public void setJobId(String jobId) {
+    this.jobId = jobId;
+  }
+
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  public LocalDateTime getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public void setUpdatedAt(LocalDateTime updatedAt) {
+    this.updatedAt = updatedAt;
+  }
+}
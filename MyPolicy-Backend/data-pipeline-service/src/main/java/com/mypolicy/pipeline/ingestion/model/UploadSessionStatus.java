@@ -0,0 +1,12 @@
+package com.mypolicy.pipeline.ingestion.model;
+
+/**
+ * Lifecycle of a chunked upload session.
+ */
+public enum UploadSessionStatus {
+  OPEN,        // Accepting chunks
+  COMPLETING,  // All chunks received; being hashed and turned into a job
+  COMPLETED,   // Job created (or linked to an existing job for the same content)
+  ABORTED,     // Cancelled by the client
+  EXPIRED      // No chunk received within the session TTL
+}
@@ -2,10 +2,13 @@ package com.mypolicy.pipeline.ingestion.repository;
 
 import com.mypolicy.pipeline.ingestion.model.IngestionJob;
 import com.mypolicy.pipeline.ingestion.model.IngestionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.Optional;
 
 /**
  * MongoDB repository for ingestion job tracking.
@@ -14,7 +17,13 @@ import java.util.List;
  */
 @Repository
 public interface IngestionJobRepository extends MongoRepository<IngestionJob, String> {
-  List<IngestionJob> findByStatus(IngestionStatus status);
+  // Bounded by the page size; served by the (status|insurerId, createdAt, _id) indexes when
+  // sorted by createdAt. Use IngestionService.searchJobs for deep paging.
+  Slice<IngestionJob> findByStatus(IngestionStatus status, Pageable pageable);
 
-  List<IngestionJob> findByInsurerId(String insurerId);
+  Slice<IngestionJob> findByInsurerId(String insurerId, Pageable pageable);
+
+  // Served by the (insurerId, contentHash) index
+  Optional<IngestionJob> findFirstByInsurerIdAndContentHashAndStatusInOrderByCreatedAtDesc(String insurerId,
+      String contentHash, Collection<IngestionStatus> statuses);
 }
@@ -0,0 +1,17 @@
+package com.mypolicy.pipeline.ingestion.repository;
+
+import com.mypolicy.pipeline.ingestion.model.UploadSession;
+import com.mypolicy.pipeline.ingestion.model.UploadSessionStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * MongoDB repository for chunked upload sessions.
+ */
+@Repository
+public interface UploadSessionRepository extends MongoRepository<UploadSession, String> {
+  List<UploadSession> findByStatusAndUpdatedAtBefore(UploadSessionStatus status, LocalDateTime updatedBefore);
+}
@@ -1,9 +1,12 @@
 package com.mypolicy.pipeline.ingestion.service;
 
+import com.mypolicy.pipeline.ingestion.dto.JobPageResponse;
 import com.mypolicy.pipeline.ingestion.dto.JobStatusResponse;
 import com.mypolicy.pipeline.ingestion.dto.ProgressUpdateRequest;
 import com.mypolicy.pipeline.ingestion.dto.StatusUpdateRequest;
 import com.mypolicy.pipeline.ingestion.dto.UploadResponse;
+import com.mypolicy.pipeline.ingestion.event.JobEvent;
+import com.mypolicy.pipeline.ingestion.event.JobEventBus;
 import com.mypolicy.pipeline.ingestion.model.IngestionJob;
 import com.mypolicy.pipeline.ingestion.model.IngestionStatus;
 import com.mypolicy.pipeline.ingestion.repository.IngestionJobRepository;
@@ -11,17 +14,36 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -37,8 +59,14 @@ public class IngestionService {
   private static final Logger log = LoggerFactory.getLogger(IngestionService.class);
   private static final List<String> ALLOWED_EXTENSIONS = Arrays.asList(".xls", ".xlsx", ".csv");
   private static final long MAX_FILE_SIZE_BYTES = 50 * 1024 * 1024; // 50MB
+  private static final int MAX_PAGE_SIZE = 500;
+  // Jobs a re-upload of the same content is linked to instead of starting a new one
+  private static final List<IngestionStatus> DEDUPLICATED_STATUSES = List.of(
+      IngestionStatus.UPLOADED, IngestionStatus.PROCESSING, IngestionStatus.COMPLETED);
 
   private final IngestionJobRepository jobRepository;
+  private final MongoTemplate mongoTemplate;
+  private final JobEventBus eventBus;
 
   @Value("${ingestion.storage.path:storage/ingestion}")
   private String storageBasePath;
@@ -54,31 +82,173 @@ public class IngestionService {
     // 1. Validate file
     validateFile(file);
 
-    // 2. Generate jobId and save file
+    // 2. Store it; the container has already spooled the multipart, so this is its second write
+    try (InputStream inputStream = file.getInputStream()) {
+      return store(Channels.newChannel(inputStream), file.getOriginalFilename(), insurerId, uploadedBy);
+    }
+  }
+
+  /**
+   * Upload a file sent as the raw request body. Unlike a multipart upload,
+   * nothing is spooled by the container: the body is written once, straight
+   * to its final location.
+   */
+  public UploadResponse uploadStream(InputStream body, String filename, String insurerId, String uploadedBy)
+      throws IOException {
+
+    log.info("[Ingestion] Starting streamed upload: insurerId={}, filename={}", insurerId, filename);
+    validateFilename(filename);
+    return store(Channels.newChannel(body), filename, insurerId, uploadedBy);
+  }
+
+  /**
+   * Write the upload under a temporary name while hashing it and counting CSV
+   * rows, then file it under its content hash and create the job with
+   * totalRecords already known.
+   *
+   * Files are content-addressed: identical bytes are stored once, however
+   * often they are uploaded. If the insurer already has a job for the same
+   * content that is waiting, running or completed, no new job is created and
+   * that job is returned, marked as a duplicate; only a failed earlier job
+   * leads to a new one (reusing the stored file).
+   */
+  private UploadResponse store(ReadableByteChannel in, String filename, String insurerId, String uploadedBy)
+      throws IOException {
     String jobId = UUID.randomUUID().toString();
-    String extension = getFileExtension(file.getOriginalFilename());
+    String extension = getFileExtension(filename).toLowerCase();
     Path storagePath = Paths.get(storageBasePath);
     if (!Files.exists(storagePath)) {
       Files.createDirectories(storagePath);
     }
 
-    Path filePath = storagePath.resolve(jobId + extension);
-    try (InputStream inputStream = file.getInputStream()) {
-      Files.copy(inputStream, filePath);
+    Path partPath = storagePath.resolve(jobId + extension + ".part");
+    UploadWriter.StoredFile stored;
+    Path filePath;
+    try {
+      try (FileChannel out = FileChannel.open(partPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+        UploadWriter writer = new UploadWriter(out, ".csv".equals(extension));
+        writer.write(in, MAX_FILE_SIZE_BYTES);
+        if (writer.size() == 0) {
+          throw new IllegalArgumentException("File is empty or missing");
+        }
+        stored = writer.finish();
+      }
+      filePath = fileByContent(partPath, storagePath, stored.sha256(), extension);
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(partPath);
+      throw e;
+    }
+
+    log.info("[Ingestion] File uploaded: insurerId={}, path={}, bytes={}, sha256={}", insurerId,
+        filePath.toAbsolutePath(), stored.size(), stored.sha256());
+    return createJob(jobId, filePath, stored, insurerId, uploadedBy);
+  }
+
+  /**
+   * File a fully written upload (e.g. an assembled chunked upload) under its
+   * content hash and create its job, with the same de-duplication as a direct upload.
+   *
+   * The job is created before the file is moved: if creating it fails the part
+   * file is untouched, and if the move fails {@link #fileUpload} can finish it.
+   */
+  UploadResponse registerUpload(Path partPath, String extension, UploadWriter.StoredFile stored, String insurerId,
+      String uploadedBy, String jobId) throws IOException {
+    Path filePath = contentPath(Paths.get(storageBasePath), stored.sha256(), extension);
+    UploadResponse response = createJob(jobId, filePath, stored, insurerId, uploadedBy);
+    fileUpload(partPath, stored.sha256(), extension);
+    log.info("[Ingestion] Chunked upload stored: insurerId={}, path={}, bytes={}, sha256={}", insurerId,
+        filePath.toAbsolutePath(), stored.size(), stored.sha256());
+    return response;
+  }
+
+  /**
+   * Move a written upload to its content path, unless that already happened.
+   */
+  void fileUpload(Path partPath, String sha256, String extension) throws IOException {
+    if (!Files.exists(partPath)) {
+      return;
+    }
+    try {
+      fileByContent(partPath, Paths.get(storageBasePath), sha256, extension);
+    } catch (NoSuchFileException e) {
+      // Filed by a concurrent call in the meantime
+      if (!Files.exists(contentPath(Paths.get(storageBasePath), sha256, extension))) {
+        throw e;
+      }
+    }
+  }
+
+  boolean jobExists(String jobId) {
+    return jobRepository.existsById(jobId);
+  }
+
+  /**
+   * The job an upload of this content was registered under, whether a new one
+   * or the earlier upload it was de-duplicated to.
+   */
+  Optional<IngestionJob> findUploadJob(String jobId, String insurerId, String sha256) {
+    Optional<IngestionJob> job = jobRepository.findById(jobId);
+    if (job.isPresent() || sha256 == null) {
+      return job;
     }
+    return jobRepository.findFirstByInsurerIdAndContentHashAndStatusInOrderByCreatedAtDesc(insurerId, sha256,
+        DEDUPLICATED_STATUSES);
+  }
 
-    log.info("[Ingestion] File uploaded: jobId={}, insurerId={}, path={}", jobId, insurerId,
-        filePath.toAbsolutePath());
+  private UploadResponse createJob(String jobId, Path filePath, UploadWriter.StoredFile stored, String insurerId,
+      String uploadedBy) {
+    // 3. Short-circuit re-uploads of content this insurer already sent
+    Optional<IngestionJob> original = jobRepository
+        .findFirstByInsurerIdAndContentHashAndStatusInOrderByCreatedAtDesc(insurerId, stored.sha256(),
+            DEDUPLICATED_STATUSES);
+    if (original.isPresent()) {
+      IngestionJob job = original.get();
+      log.info("[Ingestion] Duplicate upload of jobId={} (status={}), no new job created: insurerId={}, sha256={}",
+          job.getJobId(), job.getStatus(), insurerId, stored.sha256());
+      UploadResponse response = new UploadResponse(job.getJobId(), job.getStatus(), job.getTotalRecords(),
+          stored.sha256());
+      response.setDuplicate(true);
+      return response;
+    }
 
-    // 3. Create ingestion job
+    // 4. Create ingestion job; CSV row counts are known now, Excel ones once processing opens the file
+    int totalRecords = (int) Math.max(0, stored.rows());
     IngestionJob job = new IngestionJob(jobId, insurerId, filePath.toAbsolutePath().toString(),
-        IngestionStatus.UPLOADED, 0, 0, uploadedBy, null, LocalDateTime.now(), LocalDateTime.now());
+        IngestionStatus.UPLOADED, totalRecords, 0, uploadedBy, null, LocalDateTime.now(), LocalDateTime.now());
+    job.setContentHash(stored.sha256());
+    job.setFileSize(stored.size());
 
     jobRepository.save(job);
 
-    log.info("[Ingestion] Job created: jobId={}, status=UPLOADED", jobId);
+    log.info("[Ingestion] Job created: jobId={}, status=UPLOADED, totalRecords={}", jobId,
+        stored.rows() >= 0 ? totalRecords : "unknown");
 
-    return new UploadResponse(jobId, IngestionStatus.UPLOADED);
+    return new UploadResponse(jobId, IngestionStatus.UPLOADED, totalRecords, stored.sha256());
+  }
+
+  /**
+   * Move a written upload to its content path, or drop it if that content is already stored.
+   */
+  private static Path fileByContent(Path partPath, Path storagePath, String sha256, String extension)
+      throws IOException {
+    Path filePath = contentPath(storagePath, sha256, extension);
+    if (Files.exists(filePath)) {
+      Files.delete(partPath);
+    } else {
+      Files.createDirectories(filePath.getParent());
+      // Same file system: a rename, not another copy. A concurrent upload of
+      // the same bytes may win the race; replacing identical content is harmless.
+      Files.move(partPath, filePath, StandardCopyOption.ATOMIC_MOVE);
+    }
+    return filePath;
+  }
+
+  /**
+   * storage/ingestion/sha256/ab/abcdef....csv: fanned out by the first hash byte
+   * so no directory grows too large.
+   */
+  private static Path contentPath(Path storagePath, String sha256, String extension) {
+    return storagePath.resolve("sha256").resolve(sha256.substring(0, 2)).resolve(sha256 + extension);
   }
 
   /**
@@ -90,11 +260,110 @@ public class IngestionService {
     IngestionJob job = jobRepository.findById(jobId)
         .orElseThrow(() -> new IllegalArgumentException("Job not found: " + jobId));
 
-    return new JobStatusResponse(job.getJobId(), job.getStatus(), job.getProcessedRecords(),
-        job.getTotalRecords(), job.getFilePath(), job.getInsurerId(), job.getCreatedAt(),
-        job.getUpdatedAt());
+    return toStatusResponse(job);
   }
-        ////TODO : SHEDLOCK FOR SCHEDULING
+
+  static JobStatusResponse toStatusResponse(IngestionJob job) {
+    JobStatusResponse response = new JobStatusResponse(job.getJobId(), job.getStatus(),
+        job.getProcessedRecords(), job.getTotalRecords(), job.getFilePath(), job.getInsurerId(),
+        job.getCreatedAt(), job.getUpdatedAt());
+    response.setFailureReason(job.getFailureReason());
+    return response;
+  }
+
+  /**
+   * Search jobs, newest first, one keyset page at a time.
+   *
+   * Every filter is optional; from is inclusive and to exclusive. A page
+   * continues strictly after the (createdAt, jobId) in the cursor, so deep
+   * pages cost the same as the first and jobs created meanwhile do not shift
+   * them. Only the fields of {@link JobStatusResponse} are read.
+   *
+   * @param cursor nextCursor of the previous page, or null for the first page
+   * @throws IllegalArgumentException on a bad limit, date range or cursor
+   */
+  public JobPageResponse searchJobs(String insurerId, IngestionStatus status, String uploadedBy,
+      LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    if (from != null && to != null && !from.isBefore(to)) {
+      throw new IllegalArgumentException("from must be before to");
+    }
+
+    List<Criteria> filters = new ArrayList<>();
+    if (insurerId != null) {
+      filters.add(Criteria.where("insurerId").is(insurerId));
+    }
+    if (status != null) {
+      filters.add(Criteria.where("status").is(status));
+    }
+    if (uploadedBy != null) {
+      filters.add(Criteria.where("uploadedBy").is(uploadedBy));
+    }
+    if (from != null) {
+      filters.add(Criteria.where("createdAt").gte(from));
+    }
+    if (to != null) {
+      filters.add(Criteria.where("createdAt").lt(to));
+    }
+    if (cursor != null) {
+      String[] after = decodeCursor(cursor);
+      LocalDateTime createdAt = parseCursorTime(after[0]);
+      filters.add(new Criteria().orOperator(
+          Criteria.where("createdAt").lt(createdAt),
+          Criteria.where("createdAt").is(createdAt).and("_id").lt(after[1])));
+    }
+
+    Query query = new Query();
+    if (!filters.isEmpty()) {
+      query.addCriteria(new Criteria().andOperator(filters));
+    }
+    query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(limit + 1);
+    query.fields().include("status", "processedRecords", "totalRecords", "filePath", "insurerId",
+        "failureReason", "createdAt", "updatedAt");
+
+    List<IngestionJob> jobs = mongoTemplate.find(query, IngestionJob.class);
+    String nextCursor = null;
+    if (jobs.size() > limit) {
+      jobs = jobs.subList(0, limit);
+      IngestionJob last = jobs.get(limit - 1);
+      nextCursor = encodeCursor(last.getCreatedAt(), last.getJobId());
+    }
+    log.debug("[Ingestion] Job search: insurerId={}, status={}, returned={}, more={}", insurerId, status,
+        jobs.size(), nextCursor != null);
+    return new JobPageResponse(jobs.stream().map(IngestionService::toStatusResponse).toList(), nextCursor);
+  }
+
+  private static String encodeCursor(LocalDateTime createdAt, String jobId) {
+    String value = createdAt + "|" + jobId;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return createdAt and jobId of the last job on the previous page
+   */
+  private static String[] decodeCursor(String cursor) {
+    try {
+      String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = value.split("\\|", 2);
+      if (parts.length == 2 && !parts[1].isEmpty()) {
+        return parts;
+      }
+    } catch (IllegalArgumentException e) {
+      // fall through
+    }
+    throw new IllegalArgumentException("Invalid cursor");
+  }
+
+  private static LocalDateTime parseCursorTime(String value) {
+    try {
+      return LocalDateTime.parse(value);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+  }
+
   /**
    * Internal: get job entity (for Processing module's direct method calls).
    */
@@ -104,68 +373,300 @@ public class IngestionService {
   }
 
   /**
-   * Internal: increment processed records (idempotent when retried).
+   * Internal: increment processed records with a single atomic $inc.
    */
   public void updateProgress(String jobId, ProgressUpdateRequest request) {
     if (request.getProcessedRecordsDelta() <= 0) {
       throw new IllegalArgumentException("processedRecordsDelta must be positive");
     }
 
-    IngestionJob job = jobRepository.findById(jobId)
-        .orElseThrow(() -> new IllegalArgumentException("Job not found: " + jobId));
-
-    if (job.getStatus() != IngestionStatus.PROCESSING) {
-      throw new IllegalStateException(
-          "Cannot update progress: job must be in PROCESSING state, current=" + job.getStatus());
+    if (!incrementProgress(jobId, null, request.getProcessedRecordsDelta())) {
+      IngestionJob job = jobRepository.findById(jobId)
+          .orElseThrow(() -> new IllegalArgumentException("Job not found: " + jobId));
+      throw new IllegalStateException(job.getLeaseOwner() != null
+          ? "Cannot update progress: job is being processed by node " + job.getLeaseOwner()
+          : "Cannot update progress: job must be in PROCESSING state, current=" + job.getStatus());
     }
 
-    job.setProcessedRecords(job.getProcessedRecords() + request.getProcessedRecordsDelta());
-    job.setUpdatedAt(LocalDateTime.now());
-    jobRepository.save(job);
+    log.debug("[Ingestion] Progress updated: jobId={}, delta={}", jobId, request.getProcessedRecordsDelta());
+  }
 
-    log.debug("[Ingestion] Progress updated: jobId={}, processed={}/{}", jobId, job.getProcessedRecords(),
-        job.getTotalRecords());
+  /**
+   * Internal: $inc processedRecords of a PROCESSING job. Concurrent callers
+   * never lose updates, unlike a findById/save round trip.
+   *
+   * @param owner node holding the job's lease, or null for a job no node holds
+   * @return false if no PROCESSING job with this id is held by owner
+   */
+  public boolean incrementProgress(String jobId, String owner, long delta) {
+    Update update = new Update()
+        .inc("processedRecords", Math.toIntExact(delta))
+        .set("updatedAt", LocalDateTime.now());
+    if (!eventBus.isWatched(jobId)) {
+      return mongoTemplate.updateFirst(ownedJob(jobId, owner), update, IngestionJob.class).getMatchedCount() > 0;
+    }
+    // Someone is streaming this job: same single write, but get the new totals back to publish
+    Query query = ownedJob(jobId, owner);
+    query.fields().include("processedRecords", "totalRecords");
+    IngestionJob job = mongoTemplate.findAndModify(query, update,
+        FindAndModifyOptions.options().returnNew(true), IngestionJob.class);
+    if (job == null) {
+      return false;
+    }
+    eventBus.publish(JobEvent.progress(jobId, job.getProcessedRecords(), job.getTotalRecords()));
+    return true;
   }
 
   /**
-   * Internal: transition job status. Enforces state machine.
+   * Internal: reset processedRecords, e.g. to the checkpoint a resumed job restarts from.
+   *
+   * @throws LeaseLostException if owner no longer holds the job
+   */
+  public void resetProgress(String jobId, String owner, long processedRecords) {
+    Update update = new Update()
+        .set("processedRecords", Math.toIntExact(processedRecords))
+        .set("updatedAt", LocalDateTime.now());
+    if (mongoTemplate.updateFirst(ownedJob(jobId, owner), update, IngestionJob.class).getMatchedCount() == 0) {
+      throw new LeaseLostException(jobId, owner);
+    }
+    eventBus.publish(JobEvent.progress(jobId, Math.toIntExact(processedRecords), -1));
+  }
+
+  /**
+   * Transition job status from the API. Enforces state machine; jobs held by a
+   * processing node can only be finished by that node.
    */
   public void updateStatus(String jobId, StatusUpdateRequest request) {
-    IngestionJob job = jobRepository.findById(jobId)
-        .orElseThrow(() -> new IllegalArgumentException("Job not found: " + jobId));
+    updateStatus(jobId, null, request);
+  }
 
+  /**
+   * Internal: transition job status. Enforces state machine.
+   *
+   * @param owner node holding the job's lease, or null for a job no node holds
+   * @throws LeaseLostException if owner no longer holds the job
+   */
+  public void updateStatus(String jobId, String owner, StatusUpdateRequest request) {
     IngestionStatus newStatus = request.getStatus();
     if (newStatus == null) {
       throw new IllegalArgumentException("status is required");
     }
 
-    IngestionStatus oldStatus = job.getStatus();
-    validateStateTransition(oldStatus, newStatus);
+    // One conditional update: the filter holds the only status the state machine
+    // allows before newStatus and the lease owner, so check and write cannot interleave
+    // with another node's claim or transition. The job is read only to explain a miss.
+    IngestionStatus expected = previousStatus(newStatus);
+    boolean updated = false;
+    if (expected != null) {
+      Query query = Query.query(Criteria.where("_id").is(jobId)
+          .and("status").is(expected)
+          .and("leaseOwner").is(owner));
+      Update update = versioned(new Update()
+          .set("status", newStatus)
+          .set("failureReason", request.getFailureReason())
+          .set("updatedAt", LocalDateTime.now()));
+      updated = mongoTemplate.updateFirst(query, update, IngestionJob.class).getMatchedCount() > 0;
+    }
 
-    job.setStatus(newStatus);
-    job.setFailureReason(request.getFailureReason());
-    job.setUpdatedAt(LocalDateTime.now());
-    jobRepository.save(job);
+    if (!updated) {
+      IngestionJob current = jobRepository.findById(jobId)
+          .orElseThrow(() -> new IllegalArgumentException("Job not found: " + jobId));
+      checkLeaseOwner(current, owner);
+      validateStateTransition(current.getStatus(), newStatus);
+      // Valid now, but the job changed between the update and the read
+      throw new IllegalStateException("Concurrent update on job " + jobId + ", current=" + current.getStatus());
+    }
 
-    log.info("[Ingestion] Status transition: jobId={}, {} -> {}", jobId, oldStatus, newStatus);
+    log.info("[Ingestion] Status transition: jobId={}, {} -> {}", jobId, expected, newStatus);
+    eventBus.publish(JobEvent.status(jobId, newStatus, request.getFailureReason()));
   }
 
   /**
-   * Update total records (e.g. when Processing Service determines count).
+   * @throws LeaseLostException if owner is a node that no longer holds the job
    */
-  public void setTotalRecords(String jobId, int totalRecords) {
-    IngestionJob job = jobRepository.findById(jobId)
-        .orElseThrow(() -> new IllegalArgumentException("Job not found: " + jobId));
+  private static void checkLeaseOwner(IngestionJob job, String owner) {
+    if (Objects.equals(job.getLeaseOwner(), owner)) {
+      return;
+    }
+    if (owner != null) {
+      throw new LeaseLostException(job.getJobId(), owner);
+    }
+    throw new IllegalStateException("Job " + job.getJobId() + " is being processed by node " + job.getLeaseOwner());
+  }
 
-    if (job.getStatus() != IngestionStatus.UPLOADED && job.getStatus() != IngestionStatus.PROCESSING) {
-      throw new IllegalStateException("Cannot set totalRecords in state: " + job.getStatus());
+  /**
+   * Internal: mark an UPLOADED job as ready to be claimed by a processing node.
+   * The policy type is stored on the job so any node (or a later reclaim) can run it.
+   */
+  public void requestProcessing(String jobId, String policyType) {
+    Query query = Query.query(Criteria.where("_id").is(jobId)
+        .and("status").is(IngestionStatus.UPLOADED)
+        .and("policyType").is(null));
+    Update update = versioned(new Update()
+        .set("policyType", policyType)
+        .set("updatedAt", LocalDateTime.now()));
+
+    if (mongoTemplate.updateFirst(query, update, IngestionJob.class).getMatchedCount() == 0) {
+      IngestionJob job = jobRepository.findById(jobId)
+          .orElseThrow(() -> new IllegalArgumentException("Job not found: " + jobId));
+      throw new IllegalStateException(job.getStatus() == IngestionStatus.UPLOADED
+          ? "Processing already requested for job: " + jobId
+          : "Job " + jobId + " cannot be processed in state " + job.getStatus());
     }
 
-    job.setTotalRecords(totalRecords);
-    job.setUpdatedAt(LocalDateTime.now());
-    jobRepository.save(job);
+    log.info("[Ingestion] Processing requested: jobId={}, policyType={}", jobId, policyType);
+  }
+
+  /**
+   * Internal: number of jobs requested for processing and not yet claimed by a
+   * node, counted up to limit.
+   */
+  public long countQueuedJobs(int limit) {
+    Query query = Query.query(Criteria.where("status").is(IngestionStatus.UPLOADED).and("policyType").ne(null))
+        .limit(limit);
+    return mongoTemplate.count(query, IngestionJob.class);
+  }
+
+  /**
+   * Internal: atomically claim the oldest runnable job for this node.
+   *
+   * Runnable means requested and UPLOADED (claiming moves it to PROCESSING), or
+   * PROCESSING with an expired lease, i.e. its owner stopped heartbeating.
+   * A single findAndModify makes the claim race-free across nodes.
+   *
+   * @return the claimed job, or null if nothing is runnable
+   */
+  public IngestionJob claimNextJob(String owner, Duration leaseDuration) {
+    LocalDateTime now = LocalDateTime.now();
+    Criteria requested = Criteria.where("status").is(IngestionStatus.UPLOADED);
+    Criteria abandoned = new Criteria().andOperator(
+        Criteria.where("status").is(IngestionStatus.PROCESSING),
+        new Criteria().orOperator(
+            Criteria.where("leaseExpiresAt").lt(now),
+            Criteria.where("leaseExpiresAt").is(null)));
+    Query query = Query.query(new Criteria().andOperator(
+            Criteria.where("policyType").ne(null),
+            new Criteria().orOperator(requested, abandoned)))
+        .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+    Update update = versioned(new Update()
+        .set("status", IngestionStatus.PROCESSING)
+        .set("leaseOwner", owner)
+        .set("leaseExpiresAt", now.plus(leaseDuration))
+        .set("heartbeatAt", now)
+        .set("updatedAt", now));
+
+    IngestionJob job = mongoTemplate.findAndModify(query, update,
+        FindAndModifyOptions.options().returnNew(true), IngestionJob.class);
+    if (job != null) {
+      log.info("[Ingestion] Job claimed: jobId={}, owner={}, fromRow={}", job.getJobId(), owner,
+          job.getCheckpointRow() + 1);
+      eventBus.publish(new JobEvent(job.getJobId(), IngestionStatus.PROCESSING, null, job.getProcessedRecords(),
+          job.getTotalRecords()));
+    }
+    return job;
+  }
+
+  /**
+   * Internal: heartbeat. Extends the lease only while this owner still holds it.
+   *
+   * @return false if the job was reclaimed by another node or is no longer PROCESSING
+   */
+  public boolean renewLease(String jobId, String owner, Duration leaseDuration) {
+    LocalDateTime now = LocalDateTime.now();
+    Query query = Query.query(Criteria.where("_id").is(jobId)
+        .and("status").is(IngestionStatus.PROCESSING)
+        .and("leaseOwner").is(owner));
+    Update update = new Update()
+        .set("leaseExpiresAt", now.plus(leaseDuration))
+        .set("heartbeatAt", now);
+    return mongoTemplate.updateFirst(query, update, IngestionJob.class).getMatchedCount() > 0;
+  }
+
+  /**
+   * Internal: give up a claim immediately (e.g. the node cannot start it), so
+   * another node can pick the job up without waiting for the lease to expire.
+   */
+  public void releaseLease(String jobId, String owner) {
+    Query query = Query.query(Criteria.where("_id").is(jobId).and("leaseOwner").is(owner));
+    Update update = new Update()
+        .unset("leaseOwner")
+        .unset("leaseExpiresAt");
+    mongoTemplate.updateFirst(query, update, IngestionJob.class);
+  }
+
+  /**
+   * Internal: record that every row up to checkpointRow is done.
+   * Uses $max so late or concurrent writers can never move the checkpoint backwards,
+   * and only touches PROCESSING jobs still held by owner: a node that lost the
+   * lease must not move the checkpoint past rows the new owner has not redone.
+   *
+   * @return false if owner no longer holds the job
+   */
+  public boolean saveCheckpoint(String jobId, String owner, long checkpointRow) {
+    LocalDateTime now = LocalDateTime.now();
+    Update update = new Update()
+        .max("checkpointRow", checkpointRow)
+        .set("checkpointAt", now)
+        .set("updatedAt", now);
+    if (mongoTemplate.updateFirst(ownedJob(jobId, owner), update, IngestionJob.class).getMatchedCount() == 0) {
+      log.debug("[Ingestion] Checkpoint dropped, lease lost: jobId={}, owner={}", jobId, owner);
+      return false;
+    }
+
+    log.debug("[Ingestion] Checkpoint saved: jobId={}, row={}", jobId, checkpointRow);
+    return true;
+  }
+
+  /**
+   * Internal: fail PROCESSING jobs that carry no policy type. They were started
+   * before jobs were claimable and can be neither resumed nor reclaimed.
+   *
+   * @return number of jobs moved to FAILED
+   */
+  public long failOrphanedJobs() {
+    Query query = Query.query(Criteria.where("status").is(IngestionStatus.PROCESSING)
+        .and("policyType").is(null));
+    Update update = versioned(new Update()
+        .set("status", IngestionStatus.FAILED)
+        .set("failureReason", "Interrupted before completion; re-upload required")
+        .set("updatedAt", LocalDateTime.now()));
+    return mongoTemplate.updateMulti(query, update, IngestionJob.class).getModifiedCount();
+  }
+
+  /**
+   * Internal: update total records once the processing run knows the count.
+   * Targeted $set, so it cannot clobber concurrent progress increments.
+   *
+   * @throws LeaseLostException if owner no longer holds the job
+   */
+  public void setTotalRecords(String jobId, String owner, int totalRecords) {
+    Update update = versioned(new Update()
+        .set("totalRecords", totalRecords)
+        .set("updatedAt", LocalDateTime.now()));
+
+    if (mongoTemplate.updateFirst(ownedJob(jobId, owner), update, IngestionJob.class).getMatchedCount() == 0) {
+      throw new LeaseLostException(jobId, owner);
+    }
 
     log.debug("[Ingestion] Total records set: jobId={}, total={}", jobId, totalRecords);
+    eventBus.publish(JobEvent.progress(jobId, -1, totalRecords));
+  }
+
+  /**
+   * Field updates bump @Version so a concurrent full-document save fails
+   * instead of silently overwriting them. Counters, checkpoints and lease
+   * heartbeats are left out: they are commutative and change constantly.
+   */
+  private static Update versioned(Update update) {
+    return update.inc("version", 1);
+  }
+
+  /**
+   * A PROCESSING job whose lease is held by owner; a null owner matches jobs no node holds.
+   */
+  private Query ownedJob(String jobId, String owner) {
+    return Query.query(Criteria.where("_id").is(jobId).and("status").is(IngestionStatus.PROCESSING)
+        .and("leaseOwner").is(owner));
   }
 
   private void validateFile(MultipartFile file) {
@@ -178,7 +679,10 @@ public class IngestionService {
           "File size exceeds maximum allowed: " + (MAX_FILE_SIZE_BYTES / 1024 / 1024) + "MB");
     }
 
-    String originalName = file.getOriginalFilename();
+    validateFilename(file.getOriginalFilename());
+  }
+
+  void validateFilename(String originalName) {
     if (originalName == null || originalName.isBlank()) {
       throw new IllegalArgumentException("File name is missing");
     }
@@ -190,13 +694,28 @@ public class IngestionService {
     }
   }
 
-  private String getFileExtension(String filename) {
+  String getFileExtension(String filename) {
     if (filename == null)
       return null;
     int lastDot = filename.lastIndexOf('.');
     return lastDot > 0 ? filename.substring(lastDot) : null;
   }
 
+  /**
+   * The status a job must be in to move to next, or null if no status may precede it.
+   */
+  private static IngestionStatus previousStatus(IngestionStatus next) {
+    switch (next) {
+      case PROCESSING:
+        return IngestionStatus.UPLOADED;
+      case COMPLETED:
+      case FAILED:
+        return IngestionStatus.PROCESSING;
+      default:
+        return null;
+    }
+  }
+
   /**
    * State machine: UPLOADED → PROCESSING → COMPLETED | FAILED
    * No backward transitions. No skipping states.
@@ -0,0 +1,317 @@
+package com.mypolicy.pipeline.ingestion.service;
+
+import com.mypolicy.pipeline.ingestion.dto.JobStatusResponse;
+import com.mypolicy.pipeline.ingestion.event.JobEvent;
+import com.mypolicy.pipeline.ingestion.event.JobEventBus;
+import com.mypolicy.pipeline.ingestion.model.IngestionJob;
+import com.mypolicy.pipeline.ingestion.model.IngestionStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes job status and progress to Server-Sent Events subscribers.
+ *
+ * Each subscriber first gets a "status" event with the current job state.
+ * After that, status transitions are pushed as soon as they are published on
+ * the {@link JobEventBus}, and progress as "progress" events at most once per
+ * progress-interval-ms per job. The stream completes after COMPLETED or FAILED.
+ *
+ * The bus only sees changes made on this node. Jobs that have had no local
+ * event for reconcile-interval-ms (e.g. processed by another node) are
+ * re-read in one batched query for all of them, so the Mongo load is one
+ * query per interval per node however many clients are watching.
+ *
+ * All sends happen on one scheduler thread; bus listeners only update state.
+ */
+@Service
+public class JobProgressStreamer {
+
+  private static final Logger log = LoggerFactory.getLogger(JobProgressStreamer.class);
+
+  private final IngestionService ingestionService;
+  private final MongoTemplate mongoTemplate;
+  private final JobEventBus eventBus;
+  private final long progressIntervalMs;
+  private final long reconcileIntervalMs;
+  private final long heartbeatMs;
+  private final long streamTimeoutMs;
+  private final Map<String, JobStream> streams = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService scheduler;
+
+  public JobProgressStreamer(IngestionService ingestionService, MongoTemplate mongoTemplate,
+      JobEventBus eventBus,
+      @Value("${pipeline.ingestion.events.progress-interval-ms:1000}") long progressIntervalMs,
+      @Value("${pipeline.ingestion.events.reconcile-interval-ms:5000}") long reconcileIntervalMs,
+      @Value("${pipeline.ingestion.events.heartbeat-ms:15000}") long heartbeatMs,
+      @Value("${pipeline.ingestion.events.stream-timeout-ms:1800000}") long streamTimeoutMs) {
+    this.ingestionService = ingestionService;
+    this.mongoTemplate = mongoTemplate;
+    this.eventBus = eventBus;
+    this.progressIntervalMs = Math.max(100, progressIntervalMs);
+    this.reconcileIntervalMs = Math.max(this.progressIntervalMs, reconcileIntervalMs);
+    this.heartbeatMs = Math.max(1000, heartbeatMs);
+    this.streamTimeoutMs = streamTimeoutMs;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "job-progress-stream");
+      thread.setDaemon(true);
+      return thread;
+    });
+    eventBus.addListener(this::onEvent);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    scheduler.scheduleWithFixedDelay(this::sendPending, progressIntervalMs, progressIntervalMs,
+        TimeUnit.MILLISECONDS);
+    scheduler.scheduleWithFixedDelay(this::reconcile, reconcileIntervalMs, reconcileIntervalMs,
+        TimeUnit.MILLISECONDS);
+    scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Open an event stream for one job.
+   *
+   * @throws IllegalArgumentException if the job does not exist
+   */
+  public SseEmitter subscribe(String jobId) {
+    SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+    eventBus.watch(jobId);
+    // Added and removed inside compute so an emitter never lands on a stream being dropped
+    JobStream stream = streams.compute(jobId, (id, existing) -> {
+      JobStream target = existing != null ? existing : new JobStream(id);
+      target.emitters.add(emitter);
+      return target;
+    });
+    try {
+      // Read the job under the stream's lock: an event published meanwhile waits
+      // in onEvent and is applied on top of the state read, never dropped
+      synchronized (stream) {
+        if (stream.state == null) {
+          stream.state = ingestionService.getJobStatus(jobId);
+          stream.lastChangeAt = System.currentTimeMillis();
+        }
+        JobStatusResponse snapshot = stream.snapshot();
+        // Queued before any flush triggered by a later event, so the client sees changes in order
+        scheduler.execute(() -> {
+          send(stream, emitter, "status", snapshot);
+          if (isTerminal(snapshot.getStatus())) {
+            emitter.complete();
+          }
+        });
+      }
+    } catch (RuntimeException e) {
+      remove(stream, emitter);
+      throw e;
+    }
+    Runnable remove = () -> remove(stream, emitter);
+    emitter.onCompletion(remove);
+    emitter.onTimeout(remove);
+    emitter.onError(error -> remove.run());
+
+    log.debug("[Ingestion] Progress stream opened: jobId={}, subscribers={}", jobId, stream.emitters.size());
+    return emitter;
+  }
+
+  private void onEvent(JobEvent event) {
+    JobStream stream = streams.get(event.jobId());
+    if (stream == null) {
+      return;
+    }
+    boolean statusChanged;
+    synchronized (stream) {
+      if (stream.state == null) {
+        return; // Job read by subscribe failed; the next subscriber reads it again
+      }
+      statusChanged = stream.apply(event.status(), event.failureReason(), event.processedRecords(),
+          event.totalRecords());
+      stream.lastChangeAt = System.currentTimeMillis();
+    }
+    if (statusChanged) {
+      scheduler.execute(() -> flush(stream, System.currentTimeMillis()));
+    }
+  }
+
+  private void sendPending() {
+    long now = System.currentTimeMillis();
+    for (JobStream stream : streams.values()) {
+      flush(stream, now);
+    }
+  }
+
+  /**
+   * Re-read jobs with no local event for a while; their changes happen on other nodes.
+   */
+  private void reconcile() {
+    long cutoff = System.currentTimeMillis() - reconcileIntervalMs;
+    List<String> jobIds = new ArrayList<>();
+    for (JobStream stream : streams.values()) {
+      if (stream.lastChangeAt < cutoff) {
+        jobIds.add(stream.jobId);
+      }
+    }
+    if (jobIds.isEmpty()) {
+      return;
+    }
+    try {
+      Query query = Query.query(Criteria.where("_id").in(jobIds));
+      query.fields().include("status", "processedRecords", "totalRecords", "failureReason", "updatedAt");
+      long now = System.currentTimeMillis();
+      for (IngestionJob job : mongoTemplate.find(query, IngestionJob.class)) {
+        JobStream stream = streams.get(job.getJobId());
+        if (stream == null) {
+          continue;
+        }
+        synchronized (stream) {
+          if (stream.state == null) {
+            continue;
+          }
+          stream.apply(job.getStatus(), job.getFailureReason(), job.getProcessedRecords(),
+              job.getTotalRecords());
+          stream.state.setUpdatedAt(job.getUpdatedAt());
+        }
+        flush(stream, now);
+      }
+    } catch (RuntimeException e) {
+      log.warn("[Ingestion] Progress stream reconcile failed: jobs={}", jobIds.size(), e);
+    }
+  }
+
+  private void heartbeat() {
+    for (JobStream stream : streams.values()) {
+      for (SseEmitter emitter : stream.emitters) {
+        try {
+          emitter.send(SseEmitter.event().comment("keep-alive"));
+        } catch (IOException | IllegalStateException e) {
+          remove(stream, emitter);
+        }
+      }
+    }
+  }
+
+  /**
+   * Send what changed since the last send. Status changes go out at once,
+   * progress at most every progress-interval-ms. Runs on the scheduler thread.
+   */
+  private void flush(JobStream stream, long now) {
+    String name;
+    JobStatusResponse snapshot;
+    synchronized (stream) {
+      if (stream.statusDirty) {
+        name = "status";
+      } else if (stream.progressDirty && now - stream.lastProgressSentAt >= progressIntervalMs) {
+        name = "progress";
+      } else {
+        return;
+      }
+      stream.statusDirty = false;
+      stream.progressDirty = false;
+      stream.lastProgressSentAt = now;
+      snapshot = stream.snapshot();
+    }
+    boolean terminal = isTerminal(snapshot.getStatus());
+    for (SseEmitter emitter : stream.emitters) {
+      if (send(stream, emitter, name, snapshot) && terminal) {
+        emitter.complete();
+      }
+    }
+  }
+
+  private boolean send(JobStream stream, SseEmitter emitter, String name, JobStatusResponse data) {
+    try {
+      emitter.send(SseEmitter.event().name(name).data(data));
+      return true;
+    } catch (IOException | IllegalStateException e) {
+      log.debug("[Ingestion] Progress stream closed by client: jobId={}", stream.jobId);
+      remove(stream, emitter);
+      return false;
+    }
+  }
+
+  private void remove(JobStream stream, SseEmitter emitter) {
+    boolean[] removed = new boolean[1];
+    streams.computeIfPresent(stream.jobId, (id, current) -> {
+      removed[0] = current.emitters.remove(emitter);
+      return current.emitters.isEmpty() ? null : current;
+    });
+    if (removed[0]) {
+      eventBus.unwatch(stream.jobId);
+    }
+  }
+
+  private static boolean isTerminal(IngestionStatus status) {
+    return status == IngestionStatus.COMPLETED || status == IngestionStatus.FAILED;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+    for (JobStream stream : streams.values()) {
+      stream.emitters.forEach(SseEmitter::complete);
+    }
+  }
+
+  /**
+   * Last known state of one job and the emitters following it. Guarded by its own monitor.
+   */
+  private static final class JobStream {
+    private final String jobId;
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private JobStatusResponse state;
+    private boolean statusDirty;
+    private boolean progressDirty;
+    private long lastProgressSentAt;
+    private volatile long lastChangeAt;
+
+    private JobStream(String jobId) {
+      this.jobId = jobId;
+    }
+
+    /**
+     * @return true if the status changed
+     */
+    private boolean apply(IngestionStatus status, String failureReason, int processed, int total) {
+      boolean statusChanged = status != null && status != state.getStatus();
+      if (statusChanged) {
+        state.setStatus(status);
+        state.setFailureReason(failureReason);
+        statusDirty = true;
+      }
+      if (processed >= 0 && processed != state.getProcessedRecords()) {
+        state.setProcessedRecords(processed);
+        progressDirty = true;
+      }
+      if (total >= 0 && total != state.getTotalRecords()) {
+        state.setTotalRecords(total);
+        progressDirty = true;
+      }
+      return statusChanged;
+    }
+
+    private JobStatusResponse snapshot() {
+      JobStatusResponse copy = new JobStatusResponse(state.getJobId(), state.getStatus(),
+          state.getProcessedRecords(), state.getTotalRecords(), state.getFilePath(), state.getInsurerId(),
+          state.getCreatedAt(), state.getUpdatedAt());
+      copy.setFailureReason(state.getFailureReason());
+      return copy;
+    }
+  }
+}
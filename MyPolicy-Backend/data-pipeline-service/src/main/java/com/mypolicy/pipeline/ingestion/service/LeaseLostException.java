@@ -0,0 +1,12 @@
+package com.mypolicy.pipeline.ingestion.service;
+
+/**
+ * A per-run job write was refused because the writing node no longer holds
+ * the job's processing lease; another node has reclaimed it.
+ */
+public class LeaseLostException extends IllegalStateException {
+
+  public LeaseLostException(String jobId, String owner) {
+    super("Lease lost for jobId=" + jobId + ", owner=" + owner);
+  }
+}
@@ -0,0 +1,130 @@
+package com.mypolicy.pipeline.ingestion.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process processedRecords counter per running job.
+ *
+ * Workers add to a striped LongAdder, which does not contend however many
+ * threads report at once; pending counts are written to Mongo with a single
+ * $inc every flush-interval-ms, or as soon as flush-every rows are pending.
+ * The Mongo write rate therefore depends on the flush settings, not on the
+ * number of workers.
+ */
+@Component
+public class ProgressAccumulator {
+
+  private static final Logger log = LoggerFactory.getLogger(ProgressAccumulator.class);
+
+  private final IngestionService ingestionService;
+  private final long flushEvery;
+  private final Map<String, JobProgress> jobs = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService flusher;
+
+  public ProgressAccumulator(IngestionService ingestionService,
+      @Value("${pipeline.ingestion.progress.flush-interval-ms:1000}") long flushIntervalMs,
+      @Value("${pipeline.ingestion.progress.flush-every:500}") long flushEvery) {
+    this.ingestionService = ingestionService;
+    this.flushEvery = Math.max(1, flushEvery);
+    this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "progress-flusher");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = Math.max(1, flushIntervalMs);
+    flusher.scheduleWithFixedDelay(this::flushAll, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Count rows as processed for a job. Cheap enough to call per chunk from any worker.
+   *
+   * @param owner node holding the job's lease; flushes stop applying once it is lost
+   */
+  public void add(String jobId, String owner, long rows) {
+    if (rows <= 0) {
+      return;
+    }
+    JobProgress progress = jobs.computeIfAbsent(jobId, id -> new JobProgress(id, owner));
+    progress.pending.add(rows);
+    if (progress.pending.sum() >= flushEvery && progress.flushQueued.compareAndSet(false, true)) {
+      flusher.execute(() -> {
+        progress.flushQueued.set(false);
+        flush(progress);
+      });
+    }
+  }
+
+  /**
+   * Flush whatever is pending for the job and stop tracking it. Call before
+   * the job's final status transition so the terminal document has the full count.
+   */
+  public void complete(String jobId) {
+    JobProgress progress = jobs.remove(jobId);
+    if (progress != null) {
+      flush(progress);
+    }
+  }
+
+  /**
+   * Drop pending counts without writing them, e.g. when the job moved to another node.
+   */
+  public void discard(String jobId) {
+    jobs.remove(jobId);
+  }
+
+  private void flushAll() {
+    for (JobProgress progress : jobs.values()) {
+      flush(progress);
+    }
+  }
+
+  private void flush(JobProgress progress) {
+    // Serialized per job so a timer flush and a final flush never interleave
+    synchronized (progress) {
+      long delta = progress.pending.sumThenReset();
+      if (delta == 0) {
+        return;
+      }
+      try {
+        if (!ingestionService.incrementProgress(progress.jobId, progress.owner, delta)) {
+          log.debug("[Ingestion] Progress dropped, job no longer PROCESSING on this node: jobId={}",
+              progress.jobId);
+        }
+      } catch (RuntimeException e) {
+        // Keep the rows for the next attempt rather than dropping them
+        progress.pending.add(delta);
+        log.warn("[Ingestion] Progress flush failed: jobId={}, pending={}", progress.jobId, delta, e);
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flusher.shutdown();
+    flushAll();
+  }
+
+  private static final class JobProgress {
+    private final String jobId;
+    private final String owner;
+    private final LongAdder pending = new LongAdder();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    private JobProgress(String jobId, String owner) {
+      this.jobId = jobId;
+      this.owner = owner;
+    }
+  }
+}
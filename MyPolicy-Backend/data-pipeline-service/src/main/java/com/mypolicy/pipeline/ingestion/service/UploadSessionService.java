@@ -0,0 +1,449 @@
+package com.mypolicy.pipeline.ingestion.service;
+
+import com.mypolicy.pipeline.ingestion.dto.UploadResponse;
+import com.mypolicy.pipeline.ingestion.dto.UploadSessionResponse;
+import com.mypolicy.pipeline.ingestion.model.IngestionJob;
+import com.mypolicy.pipeline.ingestion.model.UploadSession;
+import com.mypolicy.pipeline.ingestion.model.UploadSessionStatus;
+import com.mypolicy.pipeline.ingestion.repository.UploadSessionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumable, chunked uploads for files too large for one request.
+ *
+ * A session preallocates the target file; each numbered chunk is written at
+ * its offset with positional NIO writes, so chunks can arrive in any order and
+ * in parallel, and a client that lost its connection asks which ranges arrived
+ * and sends only the rest. Completing the session hashes the assembled file
+ * (and counts CSV rows) in one sequential read, then hands it to
+ * {@link IngestionService} like any other upload. Sessions without a chunk for
+ * session-ttl-ms expire and their file is deleted; completions stalled for
+ * completing-timeout-ms (e.g. the node died) are finished if their job was
+ * registered and rolled back to OPEN otherwise.
+ *
+ * Chunks land on this node's storage path, so with several nodes the path
+ * must be shared or requests for a session routed to one node.
+ */
+@Service
+public class UploadSessionService {
+
+  private static final Logger log = LoggerFactory.getLogger(UploadSessionService.class);
+  private static final int MIN_CHUNK_SIZE = 1024 * 1024;        // 1MB
+  private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;   // 64MB
+  private static final int BUFFER_SIZE = 256 * 1024;
+  private static final int COMPLETE_ATTEMPTS = 3;
+  private static final ThreadLocal<ByteBuffer> BUFFER =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+  private final UploadSessionRepository sessionRepository;
+  private final MongoTemplate mongoTemplate;
+  private final IngestionService ingestionService;
+  private final String storageBasePath;
+  private final int defaultChunkSize;
+  private final long maxFileSize;
+  private final long sessionTtlMs;
+  private final long completingTimeoutMs;
+  private final ScheduledExecutorService scheduler;
+
+  public UploadSessionService(UploadSessionRepository sessionRepository, MongoTemplate mongoTemplate,
+      IngestionService ingestionService,
+      @Value("${ingestion.storage.path:storage/ingestion}") String storageBasePath,
+      @Value("${pipeline.ingestion.chunked-upload.chunk-size-bytes:8388608}") int defaultChunkSize,
+      @Value("${pipeline.ingestion.chunked-upload.max-file-size-bytes:10737418240}") long maxFileSize,
+      @Value("${pipeline.ingestion.chunked-upload.session-ttl-ms:86400000}") long sessionTtlMs,
+      @Value("${pipeline.ingestion.chunked-upload.completing-timeout-ms:900000}") long completingTimeoutMs) {
+    this.sessionRepository = sessionRepository;
+    this.mongoTemplate = mongoTemplate;
+    this.ingestionService = ingestionService;
+    this.storageBasePath = storageBasePath;
+    this.defaultChunkSize = Math.min(MAX_CHUNK_SIZE, Math.max(MIN_CHUNK_SIZE, defaultChunkSize));
+    this.maxFileSize = maxFileSize;
+    this.sessionTtlMs = sessionTtlMs;
+    this.completingTimeoutMs = completingTimeoutMs;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "upload-session-expiry");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    long interval = Math.max(60_000, Math.min(sessionTtlMs, completingTimeoutMs) / 4);
+    scheduler.scheduleWithFixedDelay(this::expireSessions, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Open a session and preallocate its file.
+   *
+   * @param chunkSize requested chunk size in bytes, or null for the configured default
+   */
+  public UploadSessionResponse create(String insurerId, String filename, long totalSize, Integer chunkSize,
+      String uploadedBy) throws IOException {
+    ingestionService.validateFilename(filename);
+    if (totalSize <= 0 || totalSize > maxFileSize) {
+      throw new IllegalArgumentException(
+          "totalSize must be between 1 and " + (maxFileSize / 1024 / 1024) + "MB");
+    }
+    int size = chunkSize != null ? chunkSize : defaultChunkSize;
+    if (size < MIN_CHUNK_SIZE || size > MAX_CHUNK_SIZE) {
+      throw new IllegalArgumentException(
+          "chunkSize must be between " + MIN_CHUNK_SIZE + " and " + MAX_CHUNK_SIZE + " bytes");
+    }
+
+    UploadSession session = new UploadSession();
+    session.setSessionId(UUID.randomUUID().toString());
+    session.setInsurerId(insurerId);
+    session.setFilename(filename);
+    session.setUploadedBy(uploadedBy);
+    session.setTotalSize(totalSize);
+    session.setChunkSize(size);
+    session.setChunkCount((int) ((totalSize + size - 1) / size));
+    session.setStatus(UploadSessionStatus.OPEN);
+    session.setCreatedAt(LocalDateTime.now());
+    session.setUpdatedAt(session.getCreatedAt());
+
+    Path partPath = partPath(session);
+    Files.createDirectories(partPath.getParent());
+    if (Files.getFileStore(partPath.getParent()).getUsableSpace() < totalSize) {
+      throw new IllegalStateException("Not enough storage for an upload of " + totalSize + " bytes");
+    }
+    // Sparse where the file system allows; chunks fill it in at their offsets
+    try (RandomAccessFile file = new RandomAccessFile(partPath.toFile(), "rw")) {
+      file.setLength(totalSize);
+    }
+    sessionRepository.save(session);
+
+    log.info("[Ingestion] Upload session created: sessionId={}, insurerId={}, filename={}, bytes={}, chunks={}",
+        session.getSessionId(), insurerId, filename, totalSize, session.getChunkCount());
+    return toResponse(session);
+  }
+
+  /**
+   * Write one chunk at its offset. A chunk that was already received is
+   * acknowledged without being written again, so retries are safe and, once
+   * every chunk is in, nothing writes to the file while it is being completed.
+   */
+  public UploadSessionResponse writeChunk(String sessionId, int index, InputStream body, String user)
+      throws IOException {
+    UploadSession session = getSession(sessionId, user);
+    if (session.getStatus() != UploadSessionStatus.OPEN) {
+      throw new IllegalStateException("Upload session is " + session.getStatus() + ", not accepting chunks");
+    }
+    if (index < 0 || index >= session.getChunkCount()) {
+      throw new IllegalArgumentException("Chunk index must be between 0 and " + (session.getChunkCount() - 1));
+    }
+    if (session.getReceivedChunks().contains(index)) {
+      return toResponse(session);
+    }
+    long offset = (long) index * session.getChunkSize();
+    long length = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+
+    long written = 0;
+    ByteBuffer buffer = BUFFER.get();
+    buffer.clear();
+    try (FileChannel out = FileChannel.open(partPath(session), StandardOpenOption.WRITE)) {
+      ReadableByteChannel in = Channels.newChannel(body);
+      while (in.read(buffer) >= 0) {
+        buffer.flip();
+        if (written + buffer.remaining() > length) {
+          throw new IllegalArgumentException("Chunk " + index + " must be " + length + " bytes");
+        }
+        while (buffer.hasRemaining()) {
+          written += out.write(buffer, offset + written);
+        }
+        buffer.clear();
+      }
+      if (written != length) {
+        throw new IllegalArgumentException("Chunk " + index + " must be " + length + " bytes, got " + written);
+      }
+      out.force(false);
+    }
+
+    Query query = Query.query(Criteria.where("_id").is(sessionId).and("status").is(UploadSessionStatus.OPEN));
+    Update update = new Update().addToSet("receivedChunks", index).set("updatedAt", LocalDateTime.now());
+    UploadSession updated = mongoTemplate.findAndModify(query, update,
+        FindAndModifyOptions.options().returnNew(true), UploadSession.class);
+    if (updated == null) {
+      throw new IllegalStateException("Upload session is no longer accepting chunks");
+    }
+    log.debug("[Ingestion] Chunk received: sessionId={}, index={}, bytes={}", sessionId, index, written);
+    return toResponse(updated);
+  }
+
+  public UploadSessionResponse getStatus(String sessionId, String user) {
+    return toResponse(getSession(sessionId, user));
+  }
+
+  /**
+   * Turn a fully received session into an ingestion job. Idempotent: completing
+   * a completed session returns its job again, and completing a session whose
+   * job was registered by an interrupted completion finishes that completion.
+   */
+  public UploadResponse complete(String sessionId, String user) throws IOException {
+    UploadSession session = getSession(sessionId, user);
+    if (session.getStatus() == UploadSessionStatus.COMPLETED) {
+      return toUploadResponse(ingestionService.getJob(session.getJobId()));
+    }
+    if (session.getStatus() == UploadSessionStatus.COMPLETING) {
+      Optional<IngestionJob> registered = registeredJob(session);
+      if (registered.isPresent()) {
+        return resume(session, registered.get());
+      }
+    }
+
+    // OPEN -> COMPLETING only once every chunk is in; one caller wins. The job id
+    // is reserved up front so a job created by this call can always be found again.
+    String jobId = UUID.randomUUID().toString();
+    Query query = Query.query(Criteria.where("_id").is(sessionId)
+        .and("status").is(UploadSessionStatus.OPEN)
+        .and("receivedChunks").size(session.getChunkCount()));
+    Update claim = new Update().set("status", UploadSessionStatus.COMPLETING).set("jobId", jobId)
+        .set("updatedAt", LocalDateTime.now());
+    if (mongoTemplate.updateFirst(query, claim, UploadSession.class).getMatchedCount() == 0) {
+      UploadSession current = getSession(sessionId, user);
+      if (current.getStatus() == UploadSessionStatus.OPEN) {
+        throw new IllegalStateException((current.getChunkCount() - current.getReceivedChunks().size())
+            + " of " + current.getChunkCount() + " chunks still missing");
+      }
+      throw new IllegalStateException("Upload session is " + current.getStatus());
+    }
+
+    Path partPath = partPath(session);
+    String extension = ingestionService.getFileExtension(session.getFilename()).toLowerCase();
+    UploadResponse response;
+    try {
+      UploadWriter.StoredFile stored;
+      FileTime modified = Files.getLastModifiedTime(partPath);
+      try (FileChannel in = FileChannel.open(partPath, StandardOpenOption.READ)) {
+        UploadWriter writer = new UploadWriter(null, ".csv".equals(extension));
+        writer.write(in, Long.MAX_VALUE);
+        stored = writer.finish();
+      }
+      if (!modified.equals(Files.getLastModifiedTime(partPath))) {
+        // A chunk write that started before the claim was still running
+        throw new IllegalStateException("Upload changed while completing, complete it again");
+      }
+      // The hash finds the job even if this upload is de-duplicated to an earlier one
+      mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(sessionId)),
+          new Update().set("contentHash", stored.sha256()).set("updatedAt", LocalDateTime.now()),
+          UploadSession.class);
+      response = ingestionService.registerUpload(partPath, extension, stored, session.getInsurerId(),
+          session.getUploadedBy(), jobId);
+    } catch (IOException | RuntimeException e) {
+      if (!ingestionService.jobExists(jobId) && Files.exists(partPath)) {
+        // Nothing registered and the part file is untouched: let the client retry completion
+        reopen(sessionId);
+      }
+      // Otherwise the job exists and completing again moves the file and finishes the session
+      throw e;
+    }
+    markCompleted(sessionId, response.getJobId());
+    log.info("[Ingestion] Upload session completed: sessionId={}, jobId={}, duplicate={}", sessionId,
+        response.getJobId(), response.isDuplicate());
+    return response;
+  }
+
+  /**
+   * Job registered for a COMPLETING session: the one created under its reserved
+   * id, or the earlier upload of the same content it was de-duplicated to.
+   */
+  private Optional<IngestionJob> registeredJob(UploadSession session) {
+    if (session.getJobId() == null) {
+      return Optional.empty();
+    }
+    return ingestionService.findUploadJob(session.getJobId(), session.getInsurerId(), session.getContentHash());
+  }
+
+  /**
+   * Finish a completion that registered its job but failed before the session was marked COMPLETED.
+   */
+  private UploadResponse resume(UploadSession session, IngestionJob job) throws IOException {
+    String extension = ingestionService.getFileExtension(session.getFilename()).toLowerCase();
+    ingestionService.fileUpload(partPath(session), job.getContentHash(), extension);
+    markCompleted(session.getSessionId(), job.getJobId());
+    log.info("[Ingestion] Upload session completion resumed: sessionId={}, jobId={}", session.getSessionId(),
+        job.getJobId());
+    return toUploadResponse(job);
+  }
+
+  /**
+   * COMPLETING -> OPEN, so the client can complete the session again.
+   */
+  private void reopen(String sessionId) {
+    Query query = Query.query(Criteria.where("_id").is(sessionId).and("status").is(UploadSessionStatus.COMPLETING));
+    Update update = new Update().set("status", UploadSessionStatus.OPEN).unset("jobId").unset("contentHash")
+        .set("updatedAt", LocalDateTime.now());
+    mongoTemplate.updateFirst(query, update, UploadSession.class);
+  }
+
+  /**
+   * COMPLETING -> COMPLETED. Retried, since the job already exists and giving up
+   * would leave the client without its job id.
+   */
+  private void markCompleted(String sessionId, String jobId) {
+    Update update = new Update().set("status", UploadSessionStatus.COMPLETED).set("jobId", jobId)
+        .set("updatedAt", LocalDateTime.now());
+    for (int attempt = 1; ; attempt++) {
+      try {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(sessionId)), update, UploadSession.class);
+        return;
+      } catch (RuntimeException e) {
+        if (attempt >= COMPLETE_ATTEMPTS) {
+          log.error("[Ingestion] Upload session left COMPLETING: sessionId={}, jobId={}", sessionId, jobId, e);
+          throw e;
+        }
+        log.warn("[Ingestion] Marking upload session COMPLETED failed, retrying: sessionId={}, attempt={}",
+            sessionId, attempt);
+        try {
+          Thread.sleep(200L * attempt);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+      }
+    }
+  }
+
+  private static UploadResponse toUploadResponse(IngestionJob job) {
+    return new UploadResponse(job.getJobId(), job.getStatus(), job.getTotalRecords(), job.getContentHash());
+  }
+
+  /**
+   * Cancel an open session and delete what it received.
+   */
+  public void abort(String sessionId, String user) throws IOException {
+    UploadSession session = getSession(sessionId, user);
+    Query query = Query.query(Criteria.where("_id").is(sessionId).and("status").is(UploadSessionStatus.OPEN));
+    Update update = new Update().set("status", UploadSessionStatus.ABORTED).set("updatedAt", LocalDateTime.now());
+    if (mongoTemplate.updateFirst(query, update, UploadSession.class).getMatchedCount() == 0) {
+      throw new IllegalStateException("Upload session is " + getSession(sessionId, user).getStatus());
+    }
+    Files.deleteIfExists(partPath(session));
+    log.info("[Ingestion] Upload session aborted: sessionId={}", sessionId);
+  }
+
+  private void expireSessions() {
+    try {
+      LocalDateTime cutoff = LocalDateTime.now().minusNanos(sessionTtlMs * 1_000_000L);
+      for (UploadSession session : sessionRepository.findByStatusAndUpdatedAtBefore(UploadSessionStatus.OPEN,
+          cutoff)) {
+        Query query = Query.query(Criteria.where("_id").is(session.getSessionId())
+            .and("status").is(UploadSessionStatus.OPEN)
+            .and("updatedAt").lt(cutoff));
+        Update update = new Update().set("status", UploadSessionStatus.EXPIRED)
+            .set("updatedAt", LocalDateTime.now());
+        if (mongoTemplate.updateFirst(query, update, UploadSession.class).getMatchedCount() > 0) {
+          Files.deleteIfExists(partPath(session));
+          log.info("[Ingestion] Upload session expired: sessionId={}, received {}/{} chunks",
+              session.getSessionId(), session.getReceivedChunks().size(), session.getChunkCount());
+        }
+      }
+    } catch (Exception e) {
+      log.warn("[Ingestion] Upload session expiry failed: {}", e.getMessage());
+    }
+
+    LocalDateTime stalledBefore = LocalDateTime.now().minusNanos(completingTimeoutMs * 1_000_000L);
+    try {
+      for (UploadSession session : sessionRepository.findByStatusAndUpdatedAtBefore(
+          UploadSessionStatus.COMPLETING, stalledBefore)) {
+        recoverStalled(session, stalledBefore);
+      }
+    } catch (Exception e) {
+      log.warn("[Ingestion] Stalled upload completion recovery failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Finish a stalled completion whose job was registered; otherwise reopen the
+   * session, or expire it if its file is gone.
+   */
+  private void recoverStalled(UploadSession session, LocalDateTime stalledBefore) throws IOException {
+    Optional<IngestionJob> registered = registeredJob(session);
+    if (registered.isPresent()) {
+      resume(session, registered.get());
+      return;
+    }
+    Path partPath = partPath(session);
+    UploadSessionStatus next = Files.exists(partPath) ? UploadSessionStatus.OPEN : UploadSessionStatus.EXPIRED;
+    Query query = Query.query(Criteria.where("_id").is(session.getSessionId())
+        .and("status").is(UploadSessionStatus.COMPLETING)
+        .and("updatedAt").lt(stalledBefore));
+    Update update = new Update().set("status", next).unset("jobId").unset("contentHash")
+        .set("updatedAt", LocalDateTime.now());
+    if (mongoTemplate.updateFirst(query, update, UploadSession.class).getMatchedCount() > 0) {
+      log.warn("[Ingestion] Stalled upload completion rolled back: sessionId={}, status={}",
+          session.getSessionId(), next);
+    }
+  }
+
+  /**
+   * Session owned by user; someone else's session is reported as missing.
+   */
+  private UploadSession getSession(String sessionId, String user) {
+    UploadSession session = sessionRepository.findById(sessionId).orElse(null);
+    if (session == null || (user != null && !user.equals(session.getUploadedBy()))) {
+      throw new IllegalArgumentException("Upload session not found: " + sessionId);
+    }
+    return session;
+  }
+
+  // Next to the content-addressed store, so completing is a rename
+  private Path partPath(UploadSession session) {
+    String extension = ingestionService.getFileExtension(session.getFilename()).toLowerCase();
+    return Paths.get(storageBasePath).resolve("sessions").resolve(session.getSessionId() + extension + ".part");
+  }
+
+  private static UploadSessionResponse toResponse(UploadSession session) {
+    BitSet received = new BitSet(session.getChunkCount());
+    for (Integer index : session.getReceivedChunks()) {
+      received.set(index);
+    }
+    List<String> ranges = new ArrayList<>();
+    for (int from = received.nextSetBit(0); from >= 0; ) {
+      int to = received.nextClearBit(from) - 1;
+      ranges.add(from == to ? String.valueOf(from) : from + "-" + to);
+      from = received.nextSetBit(to + 1);
+    }
+    return new UploadSessionResponse(session.getSessionId(), session.getStatus(), session.getTotalSize(),
+        session.getChunkSize(), session.getChunkCount(), received.cardinality(), ranges, session.getJobId());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+}
@@ -0,0 +1,146 @@
+package com.mypolicy.pipeline.ingestion.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Writes an upload to its file in one pass, hashing it and (for CSV) counting
+ * its rows on the way.
+ *
+ * Bytes go from the request channel into a per-thread direct buffer and from
+ * there straight to the file channel; the same buffer feeds the SHA-256 digest
+ * and the row counter, so the upload is read once and written once.
+ * FileChannel.transferFrom would skip the buffer, but then nothing could see
+ * the bytes to hash them.
+ *
+ * Without an output channel it only hashes and counts, e.g. over a file
+ * assembled from chunks.
+ *
+ * Rows are counted the way {@link com.mypolicy.pipeline.processing.reader.CsvRowReader}
+ * reads them: quoted line breaks do not end a row, blank lines are skipped
+ * and the header is not counted.
+ */
+final class UploadWriter {
+
+  /**
+   * Size, SHA-256 (hex) and, for CSV, data row count (-1 otherwise) of a stored upload.
+   */
+  record StoredFile(long size, String sha256, long rows) {
+  }
+
+  private static final int BUFFER_SIZE = 256 * 1024;
+  private static final ThreadLocal<ByteBuffer> BUFFER =
+      ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+  private static final byte QUOTE = '"';
+  private static final byte DELIMITER = ',';
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  private final FileChannel out;
+  private final MessageDigest digest;
+  private final boolean countRows;
+  private long size;
+
+  // Row counter state, carried across buffers and writes
+  private long lines;
+  private boolean lineHasContent;
+  private boolean fieldStart = true;
+  private boolean inQuotes;
+  private boolean quoteClosed;
+
+  /**
+   * @param out file to write to, or null to only hash and count
+   */
+  UploadWriter(FileChannel out, boolean countRows) {
+    this.out = out;
+    this.countRows = countRows;
+    try {
+      this.digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  /**
+   * Append everything the channel yields.
+   *
+   * @throws IllegalArgumentException once the total size would exceed maxBytes
+   */
+  void write(ReadableByteChannel in, long maxBytes) throws IOException {
+    ByteBuffer buffer = BUFFER.get();
+    buffer.clear();
+    while (in.read(buffer) >= 0) {
+      if (buffer.position() == 0) {
+        continue;
+      }
+      buffer.flip();
+      size += buffer.remaining();
+      if (size > maxBytes) {
+        throw new IllegalArgumentException(
+            "File size exceeds maximum allowed: " + (maxBytes / 1024 / 1024) + "MB");
+      }
+      if (countRows) {
+        count(buffer);
+      }
+      digest.update(buffer.duplicate());
+      while (out != null && buffer.hasRemaining()) {
+        out.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+
+  long size() {
+    return size;
+  }
+
+  StoredFile finish() throws IOException {
+    if (out != null) {
+      out.force(false);
+    }
+    long rows = -1;
+    if (countRows) {
+      long records = lines + (lineHasContent ? 1 : 0);
+      rows = Math.max(0, records - 1); // header
+    }
+    return new StoredFile(size, HexFormat.of().formatHex(digest.digest()), rows);
+  }
+
+  private void count(ByteBuffer buffer) {
+    for (int i = buffer.position(), end = buffer.limit(); i < end; i++) {
+      byte b = buffer.get(i);
+      if (inQuotes) {
+        if (b == QUOTE) {
+          inQuotes = false;
+          quoteClosed = true;
+        }
+        continue;
+      }
+      if (b == QUOTE && (fieldStart || quoteClosed)) {
+        // Opening quote, or the second half of an escaped "" inside a quoted field
+        inQuotes = true;
+        lineHasContent = true;
+        fieldStart = false;
+        quoteClosed = false;
+        continue;
+      }
+      quoteClosed = false;
+      if (b == LF || b == CR) {
+        if (lineHasContent) {
+          lines++;
+        }
+        lineHasContent = false;
+        fieldStart = true;
+      } else {
+        lineHasContent = true;
+        fieldStart = b == DELIMITER;
+      }
+    }
+  }
+}
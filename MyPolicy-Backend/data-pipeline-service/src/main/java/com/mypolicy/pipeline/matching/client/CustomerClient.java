@@ -1,10 +1,14 @@
 package com.mypolicy.pipeline.matching.client;
 
+import com.mypolicy.pipeline.matching.dto.CustomerBatchLookupRequest;
 import com.mypolicy.pipeline.matching.dto.CustomerDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
-import java.util.Optional;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import java.util.List;
 
 /**
  * Feign client for Customer Service (external, port 8081).
@@ -17,6 +21,18 @@ public interface CustomerClient {
   @GetMapping("/api/v1/customers/{customerId}")
   CustomerDTO getCustomerById(@PathVariable("customerId") String customerId);
 
-  @GetMapping("/api/v1/customers/search/mobile/{mobile}")
-  Optional<CustomerDTO> searchByMobile(@PathVariable("mobile") String mobile);
+  /**
+   * Resolve many mobiles in one round trip; unknown mobiles are absent from the result.
+   */
+  @PostMapping("/api/v1/customers/search/mobiles")
+  List<CustomerDTO> searchByMobiles(@RequestBody CustomerBatchLookupRequest request);
+
+  /**
+   * One page of customers changed after the (updatedSince, afterId) cursor,
+   * in (updatedAt, customerId) order. Both null starts from the beginning.
+   */
+  @GetMapping("/api/v1/customers/export")
+  List<CustomerDTO> exportCustomers(@RequestParam(value = "updatedSince", required = false) String updatedSince,
+      @RequestParam(value = "afterId", required = false) String afterId,
+      @RequestParam("size") int size);
 }
@@ -1,10 +1,13 @@
 package com.mypolicy.pipeline.matching.client;
 
 import com.mypolicy.pipeline.matching.dto.PolicyDTO;
+import com.mypolicy.pipeline.matching.dto.PolicyUpsertResponse;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+
 /**
  * Feign client for Policy Service (external, port 8085).
  * 
@@ -15,4 +18,7 @@ public interface PolicyClient {
 
   @PostMapping("/api/v1/policies")
   PolicyDTO createPolicy(@RequestBody PolicyDTO policyDTO);
+
+  @PostMapping("/api/v1/policies/batch/upsert")
+  PolicyUpsertResponse upsertPolicies(@RequestBody List<PolicyDTO> policies);
 }
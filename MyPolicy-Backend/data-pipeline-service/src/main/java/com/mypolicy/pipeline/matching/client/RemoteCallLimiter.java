@@ -0,0 +1,117 @@
+package com.mypolicy.pipeline.matching.client;
+
+import com.mypolicy.pipeline.matching.dto.RemoteCallStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Caps concurrent calls to Customer Service and Policy Service across all
+ * jobs and pipeline workers on this node.
+ *
+ * Each downstream has an adaptive (AIMD) limit: every call that completes
+ * while the limit is fully used raises it by 1/limit, up to max-concurrency;
+ * a failed call, or one slower than slow-call-ms, halves it, down to 1.
+ * Callers beyond the limit wait, which backs up the pipeline stage instead of
+ * piling more load on a saturated service.
+ */
+@Component
+public class RemoteCallLimiter {
+
+  private static final Logger log = LoggerFactory.getLogger(RemoteCallLimiter.class);
+
+  private final AdaptiveLimit customerService;
+  private final AdaptiveLimit policyService;
+
+  public RemoteCallLimiter(
+      @Value("${pipeline.matching.remote.customer-service.max-concurrency:16}") int customerMax,
+      @Value("${pipeline.matching.remote.policy-service.max-concurrency:8}") int policyMax,
+      @Value("${pipeline.matching.remote.initial-concurrency:4}") int initial,
+      @Value("${pipeline.matching.remote.slow-call-ms:2000}") long slowCallMs) {
+    this.customerService = new AdaptiveLimit("customer-service", initial, customerMax, slowCallMs);
+    this.policyService = new AdaptiveLimit("policy-service", initial, policyMax, slowCallMs);
+  }
+
+  public <T> T customerService(Supplier<T> call) {
+    return customerService.call(call);
+  }
+
+  public <T> T policyService(Supplier<T> call) {
+    return policyService.call(call);
+  }
+
+  /**
+   * Current limit, in-flight and waiting calls per downstream.
+   */
+  public List<RemoteCallStats> snapshot() {
+    return List.of(customerService.stats(), policyService.stats());
+  }
+
+  private static final class AdaptiveLimit {
+    private final String name;
+    private final int max;
+    private final long slowCallNanos;
+    private double limit;
+    private int inFlight;
+    private int waiting;
+
+    private AdaptiveLimit(String name, int initial, int max, long slowCallMs) {
+      this.name = name;
+      this.max = Math.max(1, max);
+      this.limit = Math.min(this.max, Math.max(1, initial));
+      this.slowCallNanos = slowCallMs * 1_000_000L;
+    }
+
+    <T> T call(Supplier<T> call) {
+      boolean saturated = acquire();
+      long started = System.nanoTime();
+      boolean ok = false;
+      try {
+        T result = call.get();
+        ok = true;
+        return result;
+      } finally {
+        release(saturated, ok && System.nanoTime() - started <= slowCallNanos);
+      }
+    }
+
+    private synchronized boolean acquire() {
+      waiting++;
+      try {
+        while (inFlight >= (int) limit) {
+          wait();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted waiting for a " + name + " call slot", e);
+      } finally {
+        waiting--;
+      }
+      inFlight++;
+      return inFlight >= (int) limit;
+    }
+
+    private synchronized void release(boolean saturated, boolean healthy) {
+      inFlight--;
+      if (!healthy) {
+        double previous = limit;
+        limit = Math.max(1, limit / 2);
+        if ((int) previous != (int) limit) {
+          log.warn("[Matching] {} call failed or slow, concurrency limit {} -> {}", name, (int) previous,
+              (int) limit);
+        }
+      } else if (saturated && limit < max) {
+        limit = Math.min(max, limit + 1 / limit);
+      }
+      notifyAll();
+    }
+
+    synchronized RemoteCallStats stats() {
+      return new RemoteCallStats(name, (int) limit, max, inFlight, waiting);
+    }
+  }
+}
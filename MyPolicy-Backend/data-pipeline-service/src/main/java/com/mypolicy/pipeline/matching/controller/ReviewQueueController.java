@@ -0,0 +1,51 @@
+package com.mypolicy.pipeline.matching.controller;
+
+import com.mypolicy.pipeline.matching.review.ReviewQueueService;
+import com.mypolicy.pipeline.matching.review.ReviewRecord;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Review API: look up policy rows waiting for manual review.
+ *
+ * Consolidated Service: Part of data-pipeline-service on port 8082.
+ */
+@RestController
+@RequestMapping("/api/v1/review")
+@RequiredArgsConstructor
+public class ReviewQueueController {
+
+  private static final Logger log = LoggerFactory.getLogger(ReviewQueueController.class);
+  private static final int MAX_LIMIT = 500;
+
+  private final ReviewQueueService reviewQueueService;
+
+  /**
+   * GET /api/v1/review/pending?mobile=&pan=
+   * Pending rows for a customer's mobile and/or PAN, oldest first.
+   */
+  @GetMapping("/pending")
+  public ResponseEntity<List<ReviewRecord>> findPending(
+      @RequestParam(required = false) String mobile,
+      @RequestParam(required = false) String pan,
+      @RequestParam(defaultValue = "100") int limit) {
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+    }
+    log.info("[Review API] GET /pending - mobile={}, pan={}", mobile != null, pan != null);
+    return ResponseEntity.ok(reviewQueueService.findPending(mobile, pan, limit));
+  }
+
+  /**
+   * GET /api/v1/review/pending/count
+   */
+  @GetMapping("/pending/count")
+  public ResponseEntity<Long> countPending() {
+    return ResponseEntity.ok(reviewQueueService.countPending());
+  }
+}
@@ -0,0 +1,17 @@
+package com.mypolicy.pipeline.matching.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Bulk mobile lookup request for Customer Service (external, port 8081).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerBatchLookupRequest {
+  private List<String> mobileNumbers;
+}
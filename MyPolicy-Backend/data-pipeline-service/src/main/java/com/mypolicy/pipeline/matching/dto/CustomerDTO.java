@@ -14,4 +14,5 @@ public class CustomerDTO {
   private String mobileNumber;
   private String panNumber;
   private String dateOfBirth;
+  private String updatedAt;
 }
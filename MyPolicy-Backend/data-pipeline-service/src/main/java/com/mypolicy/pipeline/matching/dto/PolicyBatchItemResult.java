@@ -0,0 +1,15 @@
+package com.mypolicy.pipeline.matching.dto;
+
+import lombok.Data;
+
+/**
+ * Per-item outcome of a bulk create in Policy Service (external, port 8085).
+ */
+@Data
+public class PolicyBatchItemResult {
+  private int index;
+  private String policyNumber;
+  private String outcome; // CREATED, FAILED
+  private String policyId;
+  private String error;
+}
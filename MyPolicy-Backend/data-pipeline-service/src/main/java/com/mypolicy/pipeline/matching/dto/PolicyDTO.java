@@ -3,6 +3,7 @@ package com.mypolicy.pipeline.matching.dto;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * Policy DTO for communication with Policy Service (external, port 8085).
@@ -19,4 +20,9 @@ public class PolicyDTO {
   private LocalDate startDate;
   private LocalDate endDate;
   private String status;
+
+  // Source of the values (ingestion job creation time, file row): Policy Service
+  // never lets an older source overwrite a newer one
+  private LocalDateTime sourceJobAt;
+  private Long sourceRow;
 }
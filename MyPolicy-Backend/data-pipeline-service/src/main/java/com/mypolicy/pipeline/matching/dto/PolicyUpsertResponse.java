@@ -0,0 +1,17 @@
+package com.mypolicy.pipeline.matching.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Bulk upsert response from Policy Service (external, port 8085).
+ */
+@Data
+public class PolicyUpsertResponse {
+  private int created;
+  private int updated;
+  private int unchanged;
+  private int failed;
+  private List<PolicyBatchItemResult> results;
+}
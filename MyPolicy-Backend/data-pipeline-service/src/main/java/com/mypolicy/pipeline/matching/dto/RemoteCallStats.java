@@ -0,0 +1,36 @@
+package com.mypolicy.pipeline.matching.dto;
+
+/**
+ * Point-in-time concurrency figures for calls to one downstream service.
+ * limit is the current adaptive cap (at most maxLimit), waiting the callers
+ * blocked because inFlight has reached it.
+ */
+public class RemoteCallStats {
+  private String service;
+  private int limit;
+  private int maxLimit;
+  private int inFlight;
+  private int waiting;
+
+  public RemoteCallStats() {
+  }
+
+  public RemoteCallStats(String service, int limit, int maxLimit, int inFlight, int waiting) {
+    this.service = service;
+    this.limit = limit;
+    this.maxLimit = maxLimit;
+    this.inFlight = inFlight;
+    this.waiting = waiting;
+  }
+
+  public String getService() { return service; }
+  public void setService(String service) { this.service = service; }
+  public int getLimit() { return limit; }
+  public void setLimit(int limit) { this.limit = limit; }
+  public int getMaxLimit() { return maxLimit; }
+  public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+  public int getInFlight() { return inFlight; }
+  public void setInFlight(int inFlight) { this.inFlight = inFlight; }
+  public int getWaiting() { return waiting; }
+  public void setWaiting(int waiting) { this.waiting = waiting; }
+}
@@ -0,0 +1,27 @@
+package com.mypolicy.pipeline.matching.index;
+
+import java.time.LocalDate;
+
+/**
+ * Encoded identity attributes of one person, used both as blocking keys into
+ * {@link CustomerIdentityIndex} and as the cheap comparison values for scoring.
+ * A key of 0 (or {@link #NO_DATE}) means the attribute is missing or malformed.
+ */
+public record BlockingKeys(long mobile, long pan, long email, long dobName, int dobDay) {
+
+  public static final int NO_DATE = Integer.MIN_VALUE;
+
+  public static BlockingKeys of(String mobile, String pan, String email, LocalDate dateOfBirth,
+      String fullName) {
+    return new BlockingKeys(
+        CustomerIdentityIndex.mobileKey(mobile),
+        CustomerIdentityIndex.panKey(pan),
+        CustomerIdentityIndex.emailKey(email),
+        CustomerIdentityIndex.dobNameKey(dateOfBirth, fullName),
+        dateOfBirth != null ? (int) dateOfBirth.toEpochDay() : NO_DATE);
+  }
+
+  public boolean isEmpty() {
+    return mobile == 0 && pan == 0 && email == 0 && dobName == 0;
+  }
+}
@@ -0,0 +1,328 @@
+package com.mypolicy.pipeline.matching.index;
+
+import com.mypolicy.pipeline.matching.dto.CustomerDTO;
+import com.mypolicy.pipeline.metadata.transform.TransformFunction;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process index of customer identity keys, so the match stage only calls
+ * Customer Service for keys it has never seen.
+ *
+ * Each customer gets a slot in a set of parallel primitive arrays: its UUID as
+ * two longs, its {@link BlockingKeys}, and its normalized full name as UTF-8
+ * in a shared byte arena. Mobile, PAN, email and DOB+phonetic name each map
+ * to a slot through a {@link LongIntHashMap}, roughly 150 bytes per customer
+ * in total. Mobile and PAN are encoded exactly; email and name are hashes. A
+ * DOB+name key shared by two customers is marked ambiguous and never matches.
+ *
+ * Slots are never freed: an updated customer keeps its slot and only its keys
+ * move. Filled by {@link CustomerIndexLoader}.
+ */
+@Component
+public class CustomerIdentityIndex {
+
+  private static final int AMBIGUOUS = -2;
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final LongIntHashMap slotById = new LongIntHashMap(INITIAL_CAPACITY);
+  private final LongIntHashMap byMobile = new LongIntHashMap(INITIAL_CAPACITY);
+  private final LongIntHashMap byPan = new LongIntHashMap(INITIAL_CAPACITY);
+  private final LongIntHashMap byEmail = new LongIntHashMap(INITIAL_CAPACITY);
+  private final LongIntHashMap byDobName = new LongIntHashMap(INITIAL_CAPACITY);
+
+  private long[] idHigh = new long[INITIAL_CAPACITY];
+  private long[] idLow = new long[INITIAL_CAPACITY];
+  private long[] mobileKeys = new long[INITIAL_CAPACITY];
+  private long[] panKeys = new long[INITIAL_CAPACITY];
+  private long[] emailKeys = new long[INITIAL_CAPACITY];
+  private long[] dobNameKeys = new long[INITIAL_CAPACITY];
+  private int[] dobDays = new int[INITIAL_CAPACITY];
+  private int[] nameOffsets = new int[INITIAL_CAPACITY];
+  private int[] nameLengths = new int[INITIAL_CAPACITY];
+  private byte[] names = new byte[INITIAL_CAPACITY * 16];
+  private int namesUsed;
+  private int count;
+
+  /**
+   * Customer found through the index: its id, normalized full name and identity keys.
+   */
+  public record Identity(String customerId, String fullName, BlockingKeys keys) {
+
+    public static Identity of(CustomerDTO customer) {
+      String fullName = CustomerIdentityIndex.fullName(customer);
+      return new Identity(customer.getCustomerId(), fullName, BlockingKeys.of(customer.getMobileNumber(),
+          customer.getPanNumber(), customer.getEmail(), parseDate(customer.getDateOfBirth()), fullName));
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return count;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Add or refresh customers. Customers whose id is not a UUID are skipped
+   * and stay resolvable only through Customer Service.
+   *
+   * @return number of customers indexed
+   */
+  public int putAll(Collection<CustomerDTO> customers) {
+    int indexed = 0;
+    lock.writeLock().lock();
+    try {
+      for (CustomerDTO customer : customers) {
+        if (put(customer)) {
+          indexed++;
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    return indexed;
+  }
+
+  /**
+   * Candidate customers for each set of keys: everyone sharing at least one
+   * blocking key, without duplicates. Resolved under a single read lock.
+   */
+  public List<List<Identity>> findCandidates(List<BlockingKeys> keysList) {
+    List<List<Identity>> candidates = new ArrayList<>(keysList.size());
+    int[] slots = new int[4];
+    lock.readLock().lock();
+    try {
+      for (BlockingKeys keys : keysList) {
+        int found = 0;
+        found = addSlot(slots, found, lookup(byPan, keys.pan()));
+        found = addSlot(slots, found, lookup(byMobile, keys.mobile()));
+        found = addSlot(slots, found, lookup(byEmail, keys.email()));
+        found = addSlot(slots, found, lookup(byDobName, keys.dobName()));
+        if (found == 0) {
+          candidates.add(List.of());
+          continue;
+        }
+        List<Identity> identities = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+          identities.add(identityAt(slots[i]));
+        }
+        candidates.add(identities);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return candidates;
+  }
+
+  private static int addSlot(int[] slots, int found, int slot) {
+    if (slot < 0) {
+      return found;
+    }
+    for (int i = 0; i < found; i++) {
+      if (slots[i] == slot) {
+        return found;
+      }
+    }
+    slots[found] = slot;
+    return found + 1;
+  }
+
+  private static int lookup(LongIntHashMap map, long key) {
+    return key == 0 ? LongIntHashMap.MISSING : map.get(key);
+  }
+
+  private Identity identityAt(int slot) {
+    if (slot < 0) {
+      return null;
+    }
+    return new Identity(new UUID(idHigh[slot], idLow[slot]).toString(),
+        new String(names, nameOffsets[slot], nameLengths[slot], StandardCharsets.UTF_8),
+        new BlockingKeys(mobileKeys[slot], panKeys[slot], emailKeys[slot], dobNameKeys[slot], dobDays[slot]));
+  }
+
+  private boolean put(CustomerDTO customer) {
+    UUID id;
+    try {
+      id = UUID.fromString(customer.getCustomerId());
+    } catch (RuntimeException e) {
+      return false;
+    }
+    long idKey = nonZero(id.getMostSignificantBits() ^ Long.rotateLeft(id.getLeastSignificantBits(), 32));
+    int slot = slotById.get(idKey);
+    if (slot >= 0 && (idHigh[slot] != id.getMostSignificantBits() || idLow[slot] != id.getLeastSignificantBits())) {
+      // Two UUIDs folding to the same 64-bit key; leave the second to Customer Service
+      return false;
+    }
+    if (slot < 0) {
+      slot = count++;
+      ensureCapacity(count);
+      idHigh[slot] = id.getMostSignificantBits();
+      idLow[slot] = id.getLeastSignificantBits();
+      slotById.put(idKey, slot);
+    }
+
+    Identity identity = Identity.of(customer);
+    BlockingKeys keys = identity.keys();
+    mobileKeys[slot] = reindex(byMobile, mobileKeys[slot], keys.mobile(), slot, true);
+    panKeys[slot] = reindex(byPan, panKeys[slot], keys.pan(), slot, true);
+    emailKeys[slot] = reindex(byEmail, emailKeys[slot], keys.email(), slot, true);
+    dobNameKeys[slot] = reindex(byDobName, dobNameKeys[slot], keys.dobName(), slot, false);
+    dobDays[slot] = keys.dobDay();
+    storeName(slot, identity.fullName());
+    return true;
+  }
+
+  /**
+   * Point key at slot, dropping the slot's previous key. Unique keys follow
+   * the latest customer that claims them; shared non-unique keys become ambiguous.
+   */
+  private static long reindex(LongIntHashMap map, long oldKey, long newKey, int slot, boolean unique) {
+    if (oldKey == newKey) {
+      return newKey;
+    }
+    if (oldKey != 0 && map.get(oldKey) == slot) {
+      map.remove(oldKey);
+    }
+    if (newKey != 0) {
+      int previous = map.put(newKey, slot);
+      if (!unique && previous != LongIntHashMap.MISSING && previous != slot) {
+        map.put(newKey, AMBIGUOUS);
+      }
+    }
+    return newKey;
+  }
+
+  private void storeName(int slot, String fullName) {
+    byte[] bytes = fullName != null ? fullName.getBytes(StandardCharsets.UTF_8) : new byte[0];
+    int length = nameLengths[slot];
+    if (length == bytes.length && Arrays.equals(names, nameOffsets[slot], nameOffsets[slot] + length, bytes, 0, length)) {
+      return;
+    }
+    if (namesUsed + bytes.length > names.length) {
+      names = Arrays.copyOf(names, Math.max(names.length << 1, namesUsed + bytes.length));
+    }
+    System.arraycopy(bytes, 0, names, namesUsed, bytes.length);
+    nameOffsets[slot] = namesUsed;
+    nameLengths[slot] = bytes.length;
+    namesUsed += bytes.length;
+  }
+
+  private void ensureCapacity(int required) {
+    if (required <= idHigh.length) {
+      return;
+    }
+    int capacity = idHigh.length << 1;
+    idHigh = Arrays.copyOf(idHigh, capacity);
+    idLow = Arrays.copyOf(idLow, capacity);
+    mobileKeys = Arrays.copyOf(mobileKeys, capacity);
+    panKeys = Arrays.copyOf(panKeys, capacity);
+    emailKeys = Arrays.copyOf(emailKeys, capacity);
+    dobNameKeys = Arrays.copyOf(dobNameKeys, capacity);
+    dobDays = Arrays.copyOf(dobDays, capacity);
+    nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+    nameLengths = Arrays.copyOf(nameLengths, capacity);
+  }
+
+  /**
+   * Normalized 10-digit mobile as a number, or 0 if there is none.
+   */
+  public static long mobileKey(String mobile) {
+    if (mobile == null) {
+      return 0;
+    }
+    String digits = TransformFunction.MOBILE.apply(mobile);
+    if (digits.length() != 10) {
+      return 0;
+    }
+    return Long.parseLong(digits);
+  }
+
+  /**
+   * 10-character PAN read as a base-36 number (exact), or 0 if malformed.
+   */
+  public static long panKey(String pan) {
+    if (pan == null) {
+      return 0;
+    }
+    String value = pan.trim();
+    if (value.length() != 10) {
+      return 0;
+    }
+    long key = 0;
+    for (int i = 0; i < value.length(); i++) {
+      int digit = Character.digit(value.charAt(i), 36);
+      if (digit < 0) {
+        return 0;
+      }
+      key = key * 36 + digit;
+    }
+    return key + 1;
+  }
+
+  public static long emailKey(String email) {
+    if (email == null || email.indexOf('@') < 1) {
+      return 0;
+    }
+    return nonZero(hash(email.trim().toLowerCase(Locale.ROOT)));
+  }
+
+  /**
+   * Date of birth in the high half, hash of the phonetic name key in the low half.
+   */
+  static long dobNameKey(LocalDate dateOfBirth, String fullName) {
+    if (dateOfBirth == null) {
+      return 0;
+    }
+    String phonetic = NameKeys.phonetic(fullName);
+    if (phonetic.isEmpty()) {
+      return 0;
+    }
+    return nonZero((dateOfBirth.toEpochDay() << 32) ^ (hash(phonetic) & 0xFFFFFFFFL));
+  }
+
+  static String fullName(CustomerDTO customer) {
+    String first = customer.getFirstName() != null ? customer.getFirstName() : "";
+    String last = customer.getLastName() != null ? customer.getLastName() : "";
+    return NameKeys.normalize(first + " " + last);
+  }
+
+  static LocalDate parseDate(String value) {
+    if (value == null || value.isBlank()) {
+      return null;
+    }
+    try {
+      return LocalDate.parse(value.trim());
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+
+  // 64-bit FNV-1a over UTF-16 code units
+  private static long hash(String value) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      h ^= value.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    return h;
+  }
+
+  private static long nonZero(long key) {
+    return key != 0 ? key : 1;
+  }
+}
@@ -0,0 +1,129 @@
+package com.mypolicy.pipeline.matching.index;
+
+import com.mypolicy.pipeline.matching.client.CustomerClient;
+import com.mypolicy.pipeline.matching.client.RemoteCallLimiter;
+import com.mypolicy.pipeline.matching.dto.CustomerDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@link CustomerIdentityIndex} in step with Customer Service.
+ *
+ * The first run pages through the whole customer export; later runs fetch only
+ * customers changed since the last one, every refresh-interval-ms. Each run
+ * restarts overlap-ms before the last seen updatedAt so rows committed late
+ * with an older timestamp are not skipped; re-applying a customer is harmless.
+ * While the index is cold or Customer Service is down, matching simply falls
+ * back to remote lookups.
+ */
+@Component
+public class CustomerIndexLoader {
+
+  private static final Logger log = LoggerFactory.getLogger(CustomerIndexLoader.class);
+
+  private final CustomerClient customerClient;
+  private final RemoteCallLimiter remoteCallLimiter;
+  private final CustomerIdentityIndex index;
+  private final boolean enabled;
+  private final int pageSize;
+  private final long refreshIntervalMs;
+  private final long overlapMs;
+  private final ScheduledExecutorService scheduler;
+
+  // Cursor of the last applied page; only touched by the scheduler thread
+  private String lastUpdatedAt;
+  private String lastCustomerId;
+
+  public CustomerIndexLoader(CustomerClient customerClient, RemoteCallLimiter remoteCallLimiter,
+      CustomerIdentityIndex index,
+      @Value("${pipeline.matching.index.enabled:true}") boolean enabled,
+      @Value("${pipeline.matching.index.page-size:5000}") int pageSize,
+      @Value("${pipeline.matching.index.refresh-interval-ms:60000}") long refreshIntervalMs,
+      @Value("${pipeline.matching.index.overlap-ms:5000}") long overlapMs) {
+    this.customerClient = customerClient;
+    this.remoteCallLimiter = remoteCallLimiter;
+    this.index = index;
+    this.enabled = enabled;
+    this.pageSize = Math.max(1, pageSize);
+    this.refreshIntervalMs = Math.max(1, refreshIntervalMs);
+    this.overlapMs = Math.max(0, overlapMs);
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "customer-index");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled) {
+      log.info("[Matching] Customer identity index disabled; all lookups go to Customer Service");
+      return;
+    }
+    scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  private void refresh() {
+    long startedAt = System.currentTimeMillis();
+    boolean initial = lastUpdatedAt == null;
+    String since = initial ? null : rewind(lastUpdatedAt);
+    String afterId = null;
+    int applied = 0;
+    try {
+      while (true) {
+        String pageSince = since;
+        String pageAfterId = afterId;
+        List<CustomerDTO> page = remoteCallLimiter.customerService(
+            () -> customerClient.exportCustomers(pageSince, pageAfterId, pageSize));
+        if (page == null || page.isEmpty()) {
+          break;
+        }
+        index.putAll(page);
+        applied += page.size();
+        CustomerDTO last = page.get(page.size() - 1);
+        since = last.getUpdatedAt();
+        afterId = last.getCustomerId();
+        lastUpdatedAt = since;
+        lastCustomerId = afterId;
+        if (page.size() < pageSize) {
+          break;
+        }
+      }
+      if (initial) {
+        log.info("[Matching] Customer identity index loaded: {} customers in {}ms", index.size(),
+            System.currentTimeMillis() - startedAt);
+      } else if (applied > 0) {
+        log.debug("[Matching] Customer identity index refreshed: {} changed, {} total", applied, index.size());
+      }
+    } catch (Exception e) {
+      // Keep what was applied; the next run continues from the last full page
+      log.warn("[Matching] Customer identity index refresh failed after {} customers (last id {}): {}",
+          applied, lastCustomerId, e.getMessage());
+    }
+  }
+
+  private String rewind(String updatedAt) {
+    try {
+      return LocalDateTime.parse(updatedAt).minusNanos(overlapMs * 1_000_000L).toString();
+    } catch (DateTimeParseException e) {
+      return updatedAt;
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+}
@@ -0,0 +1,124 @@
+package com.mypolicy.pipeline.matching.index;
+
+/**
+ * Open-addressing hash map from long keys to int values, with linear probing
+ * and no boxing: two flat arrays, about 12 bytes per slot. Key 0 marks an
+ * empty slot and cannot be stored. Not thread-safe.
+ */
+final class LongIntHashMap {
+
+  static final int MISSING = -1;
+
+  private static final float MAX_LOAD = 0.6f;
+
+  private long[] keys;
+  private int[] values;
+  private int mask;
+  private int size;
+  private int resizeAt;
+
+  LongIntHashMap(int expected) {
+    int capacity = Integer.highestOneBit(Math.max(16, (int) (expected / MAX_LOAD)) - 1) << 1;
+    allocate(capacity);
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return the value stored for key, or {@link #MISSING}
+   */
+  int get(long key) {
+    for (int i = slot(key); ; i = (i + 1) & mask) {
+      long k = keys[i];
+      if (k == key) {
+        return values[i];
+      }
+      if (k == 0) {
+        return MISSING;
+      }
+    }
+  }
+
+  /**
+   * @return the previous value for key, or {@link #MISSING}
+   */
+  int put(long key, int value) {
+    if (key == 0) {
+      throw new IllegalArgumentException("Key 0 is reserved");
+    }
+    int i = slot(key);
+    for (; keys[i] != 0; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        int previous = values[i];
+        values[i] = value;
+        return previous;
+      }
+    }
+    keys[i] = key;
+    values[i] = value;
+    if (++size >= resizeAt) {
+      rehash(keys.length << 1);
+    }
+    return MISSING;
+  }
+
+  /**
+   * Remove key, shifting later entries of its probe chain back so lookups
+   * never need tombstones.
+   *
+   * @return the removed value, or {@link #MISSING}
+   */
+  int remove(long key) {
+    int i = slot(key);
+    for (; keys[i] != key; i = (i + 1) & mask) {
+      if (keys[i] == 0) {
+        return MISSING;
+      }
+    }
+    int removed = values[i];
+    int gap = i;
+    for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+      int home = slot(keys[j]);
+      // Move j into the gap unless its home lies cyclically in (gap, j]
+      if (((j - home) & mask) >= ((j - gap) & mask)) {
+        keys[gap] = keys[j];
+        values[gap] = values[j];
+        gap = j;
+      }
+    }
+    keys[gap] = 0;
+    size--;
+    return removed;
+  }
+
+  private int slot(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    mask = capacity - 1;
+    resizeAt = (int) (capacity * MAX_LOAD);
+  }
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      long key = oldKeys[i];
+      if (key != 0) {
+        int j = slot(key);
+        while (keys[j] != 0) {
+          j = (j + 1) & mask;
+        }
+        keys[j] = key;
+        values[j] = oldValues[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.mypolicy.pipeline.matching.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Name tokens and phonetic keys, tuned for Indian names in our feeds.
+ *
+ * The phonetic key keeps only the first and last name tokens, so middle names
+ * do not split a person across blocks, and orders them so swapped first/last
+ * names still collide. Each token is reduced to a consonant skeleton that
+ * absorbs the usual transliteration variants (Mohammad / Mohamed,
+ * Vijay / Wijay, Bhatt / Bhat, Lakshmi / Laxmi).
+ */
+public final class NameKeys {
+
+  private static final Set<String> HONORIFICS = Set.of(
+      "mr", "mrs", "ms", "miss", "dr", "shri", "sri", "shree", "smt", "kumari", "kum", "km", "late", "md");
+
+  private NameKeys() {
+  }
+
+  /**
+   * Lowercased name with punctuation turned into spaces and runs of spaces
+   * collapsed ("A.K.  Sharma" becomes "a k sharma"), or "" for null.
+   */
+  public static String normalize(String name) {
+    if (name == null) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder(name.length());
+    boolean space = true;
+    for (int i = 0; i < name.length(); i++) {
+      char c = Character.toLowerCase(name.charAt(i));
+      if (Character.isLetterOrDigit(c)) {
+        sb.append(c);
+        space = false;
+      } else if (!space) {
+        sb.append(' ');
+        space = true;
+      }
+    }
+    int length = sb.length();
+    if (length > 0 && sb.charAt(length - 1) == ' ') {
+      sb.setLength(length - 1);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Tokens of a raw name in their original order, without honorifics.
+   */
+  public static List<String> tokens(String name) {
+    String normalized = normalize(name);
+    List<String> tokens = new ArrayList<>(4);
+    if (normalized.isEmpty()) {
+      return tokens;
+    }
+    for (String token : normalized.split(" ")) {
+      if (!HONORIFICS.contains(token)) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * Order-insensitive phonetic key of the first and last tokens, or "" if the name has no letters.
+   */
+  public static String phonetic(String name) {
+    String first = null;
+    String last = null;
+    for (String token : tokens(name)) {
+      String skeleton = skeleton(token);
+      if (skeleton.isEmpty()) {
+        continue;
+      }
+      if (first == null) {
+        first = skeleton;
+      }
+      last = skeleton;
+    }
+    if (first == null) {
+      return "";
+    }
+    if (first.equals(last)) {
+      return first;
+    }
+    return first.compareTo(last) <= 0 ? first + " " + last : last + " " + first;
+  }
+
+  /**
+   * Consonant skeleton of one lowercase token: first letter kept, vowels, 'h'
+   * and repeated letters dropped, and v/w, j/z, k/c/q, f/ph, ks/x folded together.
+   */
+  public static String skeleton(String token) {
+    StringBuilder sb = new StringBuilder(token.length());
+    char previous = 0;
+    for (int i = 0; i < token.length(); i++) {
+      char c = token.charAt(i);
+      if (c < 'a' || c > 'z') {
+        continue;
+      }
+      char next = i + 1 < token.length() ? token.charAt(i + 1) : 0;
+      if (c == 'x') {
+        if (previous != 'k') {
+          sb.append('k');
+        }
+        sb.append('s');
+        previous = 's';
+        continue;
+      }
+      char mapped = switch (c) {
+        case 'w' -> 'v';
+        case 'z' -> 'j';
+        case 'q', 'c' -> next == 'h' ? 'c' : 'k';
+        case 'p' -> next == 'h' ? 'f' : 'p';
+        default -> c;
+      };
+      boolean vowel = mapped == 'a' || mapped == 'e' || mapped == 'i' || mapped == 'o' || mapped == 'u'
+          || mapped == 'y' || mapped == 'h';
+      if (sb.length() > 0 && vowel) {
+        previous = 0;
+        continue;
+      }
+      if (mapped != previous) {
+        sb.append(mapped);
+      }
+      previous = mapped;
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,16 @@
+package com.mypolicy.pipeline.matching.review;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * MongoDB repository for the manual-review queue.
+ */
+@Repository
+public interface ReviewQueueRepository extends MongoRepository<ReviewRecord, String> {
+  Page<ReviewRecord> findByStatus(ReviewStatus status, Pageable pageable);
+
+  long countByStatus(ReviewStatus status);
+}
@@ -0,0 +1,273 @@
+package com.mypolicy.pipeline.matching.review;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.mypolicy.pipeline.matching.index.BlockingKeys;
+import com.mypolicy.pipeline.matching.index.CustomerIdentityIndex;
+import com.mypolicy.pipeline.matching.service.MatchScorer;
+import com.mypolicy.pipeline.processing.model.PolicyRecord;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Manual-review queue for policy rows the matcher could not stitch.
+ *
+ * Rows are written in bulk, one unordered upsert per match chunk, and found
+ * again through their encoded mobile / PAN / email keys, so the re-match job
+ * only touches rows that share a key with a customer that actually changed.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReviewQueueService {
+
+  private static final Logger log = LoggerFactory.getLogger(ReviewQueueService.class);
+  private static final int DUPLICATE_KEY = 11000;
+
+  private final MongoTemplate mongoTemplate;
+  private final ReviewQueueRepository reviewQueueRepository;
+
+  /**
+   * Queue (or refresh) the unmatched records of one match chunk with their
+   * match outcome. A row already queued for the same policy is overwritten
+   * and goes back to PENDING, unless it came from a newer source (job
+   * creation time, row number) than the record.
+   *
+   * @return number of rows written
+   */
+  public int enqueue(String jobId, List<PolicyRecord> records, List<MatchScorer.Result> results) {
+    if (records.isEmpty()) {
+      return 0;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReviewRecord.class);
+    for (int i = 0; i < records.size(); i++) {
+      PolicyRecord record = records.get(i);
+      MatchScorer.Result result = results.get(i);
+      BlockingKeys keys = BlockingKeys.of(record.getMobileNumber(), record.getPanNumber(), record.getEmail(),
+          record.getDateOfBirth(), record.getFullName());
+      Update update = new Update()
+          .set("jobId", jobId)
+          .set("rowNumber", record.getRowNumber())
+          .set("sourceJobAt", record.getSourceJobAt())
+          .set("status", ReviewStatus.PENDING)
+          .set("classification", result.classification().name())
+          .set("candidateCustomerId", result.customer() != null ? result.customer().customerId() : null)
+          .set("score", result.score())
+          .set("attempts", 1)
+          .set("lastAttemptAt", now)
+          .set("mobileKey", keyOrNull(keys.mobile()))
+          .set("panKey", keyOrNull(keys.pan()))
+          .set("emailKey", keyOrNull(keys.email()))
+          .set("policyType", record.getPolicyType())
+          .set("firstName", record.getFirstName())
+          .set("lastName", record.getLastName())
+          .set("customerName", record.getCustomerName())
+          .set("mobileNumber", record.getMobileNumber())
+          .set("email", record.getEmail())
+          .set("panNumber", record.getPanNumber())
+          .set("dateOfBirth", record.getDateOfBirth())
+          .set("planName", record.getPlanName())
+          .set("premiumAmount", record.getPremiumAmount())
+          .set("sumAssured", record.getSumAssured())
+          .set("startDate", record.getStartDate())
+          .set("endDate", record.getEndDate())
+          .unset("resolvedCustomerId")
+          .unset("resolvedAt")
+          .setOnInsert("createdAt", now)
+          .set("updatedAt", now);
+      bulk.upsert(notNewerThan(record, Criteria.where("insurerId").is(record.getInsurerId())
+          .and("policyNumber").is(record.getPolicyNumber())), update);
+    }
+    int skipped = 0;
+    try {
+      bulk.execute();
+    } catch (BulkOperationException e) {
+      // A newer row is queued for the policy: the filter missed it and the insert hit the unique key
+      for (BulkWriteError error : e.getErrors()) {
+        if (error.getCode() != DUPLICATE_KEY) {
+          throw e;
+        }
+      }
+      skipped = e.getErrors().size();
+    }
+    log.debug("[Matching] Queued {} unmatched policies for review (jobId={}, superseded={})",
+        records.size() - skipped, jobId, skipped);
+    return records.size() - skipped;
+  }
+
+  /**
+   * Resolve the pending rows of policies a job has just stitched. Only rows
+   * from an older source than the stitched record are closed; the row then
+   * carries the stitched record's source, so an older job cannot re-open it.
+   */
+  public void resolveStitched(String jobId, List<PolicyRecord> records) {
+    if (records.isEmpty()) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReviewRecord.class);
+    for (PolicyRecord record : records) {
+      Update update = new Update()
+          .set("status", ReviewStatus.RESOLVED)
+          .set("resolvedCustomerId", record.getCustomerId())
+          .set("resolvedAt", now)
+          .set("jobId", jobId)
+          .set("rowNumber", record.getRowNumber())
+          .set("sourceJobAt", record.getSourceJobAt())
+          .set("updatedAt", now);
+      bulk.updateOne(notNewerThan(record, Criteria.where("insurerId").is(record.getInsurerId())
+          .and("policyNumber").is(record.getPolicyNumber())
+          .and("status").is(ReviewStatus.PENDING)), update);
+    }
+    int resolved = bulk.execute().getModifiedCount();
+    if (resolved > 0) {
+      log.debug("[Matching] Resolved {} queued policies stitched by jobId={}", resolved, jobId);
+    }
+  }
+
+  /**
+   * Restrict a row query to rows whose source is not newer than the record's.
+   * Records without a source (and rows queued before sources were kept) always match.
+   */
+  private static Query notNewerThan(PolicyRecord record, Criteria criteria) {
+    LocalDateTime sourceJobAt = record.getSourceJobAt();
+    if (sourceJobAt != null) {
+      criteria.orOperator(
+          Criteria.where("sourceJobAt").is(null),
+          Criteria.where("sourceJobAt").lt(sourceJobAt),
+          Criteria.where("sourceJobAt").is(sourceJobAt).and("rowNumber").lte(record.getRowNumber()));
+    }
+    return Query.query(criteria);
+  }
+
+  /**
+   * Pending rows sharing a mobile, PAN or email key with the given customers,
+   * oldest first, skipping rows already attempted at or after attemptedBefore.
+   */
+  public List<ReviewRecord> findPendingByKeys(Collection<Long> mobileKeys, Collection<Long> panKeys,
+      Collection<Long> emailKeys, LocalDateTime attemptedBefore, int limit) {
+    List<Criteria> byKey = new ArrayList<>(3);
+    if (!mobileKeys.isEmpty()) {
+      byKey.add(Criteria.where("mobileKey").in(mobileKeys));
+    }
+    if (!panKeys.isEmpty()) {
+      byKey.add(Criteria.where("panKey").in(panKeys));
+    }
+    if (!emailKeys.isEmpty()) {
+      byKey.add(Criteria.where("emailKey").in(emailKeys));
+    }
+    if (byKey.isEmpty()) {
+      return List.of();
+    }
+    Query query = Query.query(new Criteria().orOperator(byKey.toArray(new Criteria[0]))
+            .and("status").is(ReviewStatus.PENDING)
+            .and("lastAttemptAt").lt(attemptedBefore))
+        .with(Sort.by("createdAt"))
+        .limit(limit);
+    return mongoTemplate.find(query, ReviewRecord.class);
+  }
+
+  /**
+   * Pending rows for a raw mobile number and/or PAN, for reviewers.
+   */
+  public List<ReviewRecord> findPending(String mobile, String pan, int limit) {
+    long mobileKey = CustomerIdentityIndex.mobileKey(mobile);
+    long panKey = CustomerIdentityIndex.panKey(pan);
+    if (mobileKey == 0 && panKey == 0) {
+      throw new IllegalArgumentException("A valid mobile or PAN is required");
+    }
+    return findPendingByKeys(mobileKey != 0 ? List.of(mobileKey) : List.of(),
+        panKey != 0 ? List.of(panKey) : List.of(), List.of(), LocalDateTime.MAX, limit);
+  }
+
+  public long countPending() {
+    return reviewQueueRepository.countByStatus(ReviewStatus.PENDING);
+  }
+
+  /**
+   * createdAt of the oldest pending row, or null if the queue is empty.
+   */
+  public LocalDateTime oldestPendingCreatedAt() {
+    Query query = Query.query(Criteria.where("status").is(ReviewStatus.PENDING))
+        .with(Sort.by("createdAt"))
+        .limit(1);
+    query.fields().include("createdAt");
+    ReviewRecord oldest = mongoTemplate.findOne(query, ReviewRecord.class);
+    return oldest != null ? oldest.getCreatedAt() : null;
+  }
+
+  /**
+   * Record one re-match round: rows whose policy was stitched become RESOLVED,
+   * the others keep waiting with their new match outcome. Only PENDING rows
+   * are touched, so a row re-queued or resolved meanwhile is left alone.
+   */
+  public void recordAttempts(List<ReviewRecord> rows, List<MatchScorer.Result> results, Set<String> resolvedIds) {
+    if (rows.isEmpty()) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now();
+    BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReviewRecord.class);
+    for (int i = 0; i < rows.size(); i++) {
+      ReviewRecord row = rows.get(i);
+      MatchScorer.Result result = results.get(i);
+      Update update = new Update()
+          .inc("attempts", 1)
+          .set("lastAttemptAt", now)
+          .set("classification", result.classification().name())
+          .set("candidateCustomerId", result.customer() != null ? result.customer().customerId() : null)
+          .set("score", result.score())
+          .set("updatedAt", now);
+      if (resolvedIds.contains(row.getId())) {
+        update.set("status", ReviewStatus.RESOLVED)
+            .set("resolvedCustomerId", result.customer().customerId())
+            .set("resolvedAt", now);
+      }
+      bulk.updateOne(Query.query(Criteria.where("_id").is(row.getId())
+          .and("status").is(ReviewStatus.PENDING)), update);
+    }
+    bulk.execute();
+  }
+
+  /**
+   * Rebuild the standardized record a queued row was made from.
+   */
+  public static PolicyRecord toPolicyRecord(ReviewRecord row) {
+    PolicyRecord record = new PolicyRecord();
+    record.setRowNumber(row.getRowNumber());
+    record.setSourceJobAt(row.getSourceJobAt());
+    record.setInsurerId(row.getInsurerId());
+    record.setPolicyType(row.getPolicyType());
+    record.setPolicyNumber(row.getPolicyNumber());
+    record.setFirstName(row.getFirstName());
+    record.setLastName(row.getLastName());
+    record.setCustomerName(row.getCustomerName());
+    record.setMobileNumber(row.getMobileNumber());
+    record.setEmail(row.getEmail());
+    record.setPanNumber(row.getPanNumber());
+    record.setDateOfBirth(row.getDateOfBirth());
+    record.setPlanName(row.getPlanName());
+    record.setPremiumAmount(row.getPremiumAmount());
+    record.setSumAssured(row.getSumAssured());
+    record.setStartDate(row.getStartDate());
+    record.setEndDate(row.getEndDate());
+    return record;
+  }
+
+  private static Long keyOrNull(long key) {
+    return key != 0 ? key : null;
+  }
+}
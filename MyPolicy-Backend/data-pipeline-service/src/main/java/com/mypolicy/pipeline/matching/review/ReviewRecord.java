@@ -0,0 +1,76 @@
+package com.mypolicy.pipeline.matching.review;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Standardized policy row that could not be stitched to a customer.
+ *
+ * One document per (insurerId, policyNumber): re-uploading a file refreshes
+ * the row instead of queueing it twice. The encoded identity keys (see
+ * {@link com.mypolicy.pipeline.matching.index.BlockingKeys}) are stored
+ * alongside the raw values so the queue can be searched by mobile, PAN or
+ * email without a collection scan; a missing key is stored as null and stays
+ * out of the index.
+ */
+@Data
+@Document(collection = "review_queue")
+@CompoundIndexes({
+    @CompoundIndex(name = "uk_review_policy", def = "{'insurerId': 1, 'policyNumber': 1}", unique = true),
+    @CompoundIndex(name = "idx_review_mobile", def = "{'mobileKey': 1, 'status': 1}", sparse = true),
+    @CompoundIndex(name = "idx_review_pan", def = "{'panKey': 1, 'status': 1}", sparse = true),
+    @CompoundIndex(name = "idx_review_email", def = "{'emailKey': 1, 'status': 1}", sparse = true),
+    @CompoundIndex(name = "idx_review_status_created", def = "{'status': 1, 'createdAt': 1}")
+})
+public class ReviewRecord {
+
+  @Id
+  private String id;
+
+  private String jobId;
+  private long rowNumber;
+  // Creation time of the source job; with rowNumber it keeps an older job from overwriting the row
+  private LocalDateTime sourceJobAt;
+  private ReviewStatus status;
+
+  // Outcome of the last match attempt: WEAK_MATCH carries the candidate a reviewer should check
+  private String classification;
+  private String candidateCustomerId;
+  private int score;
+  private int attempts;
+  private LocalDateTime lastAttemptAt;
+
+  private Long mobileKey;
+  private Long panKey;
+  private Long emailKey;
+
+  // Standardized policy fields, enough to stitch the policy without the source file
+  private String insurerId;
+  private String policyType;
+  private String policyNumber;
+  private String firstName;
+  private String lastName;
+  private String customerName;
+  private String mobileNumber;
+  private String email;
+  private String panNumber;
+  private LocalDate dateOfBirth;
+  private String planName;
+  private BigDecimal premiumAmount;
+  private BigDecimal sumAssured;
+  private LocalDate startDate;
+  private LocalDate endDate;
+
+  private String resolvedCustomerId;
+  private LocalDateTime resolvedAt;
+
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+}
@@ -0,0 +1,230 @@
+package com.mypolicy.pipeline.matching.review;
+
+import com.mypolicy.pipeline.matching.client.CustomerClient;
+import com.mypolicy.pipeline.matching.client.RemoteCallLimiter;
+import com.mypolicy.pipeline.matching.dto.CustomerDTO;
+import com.mypolicy.pipeline.matching.dto.PolicyBatchItemResult;
+import com.mypolicy.pipeline.matching.dto.PolicyUpsertResponse;
+import com.mypolicy.pipeline.matching.index.CustomerIdentityIndex;
+import com.mypolicy.pipeline.matching.service.MatchScorer;
+import com.mypolicy.pipeline.matching.service.MatchingService;
+import com.mypolicy.pipeline.processing.model.PolicyRecord;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-matches queued policy rows against customers registered or changed since
+ * the last run.
+ *
+ * Every rematch-interval-ms the job pages through Customer Service's
+ * changed-since export, looks up the pending rows sharing a mobile, PAN or
+ * email key with those customers, re-resolves just those rows and upserts the
+ * policies that now match strongly. Rows that still do not match stay PENDING
+ * with their latest outcome. The first run starts from the oldest pending row,
+ * so customers registered while this node was down are not missed. Running on
+ * several nodes is safe: upserts are idempotent and resolving a row is a
+ * conditional update.
+ */
+@Component
+public class ReviewRematchJob {
+
+  private static final Logger log = LoggerFactory.getLogger(ReviewRematchJob.class);
+
+  private final ReviewQueueService reviewQueueService;
+  private final MatchingService matchingService;
+  private final CustomerIdentityIndex identityIndex;
+  private final CustomerClient customerClient;
+  private final RemoteCallLimiter remoteCallLimiter;
+  private final boolean enabled;
+  private final long intervalMs;
+  private final int pageSize;
+  private final int batchSize;
+  private final long overlapMs;
+  private final ScheduledExecutorService scheduler;
+
+  // updatedAt of the last customer processed; only touched by the scheduler thread
+  private String cursor;
+
+  public ReviewRematchJob(ReviewQueueService reviewQueueService, MatchingService matchingService,
+      CustomerIdentityIndex identityIndex, CustomerClient customerClient, RemoteCallLimiter remoteCallLimiter,
+      @Value("${pipeline.matching.review.rematch-enabled:true}") boolean enabled,
+      @Value("${pipeline.matching.review.rematch-interval-ms:300000}") long intervalMs,
+      @Value("${pipeline.matching.review.page-size:5000}") int pageSize,
+      @Value("${pipeline.matching.review.batch-size:500}") int batchSize,
+      @Value("${pipeline.matching.review.overlap-ms:5000}") long overlapMs) {
+    this.reviewQueueService = reviewQueueService;
+    this.matchingService = matchingService;
+    this.identityIndex = identityIndex;
+    this.customerClient = customerClient;
+    this.remoteCallLimiter = remoteCallLimiter;
+    this.enabled = enabled;
+    this.intervalMs = Math.max(1, intervalMs);
+    this.pageSize = Math.max(1, pageSize);
+    this.batchSize = Math.max(1, batchSize);
+    this.overlapMs = Math.max(0, overlapMs);
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "review-rematch");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled) {
+      log.info("[Matching] Review re-match job disabled");
+      return;
+    }
+    scheduler.scheduleWithFixedDelay(this::run, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  private void run() {
+    LocalDateTime startedAt = LocalDateTime.now();
+    int customers = 0;
+    int attempted = 0;
+    int resolved = 0;
+    try {
+      if (cursor == null) {
+        LocalDateTime oldest = reviewQueueService.oldestPendingCreatedAt();
+        if (oldest == null) {
+          // Nothing queued: later rows can only match customers changed from now on
+          cursor = startedAt.toString();
+          return;
+        }
+        cursor = oldest.toString();
+      }
+      String since = rewind(cursor);
+      String afterId = null;
+      while (true) {
+        String pageSince = since;
+        String pageAfterId = afterId;
+        List<CustomerDTO> page = remoteCallLimiter.customerService(
+            () -> customerClient.exportCustomers(pageSince, pageAfterId, pageSize));
+        if (page == null || page.isEmpty()) {
+          break;
+        }
+        customers += page.size();
+        // The index may not have polled these yet
+        identityIndex.putAll(page);
+        int[] counts = rematch(page, startedAt);
+        attempted += counts[0];
+        resolved += counts[1];
+
+        CustomerDTO last = page.get(page.size() - 1);
+        since = last.getUpdatedAt();
+        afterId = last.getCustomerId();
+        cursor = since;
+        if (page.size() < pageSize) {
+          break;
+        }
+      }
+      if (attempted > 0) {
+        log.info("[Matching] Review re-match: {} changed customers, {} queued policies retried, {} stitched",
+            customers, attempted, resolved);
+      }
+    } catch (Exception e) {
+      // Keep the cursor of the last full page; the next run picks up from there
+      log.warn("[Matching] Review re-match failed after {} customers: {}", customers, e.getMessage());
+    }
+  }
+
+  /**
+   * Retry the pending rows sharing a key with one page of changed customers.
+   *
+   * @return {attempted, resolved}
+   */
+  private int[] rematch(List<CustomerDTO> customers, LocalDateTime runStartedAt) {
+    Set<Long> mobileKeys = new HashSet<>();
+    Set<Long> panKeys = new HashSet<>();
+    Set<Long> emailKeys = new HashSet<>();
+    for (CustomerDTO customer : customers) {
+      addKey(mobileKeys, CustomerIdentityIndex.mobileKey(customer.getMobileNumber()));
+      addKey(panKeys, CustomerIdentityIndex.panKey(customer.getPanNumber()));
+      addKey(emailKeys, CustomerIdentityIndex.emailKey(customer.getEmail()));
+    }
+
+    int attempted = 0;
+    int resolved = 0;
+    while (true) {
+      // Rows retried in this run are excluded, so each batch makes progress
+      List<ReviewRecord> rows = reviewQueueService.findPendingByKeys(mobileKeys, panKeys, emailKeys,
+          runStartedAt, batchSize);
+      if (rows.isEmpty()) {
+        break;
+      }
+      List<PolicyRecord> records = new ArrayList<>(rows.size());
+      for (ReviewRecord row : rows) {
+        records.add(ReviewQueueService.toPolicyRecord(row));
+      }
+      List<MatchScorer.Result> results = matchingService.resolveCustomers(records);
+
+      List<PolicyRecord> stitched = new ArrayList<>();
+      for (PolicyRecord record : records) {
+        if (record.getCustomerId() != null) {
+          stitched.add(record);
+        }
+      }
+      Set<String> failedPolicies = new HashSet<>();
+      if (!stitched.isEmpty()) {
+        // Sent with the queued row's source, so it never overwrites a policy written from a newer row
+        PolicyUpsertResponse response = matchingService.upsertStitchedPolicies(stitched);
+        if (response.getResults() != null) {
+          for (PolicyBatchItemResult item : response.getResults()) {
+            if ("FAILED".equals(item.getOutcome())) {
+              failedPolicies.add(item.getPolicyNumber());
+            }
+          }
+        }
+      }
+
+      Set<String> resolvedIds = new HashSet<>();
+      for (int i = 0; i < rows.size(); i++) {
+        PolicyRecord record = records.get(i);
+        if (record.getCustomerId() != null && !failedPolicies.contains(record.getPolicyNumber())) {
+          resolvedIds.add(rows.get(i).getId());
+        }
+      }
+      reviewQueueService.recordAttempts(rows, results, resolvedIds);
+      attempted += rows.size();
+      resolved += resolvedIds.size();
+      if (rows.size() < batchSize) {
+        break;
+      }
+    }
+    return new int[] { attempted, resolved };
+  }
+
+  private static void addKey(Set<Long> keys, long key) {
+    if (key != 0) {
+      keys.add(key);
+    }
+  }
+
+  private String rewind(String updatedAt) {
+    try {
+      return LocalDateTime.parse(updatedAt).minusNanos(overlapMs * 1_000_000L).toString();
+    } catch (DateTimeParseException e) {
+      return updatedAt;
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+}
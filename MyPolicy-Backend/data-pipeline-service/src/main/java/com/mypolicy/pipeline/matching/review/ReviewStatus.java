@@ -0,0 +1,9 @@
+package com.mypolicy.pipeline.matching.review;
+
+/**
+ * Lifecycle of a policy row waiting in the manual-review queue.
+ */
+public enum ReviewStatus {
+  PENDING,   // Not stitched yet; re-matched whenever a customer with one of its keys changes
+  RESOLVED   // Stitched to a customer, by the re-match job or a reviewer
+}
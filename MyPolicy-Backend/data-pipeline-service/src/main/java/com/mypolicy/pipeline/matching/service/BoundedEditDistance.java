@@ -0,0 +1,100 @@
+package com.mypolicy.pipeline.matching.service;
+
+import org.apache.commons.text.similarity.LevenshteinDistance;
+
+/**
+ * Case-insensitive Levenshtein distance that only answers "within k edits?".
+ *
+ * Strings up to 64 chars use Myers' bit-parallel algorithm in Hyyrö's
+ * formulation: one 64-bit column per character of the longer string, no
+ * allocation, and an exit as soon as the remaining characters can no longer
+ * bring the distance back within the bound. Longer strings fall back to the
+ * bounded commons-text implementation.
+ */
+final class BoundedEditDistance {
+
+  private static final int ASCII = 128;
+
+  // Match masks of the current pattern, indexed by lowercased ASCII char; cleared after each call
+  private static final ThreadLocal<long[]> PEQ = ThreadLocal.withInitial(() -> new long[ASCII]);
+
+  private BoundedEditDistance() {
+  }
+
+  /**
+   * @return the edit distance between a and b if it is at most k, otherwise -1
+   */
+  static int apply(CharSequence a, CharSequence b, int k) {
+    CharSequence pattern = a.length() <= b.length() ? a : b;
+    CharSequence text = pattern == a ? b : a;
+    int m = pattern.length();
+    int n = text.length();
+    if (n - m > k) {
+      return -1;
+    }
+    if (m == 0) {
+      return n;
+    }
+    if (m > Long.SIZE) {
+      return new LevenshteinDistance(k).apply(lower(a), lower(b));
+    }
+
+    long[] peq = PEQ.get();
+    for (int i = 0; i < m; i++) {
+      char c = Character.toLowerCase(pattern.charAt(i));
+      if (c < ASCII) {
+        peq[c] |= 1L << i;
+      }
+    }
+    try {
+      long last = 1L << (m - 1);
+      long pv = -1L;
+      long mv = 0L;
+      int score = m;
+      for (int j = 0; j < n; j++) {
+        char c = Character.toLowerCase(text.charAt(j));
+        long eq = c < ASCII ? peq[c] : mask(pattern, c);
+        long xv = eq | mv;
+        long xh = (((eq & pv) + pv) ^ pv) | eq;
+        long ph = mv | ~(xh | pv);
+        long mh = pv & xh;
+        if ((ph & last) != 0) {
+          score++;
+        } else if ((mh & last) != 0) {
+          score--;
+        }
+        // Each remaining text char can lower the last-row score by at most one
+        if (score - (n - j - 1) > k) {
+          return -1;
+        }
+        ph = (ph << 1) | 1L;
+        mh <<= 1;
+        pv = mh | ~(xv | ph);
+        mv = ph & xv;
+      }
+      return score <= k ? score : -1;
+    } finally {
+      for (int i = 0; i < m; i++) {
+        char c = Character.toLowerCase(pattern.charAt(i));
+        if (c < ASCII) {
+          peq[c] = 0L;
+        }
+      }
+    }
+  }
+
+  // Match mask for a non-ASCII char, built by scanning the (at most 64-char) pattern
+  private static long mask(CharSequence pattern, char c) {
+    long mask = 0L;
+    for (int i = 0; i < pattern.length(); i++) {
+      if (Character.toLowerCase(pattern.charAt(i)) == c) {
+        mask |= 1L << i;
+      }
+    }
+    return mask;
+  }
+
+  private static String lower(CharSequence value) {
+    return value.toString().toLowerCase();
+  }
+}
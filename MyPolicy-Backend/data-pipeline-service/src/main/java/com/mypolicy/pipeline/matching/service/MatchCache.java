@@ -0,0 +1,76 @@
+package com.mypolicy.pipeline.matching.service;
+
+import com.mypolicy.pipeline.matching.index.BlockingKeys;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Match results memoized for one processing job.
+ *
+ * Keyed by the record's encoded identity keys plus its token-sorted name, so
+ * a customer listed on many rows of a file is blocked, scored (and looked up
+ * remotely) once. Negative results are kept too. Once maxEntries results are
+ * stored, new identities are still matched but no longer cached. Shared by
+ * the job's match workers.
+ */
+public final class MatchCache {
+
+  /**
+   * Cache key: everything a match result depends on.
+   */
+  record Key(BlockingKeys keys, String name) {
+  }
+
+  private final Map<Key, MatchScorer.Result> results = new ConcurrentHashMap<>();
+  private final int maxEntries;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public MatchCache(int maxEntries) {
+    this.maxEntries = Math.max(0, maxEntries);
+  }
+
+  MatchScorer.Result get(Key key) {
+    MatchScorer.Result result = results.get(key);
+    if (result != null) {
+      hits.increment();
+    } else {
+      misses.increment();
+    }
+    return result;
+  }
+
+  void put(Key key, MatchScorer.Result result) {
+    if (results.size() < maxEntries) {
+      results.put(key, result);
+    }
+  }
+
+  // A repeat inside the same chunk, resolved together with its first occurrence
+  void countHit() {
+    hits.increment();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  public int size() {
+    return results.size();
+  }
+
+  /**
+   * Share of lookups answered from the cache, 0 before any lookup.
+   */
+  public double getHitRate() {
+    long h = hits.sum();
+    long total = h + misses.sum();
+    return total == 0 ? 0 : (double) h / total;
+  }
+}
@@ -0,0 +1,149 @@
+package com.mypolicy.pipeline.matching.service;
+
+import com.mypolicy.pipeline.matching.index.BlockingKeys;
+import com.mypolicy.pipeline.matching.index.CustomerIdentityIndex.Identity;
+import com.mypolicy.pipeline.matching.service.NameNormalizer.NormalizedName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Weighted record-to-customer scoring.
+ *
+ * Every attribute present on both sides adds its agreement weight or its
+ * disagreement penalty; attributes missing on either side count zero. PAN is
+ * close to unique, while mobiles and emails are sometimes shared within a
+ * family, so they weigh less and disagree more gently. The total is compared
+ * against strong-match-threshold and weak-match-threshold.
+ */
+@Component
+public class MatchScorer {
+
+  static final int PAN_AGREE = 7;
+  static final int PAN_DISAGREE = -5;
+  static final int MOBILE_AGREE = 4;
+  static final int MOBILE_DISAGREE = -1;
+  static final int EMAIL_AGREE = 4;
+  static final int EMAIL_DISAGREE = -1;
+  static final int DOB_AGREE = 2;
+  static final int DOB_DISAGREE = -3;
+  static final int NAME_EXACT = 4;
+  static final int NAME_FUZZY = 3;
+  static final int NAME_PHONETIC = 2;
+  static final int NAME_DISAGREE = -4;
+
+  public enum Classification {
+    STRONG_MATCH,
+    WEAK_MATCH,
+    NON_MATCH
+  }
+
+  /**
+   * Outcome for one record: the best candidate (null if there was none) and its score.
+   */
+  public record Result(Classification classification, Identity customer, int score) {
+  }
+
+  private final int strongThreshold;
+  private final int weakThreshold;
+  private final int fuzzyThreshold;
+  private final NameNormalizer nameNormalizer;
+
+  public MatchScorer(NameNormalizer nameNormalizer,
+      @Value("${pipeline.matching.strong-match-threshold:7}") int strongThreshold,
+      @Value("${pipeline.matching.weak-match-threshold:4}") int weakThreshold,
+      @Value("${pipeline.matching.fuzzy-threshold:3}") int fuzzyThreshold) {
+    if (weakThreshold > strongThreshold) {
+      throw new IllegalArgumentException("weak-match-threshold must not exceed strong-match-threshold");
+    }
+    this.strongThreshold = strongThreshold;
+    this.weakThreshold = weakThreshold;
+    this.fuzzyThreshold = fuzzyThreshold;
+    this.nameNormalizer = nameNormalizer;
+  }
+
+  /**
+   * Score a record against its blocking candidates. Two different customers
+   * that both clear the strong threshold are ambiguous and only make a weak match.
+   */
+  public Result classify(BlockingKeys keys, String fullName, List<Identity> candidates) {
+    NormalizedName name = nameNormalizer.normalize(fullName);
+    Identity best = null;
+    int bestScore = Integer.MIN_VALUE;
+    int secondScore = Integer.MIN_VALUE;
+    for (Identity candidate : candidates) {
+      int score = score(keys, name, candidate);
+      if (score > bestScore) {
+        secondScore = bestScore;
+        bestScore = score;
+        best = candidate;
+      } else if (score > secondScore) {
+        secondScore = score;
+      }
+    }
+    if (best == null) {
+      return new Result(Classification.NON_MATCH, null, 0);
+    }
+    Classification classification;
+    if (bestScore >= strongThreshold && secondScore < strongThreshold) {
+      classification = Classification.STRONG_MATCH;
+    } else if (bestScore >= weakThreshold) {
+      classification = Classification.WEAK_MATCH;
+    } else {
+      classification = Classification.NON_MATCH;
+    }
+    return new Result(classification, best, bestScore);
+  }
+
+  int score(BlockingKeys keys, NormalizedName name, Identity candidate) {
+    BlockingKeys other = candidate.keys();
+    int score = compare(keys.pan(), other.pan(), PAN_AGREE, PAN_DISAGREE)
+        + compare(keys.mobile(), other.mobile(), MOBILE_AGREE, MOBILE_DISAGREE)
+        + compare(keys.email(), other.email(), EMAIL_AGREE, EMAIL_DISAGREE);
+    if (keys.dobDay() != BlockingKeys.NO_DATE && other.dobDay() != BlockingKeys.NO_DATE) {
+      score += keys.dobDay() == other.dobDay() ? DOB_AGREE : DOB_DISAGREE;
+    }
+    return score + compareNames(name, nameNormalizer.normalize(candidate.fullName()));
+  }
+
+  /**
+   * Names are compared on their token-sorted forms, so swapped first/last
+   * names agree exactly; missing middle names and initials count as fuzzy.
+   */
+  private int compareNames(NormalizedName name, NormalizedName other) {
+    if (name.isEmpty() || other.isEmpty()) {
+      return 0;
+    }
+    if (nameNormalizer.sameTokens(name, other)) {
+      return NAME_EXACT;
+    }
+    if (isSimilar(name.sorted(), other.sorted())
+        || nameNormalizer.tokenSubset(name, other)
+        || nameNormalizer.similarTokenSort(name, other)) {
+      return NAME_FUZZY;
+    }
+    if (name.phoneticKey().equals(other.phoneticKey())) {
+      return NAME_PHONETIC;
+    }
+    return NAME_DISAGREE;
+  }
+
+  /**
+   * True if the two names are within fuzzy-threshold edits, ignoring case.
+   * Bit-parallel and allocation-free; see {@link BoundedEditDistance}.
+   */
+  public boolean isSimilar(String str1, String str2) {
+    if (str1 == null || str2 == null) {
+      return false;
+    }
+    return BoundedEditDistance.apply(str1, str2, fuzzyThreshold) >= 0;
+  }
+
+  private static int compare(long key, long other, int agree, int disagree) {
+    if (key == 0 || other == 0) {
+      return 0;
+    }
+    return key == other ? agree : disagree;
+  }
+}
@@ -2,17 +2,30 @@ package com.mypolicy.pipeline.matching.service;
 
 import com.mypolicy.pipeline.matching.client.CustomerClient;
 import com.mypolicy.pipeline.matching.client.PolicyClient;
+import com.mypolicy.pipeline.matching.client.RemoteCallLimiter;
+import com.mypolicy.pipeline.matching.dto.CustomerBatchLookupRequest;
 import com.mypolicy.pipeline.matching.dto.CustomerDTO;
+import com.mypolicy.pipeline.matching.dto.PolicyBatchItemResult;
 import com.mypolicy.pipeline.matching.dto.PolicyDTO;
+import com.mypolicy.pipeline.matching.dto.PolicyUpsertResponse;
+import com.mypolicy.pipeline.matching.index.BlockingKeys;
+import com.mypolicy.pipeline.matching.index.CustomerIdentityIndex;
+import com.mypolicy.pipeline.matching.index.CustomerIdentityIndex.Identity;
+import com.mypolicy.pipeline.processing.model.PolicyRecord;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.text.similarity.LevenshteinDistance;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 
 /**
  * Matching Service: fuzzy matching, identity stitching, policy creation.
@@ -31,88 +44,289 @@ public class MatchingService {
   
   private final CustomerClient customerClient;  // External service - remains Feign
   private final PolicyClient policyClient;       // External service - remains Feign
-  private final LevenshteinDistance levenshteinDistance = new LevenshteinDistance();
+  private final CustomerIdentityIndex identityIndex;
+  private final MatchScorer matchScorer;
+  private final NameNormalizer nameNormalizer;
+  private final RemoteCallLimiter remoteCallLimiter;
 
-  private static final int SIMILARITY_THRESHOLD = 3; // Max edit distance for fuzzy match
+  @Value("${pipeline.matching.lookup-batch-size:1000}")
+  private int lookupBatchSize;
+
+  @Value("${pipeline.matching.job-cache-size:100000}")
+  private int jobCacheSize;
 
   /**
    * Process a standardized policy record from Processing Service.
-   * 1. Try to match with existing customer (fuzzy logic).
+   * 1. Try to match with existing customer (blocking + weighted scoring).
    * 2. Create policy linked to customer.
    * 
    * Consolidation Benefit: Called directly by ProcessingService (same JVM).
    */
-  public void processAndMatchPolicy(Map<String, Object> standardRecord) {
-    log.info("[Matching] Processing policy record for identity stitching");
-    
-    // 1. Extract PII from the standardized Map
-    String firstName = (String) standardRecord.get("firstName");
-    String lastName = (String) standardRecord.get("lastName");
-    String mobile = (String) standardRecord.get("mobileNumber");
-    String policyNum = (String) standardRecord.get("policyNumber");
-    String insurerId = (String) standardRecord.get("insurerId");
-    String policyType = (String) standardRecord.get("policyType");
-
-    log.debug("[Matching] Searching for customer: {} {}, mobile: {}", firstName, lastName, mobile);
-
-    // 2. SEARCH: Look for existing customer by Mobile
-    Optional<CustomerDTO> customerOpt = customerClient.searchByMobile(mobile);
+  public void processAndMatchPolicy(PolicyRecord standardRecord) {
+    String resolvedCustomerId = resolveCustomer(standardRecord);
+
+    if (resolvedCustomerId != null) {
+      standardRecord.setCustomerId(resolvedCustomerId);
+      createStitchedPolicy(standardRecord);
+    }
+  }
+
+  /**
+   * Identity resolution only: block on the record's identity keys, then score the candidates.
+   *
+   * @return the resolved customerId, or null unless the record is a strong match
+   */
+  public String resolveCustomer(PolicyRecord standardRecord) {
+    resolveCustomers(Collections.singletonList(standardRecord));
+    return standardRecord.getCustomerId();
+  }
+
+  /**
+   * Batched identity resolution without memoization; see {@link #resolveCustomers(List, MatchCache)}.
+   */
+  public List<MatchScorer.Result> resolveCustomers(List<PolicyRecord> records) {
+    return resolveCustomers(records, null);
+  }
+
+  /**
+   * Batched identity resolution, used by the match stage of the processing pipeline.
+   *
+   * Candidates come from the identity index through every blocking key a
+   * record carries (PAN, mobile, email, DOB + phonetic name); records with no
+   * candidate there fall back to a bulk mobile lookup in Customer Service.
+   * Each record is then scored against its candidates: a strong match gets
+   * its customerId set; weak and non-matches are left without one, and the
+   * returned outcomes let the caller queue them for review.
+   *
+   * With a job cache, identities already resolved earlier in the job (or
+   * earlier in the chunk) are answered from it instead.
+   *
+   * @return the match outcome of each record, in record order
+   */
+  public List<MatchScorer.Result> resolveCustomers(List<PolicyRecord> records, MatchCache cache) {
+    log.info("[Matching] Processing {} policy records for identity stitching", records.size());
+
+    // 1. Split the chunk into cached results and distinct identities still to resolve
+    MatchScorer.Result[] results = new MatchScorer.Result[records.size()];
+    int[] pendingIndex = new int[records.size()];
+    List<PolicyRecord> pending = new ArrayList<>(records.size());
+    List<BlockingKeys> pendingKeys = new ArrayList<>(records.size());
+    List<MatchCache.Key> pendingCacheKeys = new ArrayList<>(records.size());
+    Map<MatchCache.Key, Integer> firstPending = cache != null ? new HashMap<>() : null;
 
+    for (int i = 0; i < records.size(); i++) {
+      PolicyRecord record = records.get(i);
+      BlockingKeys keys = BlockingKeys.of(record.getMobileNumber(), record.getPanNumber(), record.getEmail(),
+          record.getDateOfBirth(), record.getFullName());
+      MatchCache.Key cacheKey = null;
+      if (cache != null) {
+        cacheKey = new MatchCache.Key(keys, nameNormalizer.normalize(record.getFullName()).sorted());
+        Integer first = firstPending.get(cacheKey);
+        if (first != null) {
+          cache.countHit();
+          pendingIndex[i] = first;
+          continue;
+        }
+        results[i] = cache.get(cacheKey);
+        if (results[i] != null) {
+          continue;
+        }
+        firstPending.put(cacheKey, pending.size());
+      }
+      pendingIndex[i] = pending.size();
+      pending.add(record);
+      pendingKeys.add(keys);
+      pendingCacheKeys.add(cacheKey);
+    }
+
+    // 2. BLOCK: candidate customers sharing at least one key with each record
+    MatchScorer.Result[] pendingResults = new MatchScorer.Result[pending.size()];
+    if (!pending.isEmpty()) {
+      List<List<Identity>> candidates = identityIndex.findCandidates(pendingKeys);
+      Map<Long, Identity> remoteByMobile = lookupMissesByMobile(pending, pendingKeys, candidates);
+
+      for (int p = 0; p < pending.size(); p++) {
+        List<Identity> recordCandidates = candidates.get(p);
+        if (recordCandidates.isEmpty()) {
+          Identity remote = remoteByMobile.get(pendingKeys.get(p).mobile());
+          recordCandidates = remote != null ? List.of(remote) : List.of();
+        }
+        // 3. SCORE: weighted comparison against every candidate
+        pendingResults[p] = matchScorer.classify(pendingKeys.get(p), pending.get(p).getFullName(),
+            recordCandidates);
+        if (cache != null) {
+          cache.put(pendingCacheKeys.get(p), pendingResults[p]);
+        }
+      }
+    }
+
+    for (int i = 0; i < records.size(); i++) {
+      if (results[i] == null) {
+        results[i] = pendingResults[pendingIndex[i]];
+      }
+      apply(records.get(i), results[i]);
+    }
+    return Arrays.asList(results);
+  }
+
+  private void apply(PolicyRecord standardRecord, MatchScorer.Result result) {
+    String policyNum = standardRecord.getPolicyNumber();
     String resolvedCustomerId = null;
 
-    if (customerOpt.isPresent()) {
-      CustomerDTO masterRecord = customerOpt.get();
-      String fullNameCsv = (firstName + " " + lastName).toLowerCase();
-      String fullNameDb = (masterRecord.getFirstName() + " " + masterRecord.getLastName()).toLowerCase();
-
-      // 3. VERIFY: Use Fuzzy Matching to confirm identity
-      if (isSimilar(fullNameCsv, fullNameDb)) {
-        resolvedCustomerId = masterRecord.getCustomerId();
-        log.info("[Matching] Identity Stitched! Found match for {} -> {}", fullNameCsv, resolvedCustomerId);
-      } else {
-        log.warn("[Matching] Name mismatch: '{}' vs '{}' (distance > {})", 
-            fullNameCsv, fullNameDb, SIMILARITY_THRESHOLD);
+    switch (result.classification()) {
+      case STRONG_MATCH -> {
+        resolvedCustomerId = result.customer().customerId();
+        log.info("[Matching] Identity Stitched! Found match for policy {} -> {} (score {})",
+            policyNum, resolvedCustomerId, result.score());
+      }
+      case WEAK_MATCH -> {
+        log.warn("[Matching] Weak match for policy {} -> {} (score {}). Routing to manual review.",
+            policyNum, result.customer().customerId(), result.score());
+      }
+      case NON_MATCH -> {
+        if (result.customer() == null) {
+          log.warn("[Matching] No candidate customer for policy {}", policyNum);
+        } else {
+          log.warn("[Matching] No match found for policy {} (best score {})", policyNum, result.score());
+        }
       }
-    } else {
-      log.warn("[Matching] No customer found with mobile: {}", mobile);
     }
+    standardRecord.setCustomerId(resolvedCustomerId);
+  }
 
-    // 4. CREATE: If matched, stitch the policy to the Customer ID
-    if (resolvedCustomerId != null) {
-      PolicyDTO policyDto = new PolicyDTO();
-      policyDto.setPolicyNumber(policyNum);
-      policyDto.setCustomerId(resolvedCustomerId); // The "Stitch" happens here
-      policyDto.setInsurerId(insurerId);
-      policyDto.setPolicyType(policyType);
-      policyDto.setPremiumAmount((BigDecimal) standardRecord.get("premiumAmount"));
-      policyDto.setSumAssured((BigDecimal) standardRecord.get("sumAssured"));
-      policyDto.setStatus("ACTIVE");
-
-      try {
-        policyClient.createPolicy(policyDto);
-        log.info("[Matching] Policy {} successfully stitched to Customer {}", policyNum, resolvedCustomerId);
-      } catch (Exception e) {
-        log.error("[Matching] Failed to create policy {}", policyNum, e);
-        throw new RuntimeException("Policy creation failed", e);
+  /**
+   * Fresh match cache for one processing job, bounded by pipeline.matching.job-cache-size.
+   */
+  public MatchCache newJobCache() {
+    return new MatchCache(jobCacheSize);
+  }
+
+  /**
+   * Bulk lookup in Customer Service for records the index had no candidate for.
+   * Sends each mobile both as supplied and normalized, since insurers format
+   * them differently from how customers registered them.
+   */
+  private Map<Long, Identity> lookupMissesByMobile(List<PolicyRecord> records, List<BlockingKeys> keys,
+      List<List<Identity>> candidates) {
+    Set<String> mobiles = new LinkedHashSet<>();
+    for (int i = 0; i < records.size(); i++) {
+      String mobile = records.get(i).getMobileNumber();
+      if (candidates.get(i).isEmpty() && keys.get(i).mobile() != 0) {
+        mobiles.add(mobile.trim());
+        mobiles.add(String.valueOf(keys.get(i).mobile()));
       }
-    } else {
-      log.warn("[Matching] No match found for policy {}. Routing to manual review.", policyNum);
-      // TODO: Send to manual review queue
+    }
+
+    Map<Long, Identity> customersByMobile = new HashMap<>(mobiles.size());
+    List<String> batch = new ArrayList<>(Math.min(lookupBatchSize, mobiles.size()));
+    for (String mobile : mobiles) {
+      batch.add(mobile);
+      if (batch.size() >= lookupBatchSize) {
+        lookupBatch(batch, customersByMobile);
+        batch = new ArrayList<>(lookupBatchSize);
+      }
+    }
+    if (!batch.isEmpty()) {
+      lookupBatch(batch, customersByMobile);
+    }
+    if (!mobiles.isEmpty()) {
+      log.debug("[Matching] Resolved {} customers remotely for {} index misses", customersByMobile.size(),
+          mobiles.size());
+    }
+    return customersByMobile;
+  }
+
+  private void lookupBatch(List<String> mobiles, Map<Long, Identity> customersByMobile) {
+    List<CustomerDTO> customers = remoteCallLimiter.customerService(
+        () -> customerClient.searchByMobiles(new CustomerBatchLookupRequest(mobiles)));
+    if (customers != null && !customers.isEmpty()) {
+      for (CustomerDTO customer : customers) {
+        Identity identity = Identity.of(customer);
+        customersByMobile.put(identity.keys().mobile(), identity);
+      }
+      // Not yet picked up by the index refresh; remember them now
+      identityIndex.putAll(customers);
     }
   }
 
   /**
-   * Calculate similarity between two strings using Levenshtein distance.
-   * 
-   * @return true if edit distance <= SIMILARITY_THRESHOLD (default 3)
+   * CREATE: stitch the policy to the record's resolved Customer ID in Policy Service.
+   */
+  public void createStitchedPolicy(PolicyRecord standardRecord) {
+    String policyNum = standardRecord.getPolicyNumber();
+    String resolvedCustomerId = standardRecord.getCustomerId();
+
+    try {
+      remoteCallLimiter.policyService(() -> policyClient.createPolicy(toPolicyDto(standardRecord)));
+      log.info("[Matching] Policy {} successfully stitched to Customer {}", policyNum, resolvedCustomerId);
+    } catch (Exception e) {
+      log.error("[Matching] Failed to create policy {}", policyNum, e);
+      throw new RuntimeException("Policy creation failed", e);
+    }
+  }
+
+  /**
+   * UPSERT in bulk: one Policy Service call for a whole chunk of stitched records,
+   * keyed by (policyNumber, insurerId) so re-processing a file is idempotent.
+   * Used by the persist stage of the processing pipeline and the review re-match job.
+   *
+   * Each record with a sourceJobAt is sent with its source (job creation time,
+   * row number), so it never overwrites a policy written from a newer row in
+   * file or job order. Records without one are written regardless of order.
+   *
+   * @return per-item outcomes; failed items are also logged here
+   */
+  public PolicyUpsertResponse upsertStitchedPolicies(List<PolicyRecord> records) {
+    List<PolicyDTO> policies = new ArrayList<>(records.size());
+    for (PolicyRecord record : records) {
+      PolicyDTO policy = toPolicyDto(record);
+      if (record.getSourceJobAt() != null) {
+        policy.setSourceJobAt(record.getSourceJobAt());
+        policy.setSourceRow(record.getRowNumber());
+      }
+      policies.add(policy);
+    }
+
+    PolicyUpsertResponse response;
+    try {
+      response = remoteCallLimiter.policyService(() -> policyClient.upsertPolicies(policies));
+    } catch (Exception e) {
+      log.error("[Matching] Failed to upsert batch of {} policies", records.size(), e);
+      throw new RuntimeException("Policy creation failed", e);
+    }
+
+    if (response.getResults() != null) {
+      for (PolicyBatchItemResult result : response.getResults()) {
+        if ("FAILED".equals(result.getOutcome())) {
+          log.error("[Matching] Failed to upsert policy {}: {}", result.getPolicyNumber(), result.getError());
+        }
+      }
+    }
+    int stitched = response.getCreated() + response.getUpdated() + response.getUnchanged();
+    log.info("[Matching] {} of {} policies stitched in batch (created={}, updated={}, unchanged={})",
+        stitched, records.size(), response.getCreated(), response.getUpdated(), response.getUnchanged());
+    return response;
+  }
+
+  private PolicyDTO toPolicyDto(PolicyRecord standardRecord) {
+    PolicyDTO policyDto = new PolicyDTO();
+    policyDto.setPolicyNumber(standardRecord.getPolicyNumber());
+    policyDto.setCustomerId(standardRecord.getCustomerId()); // The "Stitch" happens here
+    policyDto.setInsurerId(standardRecord.getInsurerId());
+    policyDto.setPolicyType(standardRecord.getPolicyType());
+    policyDto.setPlanName(standardRecord.getPlanName());
+    policyDto.setPremiumAmount(standardRecord.getPremiumAmount());
+    policyDto.setSumAssured(standardRecord.getSumAssured());
+    policyDto.setStartDate(standardRecord.getStartDate());
+    policyDto.setEndDate(standardRecord.getEndDate());
+    policyDto.setStatus("ACTIVE");
+    return policyDto;
+  }
+
+  /**
+   * True if the two names are within pipeline.matching.fuzzy-threshold edits, ignoring case.
    */
   public boolean isSimilar(String str1, String str2) {
-    if (str1 == null || str2 == null)
-      return false;
-    
-    int distance = levenshteinDistance.apply(str1.toLowerCase(), str2.toLowerCase());
-    log.debug("[Matching] Fuzzy match: '{}' vs '{}' -> distance={}", str1, str2, distance);
-    
-    return distance <= SIMILARITY_THRESHOLD;
+    return matchScorer.isSimilar(str1, str2);
   }
 }
@@ -0,0 +1,133 @@
+package com.mypolicy.pipeline.matching.service;
+
+import com.mypolicy.pipeline.matching.index.NameKeys;
+import org.apache.commons.text.similarity.JaroWinklerSimilarity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canonical forms of person names for matching, cached by raw name.
+ *
+ * A file repeats the same customer name across many policies and the index
+ * returns the same candidates over and over, so each distinct raw name is
+ * normalized once and kept in a bounded LRU (name-cache-size entries).
+ */
+@Component
+public class NameNormalizer {
+
+  private static final double TOKEN_SORT_MIN_SIMILARITY = 0.93;
+
+  /**
+   * Normalized name: tokens without honorifics, sorted, each with its phonetic skeleton.
+   */
+  public record NormalizedName(String sorted, String[] tokens, String[] skeletons, String phoneticKey) {
+
+    public boolean isEmpty() {
+      return tokens.length == 0;
+    }
+  }
+
+  private final JaroWinklerSimilarity jaroWinkler = new JaroWinklerSimilarity();
+  private final Map<String, NormalizedName> cache;
+
+  public NameNormalizer(@Value("${pipeline.matching.name-cache-size:10000}") int cacheSize) {
+    int maxEntries = Math.max(1, cacheSize);
+    this.cache = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, NormalizedName> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  public NormalizedName normalize(String rawName) {
+    String key = rawName != null ? rawName : "";
+    synchronized (cache) {
+      NormalizedName cached = cache.get(key);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    NormalizedName normalized = compute(key);
+    synchronized (cache) {
+      cache.put(key, normalized);
+    }
+    return normalized;
+  }
+
+  /**
+   * Same tokens in any order: "Kulkarni Amit" equals "Amit Kulkarni".
+   */
+  public boolean sameTokens(NormalizedName a, NormalizedName b) {
+    return !a.isEmpty() && a.sorted().equals(b.sorted());
+  }
+
+  /**
+   * Every token of the shorter name (at least two) appears in the longer one,
+   * spelled alike, as a phonetic variant, or as an initial. Covers missing
+   * middle names ("Amit Kulkarni" / "Amit Ramesh Kulkarni") and "A Kulkarni"-style initials.
+   */
+  public boolean tokenSubset(NormalizedName a, NormalizedName b) {
+    NormalizedName shorter = a.tokens().length <= b.tokens().length ? a : b;
+    NormalizedName longer = shorter == a ? b : a;
+    if (shorter.tokens().length < 2) {
+      return false;
+    }
+    boolean[] used = new boolean[longer.tokens().length];
+    int fullTokens = 0;
+    for (int i = 0; i < shorter.tokens().length; i++) {
+      String token = shorter.tokens()[i];
+      int match = -1;
+      for (int j = 0; j < longer.tokens().length && match < 0; j++) {
+        if (!used[j] && tokenMatches(token, shorter.skeletons()[i], longer.tokens()[j], longer.skeletons()[j])) {
+          match = j;
+        }
+      }
+      if (match < 0) {
+        return false;
+      }
+      used[match] = true;
+      if (token.length() > 1 && longer.tokens()[match].length() > 1) {
+        fullTokens++;
+      }
+    }
+    // An initial may stand in for a token, but not for all of them
+    return fullTokens > 0;
+  }
+
+  /**
+   * Jaro-Winkler similarity of the token-sorted forms is high enough to count as the same name.
+   */
+  public boolean similarTokenSort(NormalizedName a, NormalizedName b) {
+    if (a.isEmpty() || b.isEmpty()) {
+      return false;
+    }
+    return jaroWinkler.apply(a.sorted(), b.sorted()) >= TOKEN_SORT_MIN_SIMILARITY;
+  }
+
+  private static boolean tokenMatches(String token, String skeleton, String other, String otherSkeleton) {
+    if (token.equals(other)) {
+      return true;
+    }
+    if (token.length() == 1 || other.length() == 1) {
+      return token.charAt(0) == other.charAt(0);
+    }
+    return !skeleton.isEmpty() && skeleton.equals(otherSkeleton);
+  }
+
+  private static NormalizedName compute(String rawName) {
+    List<String> tokenList = NameKeys.tokens(rawName);
+    String[] tokens = tokenList.toArray(new String[0]);
+    Arrays.sort(tokens);
+    String[] skeletons = new String[tokens.length];
+    for (int i = 0; i < tokens.length; i++) {
+      skeletons[i] = NameKeys.skeleton(tokens[i]);
+    }
+    return new NormalizedName(String.join(" ", tokens), tokens, skeletons, NameKeys.phonetic(rawName));
+  }
+}
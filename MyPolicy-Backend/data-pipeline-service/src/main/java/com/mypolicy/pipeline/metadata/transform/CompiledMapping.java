@@ -0,0 +1,31 @@
+package com.mypolicy.pipeline.metadata.transform;
+
+import com.mypolicy.pipeline.metadata.model.FieldMapping;
+
+/**
+ * A field mapping together with its resolved data type and compiled converter.
+ */
+public final class CompiledMapping {
+
+  private final FieldMapping mapping;
+  private final DataType dataType;
+  private final FieldConverter converter;
+
+  CompiledMapping(FieldMapping mapping, DataType dataType, FieldConverter converter) {
+    this.mapping = mapping;
+    this.dataType = dataType;
+    this.converter = converter;
+  }
+
+  public FieldMapping getMapping() {
+    return mapping;
+  }
+
+  public DataType getDataType() {
+    return dataType;
+  }
+
+  public FieldConverter getConverter() {
+    return converter;
+  }
+}
@@ -0,0 +1,115 @@
+package com.mypolicy.pipeline.metadata.transform;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Typed parsers used by compiled converters. They work on the raw text
+ * directly (no Double round-trip, no intermediate formatter for the
+ * common date layouts).
+ */
+final class Converters {
+
+  private Converters() {
+  }
+
+  /**
+   * Exact decimal parse; thousands separators and surrounding blanks are ignored.
+   */
+  static BigDecimal parseDecimal(String value) {
+    int length = value.length();
+    char[] digits = null;
+    int n = 0;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c == ',' || c == ' ') {
+        if (digits == null) {
+          digits = new char[length];
+          value.getChars(0, i, digits, 0);
+          n = i;
+        }
+      } else if (digits != null) {
+        digits[n++] = c;
+      }
+    }
+    try {
+      return digits == null ? new BigDecimal(value) : new BigDecimal(digits, 0, n);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("not a decimal: " + value);
+    }
+  }
+
+  static Long parseInteger(String value) {
+    BigDecimal decimal = parseDecimal(value);
+    try {
+      return decimal.longValueExact();
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException("not an integer: " + value);
+    }
+  }
+
+  static Boolean parseBoolean(String value) {
+    switch (value.toUpperCase()) {
+      case "TRUE":
+      case "Y":
+      case "YES":
+      case "1":
+        return Boolean.TRUE;
+      case "FALSE":
+      case "N":
+      case "NO":
+      case "0":
+        return Boolean.FALSE;
+      default:
+        throw new IllegalArgumentException("not a boolean: " + value);
+    }
+  }
+
+  /**
+   * yyyyMMdd (as in our insurer CSVs) and yyyy-MM-dd are decoded by hand;
+   * anything else falls back to ISO parsing.
+   */
+  static LocalDate parseDate(String value) {
+    try {
+      if (value.length() == 8 && allDigits(value, 0, 8)) {
+        return LocalDate.of(digits(value, 0, 4), digits(value, 4, 6), digits(value, 6, 8));
+      }
+      if (value.length() == 10 && value.charAt(4) == '-' && value.charAt(7) == '-'
+          && allDigits(value, 0, 4) && allDigits(value, 5, 7) && allDigits(value, 8, 10)) {
+        return LocalDate.of(digits(value, 0, 4), digits(value, 5, 7), digits(value, 8, 10));
+      }
+      return LocalDate.parse(value);
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("not a date: " + value);
+    }
+  }
+
+  static LocalDate parseDate(String value, DateTimeFormatter formatter) {
+    try {
+      return LocalDate.parse(value, formatter);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("not a date: " + value);
+    }
+  }
+
+  private static boolean allDigits(String value, int from, int to) {
+    for (int i = from; i < to; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int digits(String value, int from, int to) {
+    int result = 0;
+    for (int i = from; i < to; i++) {
+      result = result * 10 + (value.charAt(i) - '0');
+    }
+    return result;
+  }
+}
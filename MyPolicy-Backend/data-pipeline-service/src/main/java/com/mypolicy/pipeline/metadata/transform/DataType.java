@@ -0,0 +1,82 @@
+package com.mypolicy.pipeline.metadata.transform;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Values accepted in FieldMapping.dataType. DATE may carry an explicit
+ * pattern, e.g. "DATE:dd/MM/yyyy"; without one, yyyyMMdd and ISO dates are accepted.
+ */
+public enum DataType {
+  STRING(String.class),
+  DECIMAL(BigDecimal.class),
+  INTEGER(Long.class),
+  DATE(LocalDate.class),
+  BOOLEAN(Boolean.class);
+
+  private final Class<?> javaType;
+
+  DataType(Class<?> javaType) {
+    this.javaType = javaType;
+  }
+
+  public Class<?> getJavaType() {
+    return javaType;
+  }
+
+  /**
+   * Data type named in a mapping; blank means STRING.
+   */
+  public static DataType parse(String dataType) {
+    if (dataType == null || dataType.isBlank()) {
+      return STRING;
+    }
+    String key = dataType.trim().toUpperCase(Locale.ROOT);
+    int colon = key.indexOf(':');
+    if (colon >= 0) {
+      key = key.substring(0, colon).trim();
+    }
+    switch (key) {
+      case "TEXT":
+        return STRING;
+      case "NUMBER":
+      case "NUMERIC":
+      case "AMOUNT":
+        return DECIMAL;
+      case "INT":
+      case "LONG":
+        return INTEGER;
+      case "LOCALDATE":
+        return DATE;
+      case "BOOL":
+        return BOOLEAN;
+      default:
+        try {
+          return valueOf(key);
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException("Unknown data type: " + dataType);
+        }
+    }
+  }
+
+  /**
+   * Pattern after "DATE:", or null.
+   */
+  static String patternOf(String dataType) {
+    if (dataType == null) {
+      return null;
+    }
+    int colon = dataType.indexOf(':');
+    return colon >= 0 ? dataType.substring(colon + 1).trim() : null;
+  }
+
+  public static DataType forJavaType(Class<?> type) {
+    for (DataType candidate : values()) {
+      if (candidate.javaType == type) {
+        return candidate;
+      }
+    }
+    return STRING;
+  }
+}
@@ -0,0 +1,16 @@
+package com.mypolicy.pipeline.metadata.transform;
+
+/**
+ * Compiled conversion of one raw cell value to its mapped Java value.
+ * Built once per configuration version by {@link TransformEngine}.
+ */
+@FunctionalInterface
+public interface FieldConverter {
+
+  /**
+   * @param raw cell text as read from the file, never null
+   * @return converted value, or null if the cell is blank
+   * @throws IllegalArgumentException if the value cannot be converted
+   */
+  Object convert(String raw);
+}
@@ -0,0 +1,158 @@
+package com.mypolicy.pipeline.metadata.transform;
+
+import com.mypolicy.pipeline.metadata.model.FieldMapping;
+import com.mypolicy.pipeline.metadata.model.InsurerConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Transform Engine - turns FieldMapping.dataType and FieldMapping.transformFunction
+ * into compiled converters.
+ * Part of Metadata Module in consolidated Data Pipeline Service
+ *
+ * Compilation happens once per configuration version (configId + updatedAt) and
+ * policy type; a saved configuration gets a new updatedAt and is recompiled on
+ * next use, replacing the previous entry.
+ */
+@Slf4j
+@Service
+public class TransformEngine {
+
+  private final Map<String, Entry> compiled = new ConcurrentHashMap<>();
+
+  /**
+   * Compiled mappings for one policy type of a configuration.
+   */
+  public List<CompiledMapping> getCompiledMappings(InsurerConfiguration config, String policyType) {
+    String key = config.getInsurerId() + "|" + policyType;
+    String version = config.getConfigId() + "@" + config.getUpdatedAt();
+
+    Entry entry = compiled.get(key);
+    if (entry == null || !entry.version.equals(version)) {
+      List<FieldMapping> mappings = config.getFieldMappings() != null
+          ? config.getFieldMappings().get(policyType)
+          : null;
+      if (mappings == null) {
+        throw new RuntimeException("No mappings found for " + config.getInsurerId() + " - " + policyType);
+      }
+      entry = new Entry(version, compileAll(mappings));
+      compiled.put(key, entry);
+      log.info("Compiled {} field mappings for insurer: {}, policyType: {}, version: {}",
+          entry.mappings.size(), config.getInsurerId(), policyType, version);
+    }
+    return entry.mappings;
+  }
+
+  /**
+   * Compile one mapping using its configured dataType.
+   *
+   * @throws IllegalArgumentException if the dataType, pattern or transformFunction is invalid
+   */
+  public CompiledMapping compile(FieldMapping mapping) {
+    return compile(mapping, DataType.parse(mapping.getDataType()));
+  }
+
+  /**
+   * Compile one mapping, coercing to the given data type regardless of configuration.
+   */
+  public CompiledMapping compile(FieldMapping mapping, DataType dataType) {
+    TransformFunction[] functions = parseFunctions(mapping.getTransformFunction());
+    String pattern = dataType == DataType.parse(mapping.getDataType())
+        ? DataType.patternOf(mapping.getDataType())
+        : null;
+    FieldConverter typed = typedConverter(dataType, pattern, mapping.getSourceField());
+    return new CompiledMapping(mapping, dataType, chain(functions, typed, dataType));
+  }
+
+  private List<CompiledMapping> compileAll(List<FieldMapping> mappings) {
+    List<CompiledMapping> result = new ArrayList<>(mappings.size());
+    for (FieldMapping mapping : mappings) {
+      result.add(compile(mapping));
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  private static TransformFunction[] parseFunctions(String transformFunction) {
+    if (transformFunction == null || transformFunction.isBlank()) {
+      return new TransformFunction[0];
+    }
+    String[] names = transformFunction.split("[|,]");
+    List<TransformFunction> functions = new ArrayList<>(names.length);
+    for (String name : names) {
+      if (!name.isBlank()) {
+        functions.add(TransformFunction.parse(name));
+      }
+    }
+    return functions.toArray(new TransformFunction[0]);
+  }
+
+  private static FieldConverter typedConverter(DataType dataType, String pattern, String sourceField) {
+    switch (dataType) {
+      case DECIMAL:
+        return Converters::parseDecimal;
+      case INTEGER:
+        return Converters::parseInteger;
+      case BOOLEAN:
+        return Converters::parseBoolean;
+      case DATE:
+        if (pattern == null || pattern.isEmpty()) {
+          return Converters::parseDate;
+        }
+        DateTimeFormatter formatter;
+        try {
+          formatter = DateTimeFormatter.ofPattern(pattern);
+        } catch (IllegalArgumentException e) {
+          throw new IllegalArgumentException("Invalid date pattern for " + sourceField + ": " + pattern);
+        }
+        return value -> Converters.parseDate(value, formatter);
+      default:
+        return value -> value;
+    }
+  }
+
+  /**
+   * String transforms first, then blank check (non-string types only), then typed parse.
+   * Non-string values are always trimmed before parsing.
+   */
+  private static FieldConverter chain(TransformFunction[] functions, FieldConverter typed, DataType dataType) {
+    if (dataType == DataType.STRING) {
+      if (functions.length == 0) {
+        return typed;
+      }
+      if (functions.length == 1) {
+        TransformFunction only = functions[0];
+        return only::apply;
+      }
+      return value -> {
+        for (TransformFunction function : functions) {
+          value = function.apply(value);
+        }
+        return value;
+      };
+    }
+    return value -> {
+      for (TransformFunction function : functions) {
+        value = function.apply(value);
+      }
+      value = value.trim();
+      return value.isEmpty() ? null : typed.convert(value);
+    };
+  }
+
+  private static final class Entry {
+    private final String version;
+    private final List<CompiledMapping> mappings;
+
+    private Entry(String version, List<CompiledMapping> mappings) {
+      this.version = version;
+      this.mappings = mappings;
+    }
+  }
+}
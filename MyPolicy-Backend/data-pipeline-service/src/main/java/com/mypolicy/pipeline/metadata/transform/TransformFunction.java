@@ -0,0 +1,121 @@
+package com.mypolicy.pipeline.metadata.transform;
+
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+/**
+ * String-level transforms that can be named in FieldMapping.transformFunction.
+ * Several can be chained with '|' or ',' (e.g. "TRIM|UPPER") and run left to right.
+ */
+public enum TransformFunction {
+  TRIM(String::trim),
+  UPPER(s -> s.toUpperCase(Locale.ROOT)),
+  LOWER(s -> s.toLowerCase(Locale.ROOT)),
+  COLLAPSE_SPACES(TransformFunction::collapseSpaces),
+  MOBILE(TransformFunction::normalizeMobile);
+
+  private final UnaryOperator<String> operator;
+
+  TransformFunction(UnaryOperator<String> operator) {
+    this.operator = operator;
+  }
+
+  public String apply(String value) {
+    return operator.apply(value);
+  }
+
+  public static TransformFunction parse(String name) {
+    String key = name.trim().toUpperCase(Locale.ROOT);
+    if (key.equals("UPPERCASE")) {
+      return UPPER;
+    }
+    if (key.equals("LOWERCASE")) {
+      return LOWER;
+    }
+    if (key.equals("NORMALIZE_MOBILE")) {
+      return MOBILE;
+    }
+    try {
+      return valueOf(key);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown transform function: " + name);
+    }
+  }
+
+  /**
+   * Indian mobile numbers to their 10-digit form: drops separators, a leading
+   * +91/91 country code and a leading trunk 0. Values that are already clean
+   * are returned as-is without allocating.
+   */
+  static String normalizeMobile(String value) {
+    int digits = 0;
+    boolean clean = true;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= '0' && c <= '9') {
+        digits++;
+      } else {
+        clean = false;
+      }
+    }
+    if (clean && digits == 10) {
+      return value;
+    }
+    if (digits == 0) {
+      return "";
+    }
+    char[] out = new char[digits];
+    int n = 0;
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c >= '0' && c <= '9') {
+        out[n++] = c;
+      }
+    }
+    int from = 0;
+    if (n == 12 && out[0] == '9' && out[1] == '1') {
+      from = 2;
+    } else if (n == 11 && out[0] == '0') {
+      from = 1;
+    }
+    return new String(out, from, n - from);
+  }
+
+  private static String collapseSpaces(String value) {
+    StringBuilder sb = null;
+    boolean space = false;
+    int start = 0;
+    int end = value.length();
+    while (start < end && Character.isWhitespace(value.charAt(start))) {
+      start++;
+    }
+    while (end > start && Character.isWhitespace(value.charAt(end - 1))) {
+      end--;
+    }
+    for (int i = start; i < end; i++) {
+      char c = value.charAt(i);
+      if (Character.isWhitespace(c)) {
+        if (space || c != ' ') {
+          if (sb == null) {
+            sb = new StringBuilder(end - start).append(value, start, i);
+          }
+          if (!space) {
+            sb.append(' ');
+          }
+          space = true;
+          continue;
+        }
+        space = true;
+      } else {
+        space = false;
+      }
+      if (sb != null) {
+        sb.append(c);
+      }
+    }
+    if (sb != null) {
+      return sb.toString();
+    }
+    return start == 0 && end == value.length() ? value : value.substring(start, end);
+  }
+}
@@ -1,14 +1,22 @@
 package com.mypolicy.pipeline.processing.controller;
 
-import com.mypolicy.pipeline.processing.service.ProcessingService;
+import com.mypolicy.pipeline.matching.client.RemoteCallLimiter;
+import com.mypolicy.pipeline.matching.dto.RemoteCallStats;
+import com.mypolicy.pipeline.processing.dto.StageStats;
+import com.mypolicy.pipeline.processing.dto.TriggerResponse;
+import com.mypolicy.pipeline.processing.pipeline.PipelineMetrics;
+import com.mypolicy.pipeline.processing.service.JobLeaseManager;
 import com.mypolicy.pipeline.ingestion.service.IngestionService;
-import com.mypolicy.pipeline.ingestion.model.IngestionJob;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * Processing API: trigger file processing.
  * 
@@ -21,27 +29,59 @@ import org.springframework.web.bind.annotation.*;
 public class ProcessingController {
 
   private static final Logger log = LoggerFactory.getLogger(ProcessingController.class);
-  private final ProcessingService processingService;
+  private static final int RETRY_AFTER_SECONDS = 30;
   private final IngestionService ingestionService;
+  private final JobLeaseManager leaseManager;
+  private final PipelineMetrics pipelineMetrics;
+  private final RemoteCallLimiter remoteCallLimiter;
 
   /**
    * POST /api/v1/processing/trigger
-   * Triggers processing for an uploaded file.
+   * Marks an uploaded file for processing and returns 202 immediately; the job
+   * is claimed by whichever data-pipeline node has a free worker first.
+   * Progress is tracked through GET /api/v1/ingestion/status/{jobId}.
+   * Returns 503 with Retry-After when the processing queue is full.
    * TODO: Replace with Kafka Consumer in production.
    */
   @PostMapping("/trigger")
-  public ResponseEntity<String> triggerProcessing(
+  public ResponseEntity<TriggerResponse> triggerProcessing(
       @RequestParam String jobId,
       @RequestParam String policyType) {
 
     log.info("[Processing API] POST /trigger - jobId={}, policyType={}", jobId, policyType);
 
-    // Fetch job details from Ingestion
-    IngestionJob job = ingestionService.getJob(jobId);
+    if (leaseManager.isQueueFull()) {
+      log.warn("[Processing API] Processing queue full, rejecting jobId={}", jobId);
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS))
+          .body(TriggerResponse.rejected(jobId, RETRY_AFTER_SECONDS));
+    }
+
+    // UPLOADED -> requested; 409 if already requested or past UPLOADED
+    ingestionService.requestProcessing(jobId, policyType);
+    leaseManager.claimSoon();
+
+    return ResponseEntity.accepted().body(TriggerResponse.queued(jobId));
+  }
+
+  /**
+   * GET /api/v1/processing/pipeline/stats
+   * Per-stage throughput, queue depth and backpressure for tuning
+   * pipeline.processing.* chunk and pool sizes.
+   */
+  @GetMapping("/pipeline/stats")
+  public ResponseEntity<List<StageStats>> pipelineStats() {
+    return ResponseEntity.ok(pipelineMetrics.snapshot());
+  }
 
-    processingService.processFile(jobId, job.getFilePath(), job.getInsurerId(), policyType);
-    
-    return ResponseEntity.ok("Processing started for jobId: " + jobId);
+  /**
+   * GET /api/v1/processing/pipeline/remote-calls
+   * Adaptive concurrency limit, in-flight and waiting calls per downstream
+   * service, for tuning pipeline.matching.remote.*.
+   */
+  @GetMapping("/pipeline/remote-calls")
+  public ResponseEntity<List<RemoteCallStats>> remoteCallStats() {
+    return ResponseEntity.ok(remoteCallLimiter.snapshot());
   }
 
   /**
@@ -0,0 +1,55 @@
+package com.mypolicy.pipeline.processing.dto;
+
+/**
+ * Point-in-time throughput and queue figures for one processing stage.
+ * busyMillis is time spent doing work, blockedMillis time spent waiting on a
+ * full downstream queue (backpressure).
+ */
+public class StageStats {
+  private String stage;
+  private long recordsIn;
+  private long recordsOut;
+  private long chunks;
+  private int queueDepth;
+  private int activeWorkers;
+  private long busyMillis;
+  private long blockedMillis;
+  private double recordsPerBusySecond;
+
+  public StageStats() {
+  }
+
+  public StageStats(String stage, long recordsIn, long recordsOut, long chunks, int queueDepth,
+      int activeWorkers, long busyMillis, long blockedMillis, double recordsPerBusySecond) {
+    this.stage = stage;
+    this.recordsIn = recordsIn;
+    this.recordsOut = recordsOut;
+    this.chunks = chunks;
+    this.queueDepth = queueDepth;
+    this.activeWorkers = activeWorkers;
+    this.busyMillis = busyMillis;
+    this.blockedMillis = blockedMillis;
+    this.recordsPerBusySecond = recordsPerBusySecond;
+  }
+
+  public String getStage() { return stage; }
+  public void setStage(String stage) { this.stage = stage; }
+  public long getRecordsIn() { return recordsIn; }
+  public void setRecordsIn(long recordsIn) { this.recordsIn = recordsIn; }
+  public long getRecordsOut() { return recordsOut; }
+  public void setRecordsOut(long recordsOut) { this.recordsOut = recordsOut; }
+  public long getChunks() { return chunks; }
+  public void setChunks(long chunks) { this.chunks = chunks; }
+  public int getQueueDepth() { return queueDepth; }
+  public void setQueueDepth(int queueDepth) { this.queueDepth = queueDepth; }
+  public int getActiveWorkers() { return activeWorkers; }
+  public void setActiveWorkers(int activeWorkers) { this.activeWorkers = activeWorkers; }
+  public long getBusyMillis() { return busyMillis; }
+  public void setBusyMillis(long busyMillis) { this.busyMillis = busyMillis; }
+  public long getBlockedMillis() { return blockedMillis; }
+  public void setBlockedMillis(long blockedMillis) { this.blockedMillis = blockedMillis; }
+  public double getRecordsPerBusySecond() { return recordsPerBusySecond; }
+  public void setRecordsPerBusySecond(double recordsPerBusySecond) {
+    this.recordsPerBusySecond = recordsPerBusySecond;
+  }
+}
@@ -0,0 +1,39 @@
+package com.mypolicy.pipeline.processing.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of POST /api/v1/processing/trigger. status is QUEUED when the job
+ * waits to be claimed by a processing node, REJECTED when the processing queue
+ * was full; retryAfterSeconds is only set on rejection.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TriggerResponse {
+  private String jobId;
+  private String status;
+  private Integer retryAfterSeconds;
+
+  public TriggerResponse() {
+  }
+
+  public TriggerResponse(String jobId, String status, Integer retryAfterSeconds) {
+    this.jobId = jobId;
+    this.status = status;
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public static TriggerResponse queued(String jobId) {
+    return new TriggerResponse(jobId, "QUEUED", null);
+  }
+
+  public static TriggerResponse rejected(String jobId, int retryAfterSeconds) {
+    return new TriggerResponse(jobId, "REJECTED", retryAfterSeconds);
+  }
+
+  public String getJobId() { return jobId; }
+  public void setJobId(String jobId) { this.jobId = jobId; }
+  public String getStatus() { return status; }
+  public void setStatus(String status) { this.status = status; }
+  public Integer getRetryAfterSeconds() { return retryAfterSeconds; }
+  public void setRetryAfterSeconds(Integer retryAfterSeconds) { this.retryAfterSeconds = retryAfterSeconds; }
+}
@@ -0,0 +1,73 @@
+package com.mypolicy.pipeline.processing.mapping;
+
+import com.mypolicy.pipeline.processing.model.PolicyRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Target fields of the standard policy schema, each with its Java type and a
+ * direct setter on {@link PolicyRecord}. Resolved once per job when a
+ * mapping plan is compiled, never per row.
+ */
+public enum StandardField {
+  POLICY_NUMBER("policyNumber", String.class, (r, v) -> r.setPolicyNumber((String) v)),
+  FIRST_NAME("firstName", String.class, (r, v) -> r.setFirstName((String) v)),
+  LAST_NAME("lastName", String.class, (r, v) -> r.setLastName((String) v)),
+  CUSTOMER_NAME("customerName", String.class, (r, v) -> r.setCustomerName((String) v), "fullName"),
+  MOBILE_NUMBER("mobileNumber", String.class, (r, v) -> r.setMobileNumber((String) v), "mobile"),
+  EMAIL("email", String.class, (r, v) -> r.setEmail((String) v)),
+  PAN_NUMBER("panNumber", String.class, (r, v) -> r.setPanNumber((String) v), "pan"),
+  DATE_OF_BIRTH("dateOfBirth", LocalDate.class, (r, v) -> r.setDateOfBirth((LocalDate) v), "dob"),
+  PLAN_NAME("planName", String.class, (r, v) -> r.setPlanName((String) v)),
+  PREMIUM_AMOUNT("premiumAmount", BigDecimal.class, (r, v) -> r.setPremiumAmount((BigDecimal) v)),
+  SUM_ASSURED("sumAssured", BigDecimal.class, (r, v) -> r.setSumAssured((BigDecimal) v)),
+  START_DATE("startDate", LocalDate.class, (r, v) -> r.setStartDate((LocalDate) v)),
+  END_DATE("endDate", LocalDate.class, (r, v) -> r.setEndDate((LocalDate) v));
+
+  private static final Map<String, StandardField> BY_NAME = new HashMap<>();
+
+  static {
+    for (StandardField field : values()) {
+      BY_NAME.put(field.targetField.toLowerCase(), field);
+      for (String alias : field.aliases) {
+        BY_NAME.put(alias.toLowerCase(), field);
+      }
+    }
+  }
+
+  private final String targetField;
+  private final Class<?> type;
+  private final BiConsumer<PolicyRecord, Object> setter;
+  private final String[] aliases;
+
+  StandardField(String targetField, Class<?> type, BiConsumer<PolicyRecord, Object> setter,
+      String... aliases) {
+    this.targetField = targetField;
+    this.type = type;
+    this.setter = setter;
+    this.aliases = aliases;
+  }
+
+  public String getTargetField() {
+    return targetField;
+  }
+
+  public Class<?> getType() {
+    return type;
+  }
+
+  void set(PolicyRecord record, Object value) {
+    setter.accept(record, value);
+  }
+
+  /**
+   * Standard field for a configured targetField, or null for non-standard targets.
+   */
+  public static StandardField forTarget(String targetField) {
+    return targetField == null ? null : BY_NAME.get(targetField.trim().toLowerCase());
+  }
+}
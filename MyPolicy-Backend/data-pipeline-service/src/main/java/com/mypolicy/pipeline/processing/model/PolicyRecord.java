@@ -0,0 +1,72 @@
+package com.mypolicy.pipeline.processing.model;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Standardized policy row in our canonical schema, filled by a compiled
+ * {@link com.mypolicy.pipeline.processing.mapping.ColumnMappingPlan}.
+ *
+ * Replaces the per-row HashMap: known target fields are plain typed fields,
+ * and any other mapped columns sit in a small array indexed by the plan.
+ */
+@Data
+public class PolicyRecord {
+  private long rowNumber;
+  // Creation time of the job the row came from; with rowNumber it orders rows of the same policy
+  private LocalDateTime sourceJobAt;
+  private String insurerId;
+  private String policyType;
+
+  private String policyNumber;
+  private String firstName;
+  private String lastName;
+  private String customerName;
+  private String mobileNumber;
+  private String email;
+  private String panNumber;
+  private LocalDate dateOfBirth;
+  private String planName;
+  private BigDecimal premiumAmount;
+  private BigDecimal sumAssured;
+  private LocalDate startDate;
+  private LocalDate endDate;
+
+  // Set by the match stage once identity is resolved
+  private String customerId;
+
+  private String[] extraFields;
+  private Object[] extraValues;
+
+  /**
+   * Full name as supplied: customerName if the feed has a single name column,
+   * otherwise firstName + lastName.
+   */
+  public String getFullName() {
+    if (customerName != null) {
+      return customerName;
+    }
+    if (firstName == null && lastName == null) {
+      return null;
+    }
+    return (firstName != null ? firstName : "") + " " + (lastName != null ? lastName : "");
+  }
+
+  /**
+   * Value of a mapped column that has no dedicated field, or null.
+   */
+  public Object getExtra(String targetField) {
+    if (extraFields == null) {
+      return null;
+    }
+    for (int i = 0; i < extraFields.length; i++) {
+      if (extraFields[i].equals(targetField)) {
+        return extraValues[i];
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,23 @@
+package com.mypolicy.pipeline.processing.model;
+
+/**
+ * One data row as read from the file, with its 1-based position (header excluded).
+ */
+public final class RawRow {
+
+  private final long rowNumber;
+  private final String[] values;
+
+  public RawRow(long rowNumber, String[] values) {
+    this.rowNumber = rowNumber;
+    this.values = values;
+  }
+
+  public long getRowNumber() {
+    return rowNumber;
+  }
+
+  public String[] getValues() {
+    return values;
+  }
+}
@@ -0,0 +1,89 @@
+package com.mypolicy.pipeline.processing.pipeline;
+
+import java.util.BitSet;
+import java.util.function.LongConsumer;
+
+/**
+ * Tracks the contiguous "everything up to here is done" row for a job.
+ *
+ * Rows finish out of order (several workers per stage, and rows drop out at
+ * different stages), so completions beyond the watermark are remembered in a
+ * bit set until the gap before them closes. Every {@code interval} rows of
+ * watermark progress the new value is handed to the sink, outside the lock;
+ * {@link #flush()} hands over the rest when the run ends.
+ */
+public class CheckpointTracker {
+
+  private static final int COMPACT_THRESHOLD = 1 << 16;
+
+  private final long interval;
+  private final LongConsumer sink;
+  private final BitSet done = new BitSet();
+  private long base;
+  private long watermark;
+  private long lastFlushed;
+
+  /**
+   * @param startRow last row already covered by a previous checkpoint (0 for a fresh run)
+   */
+  public CheckpointTracker(long startRow, long interval, LongConsumer sink) {
+    this.interval = Math.max(1, interval);
+    this.sink = sink;
+    this.base = startRow;
+    this.watermark = startRow;
+    this.lastFlushed = startRow;
+  }
+
+  /**
+   * Mark rows as fully processed (stitched, skipped or failed).
+   */
+  public void complete(long[] rows, int count) {
+    long flush = -1;
+    synchronized (this) {
+      for (int i = 0; i < count; i++) {
+        long row = rows[i];
+        if (row > watermark) {
+          done.set((int) (row - base - 1));
+        }
+      }
+      while (done.get((int) (watermark - base))) {
+        watermark++;
+      }
+      if (watermark - base >= COMPACT_THRESHOLD) {
+        int shift = (int) (watermark - base);
+        BitSet rest = done.get(shift, Math.max(shift, done.length()));
+        done.clear();
+        done.or(rest);
+        base = watermark;
+      }
+      if (watermark - lastFlushed >= interval) {
+        lastFlushed = watermark;
+        flush = watermark;
+      }
+    }
+    if (flush >= 0) {
+      sink.accept(flush);
+    }
+  }
+
+  /**
+   * Hand the watermark to the sink if it moved since the last checkpoint, e.g.
+   * once the run has completed or failed, so a resumed run does not redo the
+   * rows finished after the last full interval.
+   */
+  public void flush() {
+    long flush;
+    synchronized (this) {
+      if (watermark == lastFlushed) {
+        return;
+      }
+      lastFlushed = watermark;
+      flush = watermark;
+    }
+    sink.accept(flush);
+  }
+
+  public synchronized long getWatermark() {
+    return watermark;
+  }
+}
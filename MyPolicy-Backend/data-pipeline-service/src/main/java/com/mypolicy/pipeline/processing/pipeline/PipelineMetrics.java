@@ -0,0 +1,42 @@
+package com.mypolicy.pipeline.processing.pipeline;
+
+import com.mypolicy.pipeline.processing.dto.StageStats;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of per-stage metrics shared by all pipeline runs on this node.
+ * Exposed through the Processing API so chunk sizes and pool sizes can be tuned.
+ */
+@Component
+public class PipelineMetrics {
+
+  private final Map<String, StageMetrics> stages = new ConcurrentHashMap<>();
+  private final List<String> order = new ArrayList<>();
+
+  public StageMetrics stage(String name) {
+    return stages.computeIfAbsent(name, key -> {
+      synchronized (order) {
+        order.add(key);
+      }
+      return new StageMetrics(key);
+    });
+  }
+
+  /**
+   * Snapshot of every stage, in the order the stages were first registered.
+   */
+  public List<StageStats> snapshot() {
+    List<StageStats> result = new ArrayList<>();
+    synchronized (order) {
+      for (String name : order) {
+        result.add(stages.get(name).snapshot());
+      }
+    }
+    return result;
+  }
+}
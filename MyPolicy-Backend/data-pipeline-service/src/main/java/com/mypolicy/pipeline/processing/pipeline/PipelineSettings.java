@@ -0,0 +1,53 @@
+package com.mypolicy.pipeline.processing.pipeline;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizing for the processing pipeline.
+ *
+ * pipeline.processing.chunk-size and thread-pool-size are the defaults for
+ * every stage; each stage can override them under
+ * pipeline.processing.stages.{parse|map|match|persist}. A job checkpoint is
+ * saved every pipeline.processing.checkpoint.interval completed rows.
+ */
+@Component
+public class PipelineSettings {
+
+  @Value("${pipeline.processing.queue-capacity:16}")
+  private int queueCapacity;
+
+  @Value("${pipeline.processing.stages.parse.chunk-size:${pipeline.processing.chunk-size:100}}")
+  private int parseChunkSize;
+
+  @Value("${pipeline.processing.stages.map.thread-pool-size:${pipeline.processing.thread-pool-size:10}}")
+  private int mapThreads;
+
+  @Value("${pipeline.processing.stages.map.chunk-size:${pipeline.processing.chunk-size:100}}")
+  private int mapChunkSize;
+
+  @Value("${pipeline.processing.stages.match.thread-pool-size:${pipeline.processing.thread-pool-size:10}}")
+  private int matchThreads;
+
+  @Value("${pipeline.processing.stages.match.chunk-size:${pipeline.processing.chunk-size:100}}")
+  private int matchChunkSize;
+
+  @Value("${pipeline.processing.stages.persist.thread-pool-size:${pipeline.processing.thread-pool-size:10}}")
+  private int persistThreads;
+
+  @Value("${pipeline.processing.stages.persist.chunk-size:${pipeline.processing.chunk-size:100}}")
+  private int persistChunkSize;
+
+  @Value("${pipeline.processing.checkpoint.interval:1000}")
+  private int checkpointInterval;
+
+  public int getQueueCapacity() { return queueCapacity; }
+  public int getParseChunkSize() { return parseChunkSize; }
+  public int getMapThreads() { return mapThreads; }
+  public int getMapChunkSize() { return mapChunkSize; }
+  public int getMatchThreads() { return matchThreads; }
+  public int getMatchChunkSize() { return matchChunkSize; }
+  public int getPersistThreads() { return persistThreads; }
+  public int getPersistChunkSize() { return persistChunkSize; }
+  public int getCheckpointInterval() { return checkpointInterval; }
+}
@@ -0,0 +1,63 @@
+package com.mypolicy.pipeline.processing.pipeline;
+
+import com.mypolicy.pipeline.processing.dto.StageStats;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one pipeline stage, aggregated over every job that has run it.
+ * Updated lock-free by the stage workers; read through {@link #snapshot()}.
+ */
+public class StageMetrics {
+
+  private final String stage;
+  private final LongAdder recordsIn = new LongAdder();
+  private final LongAdder recordsOut = new LongAdder();
+  private final LongAdder chunks = new LongAdder();
+  private final LongAdder busyNanos = new LongAdder();
+  private final LongAdder blockedNanos = new LongAdder();
+  private final AtomicInteger queueDepth = new AtomicInteger();
+  private final AtomicInteger activeWorkers = new AtomicInteger();
+
+  public StageMetrics(String stage) {
+    this.stage = stage;
+  }
+
+  void chunkProcessed(int in, int out, long nanos) {
+    recordsIn.add(in);
+    recordsOut.add(out);
+    chunks.increment();
+    busyNanos.add(nanos);
+  }
+
+  void blocked(long nanos) {
+    blockedNanos.add(nanos);
+  }
+
+  void enqueued() {
+    queueDepth.incrementAndGet();
+  }
+
+  void dequeued() {
+    queueDepth.decrementAndGet();
+  }
+
+  void workerStarted() {
+    activeWorkers.incrementAndGet();
+  }
+
+  void workerStopped() {
+    activeWorkers.decrementAndGet();
+  }
+
+  public StageStats snapshot() {
+    long in = recordsIn.sum();
+    long busy = busyNanos.sum();
+    double perBusySecond = busy > 0 ? in * 1_000_000_000d / busy : 0d;
+    return new StageStats(stage, in, recordsOut.sum(), chunks.sum(), queueDepth.get(),
+        activeWorkers.get(), TimeUnit.NANOSECONDS.toMillis(busy),
+        TimeUnit.NANOSECONDS.toMillis(blockedNanos.sum()), perBusySecond);
+  }
+}
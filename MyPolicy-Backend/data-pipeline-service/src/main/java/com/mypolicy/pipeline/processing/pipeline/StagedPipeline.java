@@ -0,0 +1,373 @@
+package com.mypolicy.pipeline.processing.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Chunked, multi-stage pipeline connected by bounded queues.
+ *
+ * The source runs on the calling thread and cuts items into chunks; every
+ * following stage has its own worker pool and chunk size and hands its output
+ * to the next stage's queue. A full queue blocks the upstream stage, so a slow
+ * stage throttles everything before it instead of letting rows pile up in
+ * memory. The first unhandled exception in any stage aborts the whole run and
+ * is rethrown from {@link #run(Source)}; per-record error handling belongs
+ * inside the stage handlers.
+ *
+ * A stage can be partitioned by a key: each of its workers then has its own
+ * queue and every item with the same key goes to the same worker, so items
+ * sharing a key are never handled concurrently.
+ *
+ * @param <S> type produced by the source
+ */
+public class StagedPipeline<S> {
+
+  /**
+   * Pull-based source; returns null when exhausted.
+   */
+  @FunctionalInterface
+  public interface Source<S> {
+    S next() throws Exception;
+  }
+
+  /**
+   * Transforms one chunk. May return fewer (or more) items than it received.
+   */
+  @FunctionalInterface
+  public interface ChunkHandler<I, O> {
+    List<O> handle(List<I> chunk) throws Exception;
+  }
+
+  private static final List<Object> END = Collections.unmodifiableList(new ArrayList<>());
+  private static final long POLL_MILLIS = 100;
+
+  private final String jobId;
+  private final String sourceName;
+  private final int sourceChunkSize;
+  private final int queueCapacity;
+  private final List<Stage> stages;
+  private final PipelineMetrics metrics;
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+  private StagedPipeline(Builder<S, ?> builder) {
+    this.jobId = builder.jobId;
+    this.sourceName = builder.sourceName;
+    this.sourceChunkSize = builder.sourceChunkSize;
+    this.queueCapacity = builder.queueCapacity;
+    this.stages = builder.stages;
+    this.metrics = builder.metrics;
+  }
+
+  public static <S> Builder<S, S> source(String jobId, String name, int chunkSize, PipelineMetrics metrics) {
+    return new Builder<>(jobId, name, chunkSize, metrics);
+  }
+
+  /**
+   * Runs the pipeline to completion on the given source. Blocks until every
+   * stage has drained or the run has failed.
+   */
+  public void run(Source<S> source) throws Exception {
+    if (stages.isEmpty()) {
+      throw new IllegalStateException("Pipeline has no stages");
+    }
+    for (Stage stage : stages) {
+      int queues = stage.partitionKey != null ? stage.workers : 1;
+      stage.inbound = new BlockingQueue[queues];
+      for (int q = 0; q < queues; q++) {
+        stage.inbound[q] = new ArrayBlockingQueue<>(Math.max(1, queueCapacity / queues));
+      }
+      stage.remaining = new AtomicInteger(stage.workers);
+      stage.metrics = metrics.stage(stage.name);
+      stage.executor = Executors.newFixedThreadPool(stage.workers, threadFactory(stage.name));
+    }
+    for (int i = 0; i < stages.size(); i++) {
+      int index = i;
+      for (int w = 0; w < stages.get(i).workers; w++) {
+        int worker = w;
+        stages.get(i).executor.execute(() -> work(index, worker));
+      }
+    }
+
+    try {
+      produce(source);
+    } catch (Throwable t) {
+      fail(t);
+    } finally {
+      awaitStages();
+    }
+
+    Throwable t = failure.get();
+    if (t instanceof Exception) {
+      throw (Exception) t;
+    }
+    if (t instanceof Error) {
+      throw (Error) t;
+    }
+  }
+
+  private void produce(Source<S> source) throws Exception {
+    StageMetrics sourceMetrics = metrics.stage(sourceName);
+    Stage first = stages.get(0);
+    sourceMetrics.workerStarted();
+    try {
+      List<Object>[] out = buffers(first);
+      int pending = 0;
+      long started = System.nanoTime();
+      S item;
+      while ((item = source.next()) != null) {
+        emit(first, out, item, sourceMetrics);
+        if (++pending >= sourceChunkSize) {
+          sourceMetrics.chunkProcessed(pending, pending, System.nanoTime() - started);
+          pending = 0;
+          started = System.nanoTime();
+        }
+      }
+      if (pending > 0) {
+        sourceMetrics.chunkProcessed(pending, pending, System.nanoTime() - started);
+      }
+      flush(first, out, sourceMetrics);
+    } finally {
+      sourceMetrics.workerStopped();
+    }
+    signalEnd(first, sourceMetrics);
+  }
+
+  private void work(int index, int worker) {
+    Stage stage = stages.get(index);
+    Stage next = index + 1 < stages.size() ? stages.get(index + 1) : null;
+    BlockingQueue<List<Object>> inbound = stage.inbound[stage.inbound.length > 1 ? worker : 0];
+    stage.metrics.workerStarted();
+    try {
+      List<Object>[] out = next != null ? buffers(next) : null;
+      while (true) {
+        List<Object> chunk = take(stage, inbound);
+        if (chunk == null || chunk == END) {
+          break;
+        }
+        long started = System.nanoTime();
+        List<Object> result = stage.handler.handle(chunk);
+        int produced = result != null ? result.size() : 0;
+        stage.metrics.chunkProcessed(chunk.size(), produced, System.nanoTime() - started);
+
+        if (next != null && produced > 0) {
+          for (Object item : result) {
+            emit(next, out, item, stage.metrics);
+          }
+        }
+      }
+      if (next != null && failure.get() == null) {
+        flush(next, out, stage.metrics);
+      }
+    } catch (Throwable t) {
+      fail(t);
+    } finally {
+      stage.metrics.workerStopped();
+      if (stage.remaining.decrementAndGet() == 0 && next != null && failure.get() == null) {
+        try {
+          signalEnd(next, stage.metrics);
+        } catch (Throwable t) {
+          fail(t);
+        }
+      }
+    }
+  }
+
+  /**
+   * One output buffer per inbound queue of the target stage.
+   */
+  @SuppressWarnings("unchecked")
+  private static List<Object>[] buffers(Stage target) {
+    List<Object>[] out = new List[target.inbound.length];
+    for (int i = 0; i < out.length; i++) {
+      out[i] = new ArrayList<>(target.chunkSize);
+    }
+    return out;
+  }
+
+  /**
+   * Buffer an item for the target stage, routed by its partition key, and
+   * hand the buffer over once it holds a full chunk.
+   */
+  private void emit(Stage target, List<Object>[] out, Object item, StageMetrics producer)
+      throws InterruptedException {
+    int queue = 0;
+    if (out.length > 1) {
+      queue = Math.floorMod(Objects.hashCode(target.partitionKey.apply(item)), out.length);
+    }
+    out[queue].add(item);
+    if (out[queue].size() >= target.chunkSize) {
+      put(target, queue, out[queue], producer);
+      out[queue] = new ArrayList<>(target.chunkSize);
+    }
+  }
+
+  private void flush(Stage target, List<Object>[] out, StageMetrics producer) throws InterruptedException {
+    for (int queue = 0; queue < out.length; queue++) {
+      if (!out[queue].isEmpty()) {
+        put(target, queue, out[queue], producer);
+        out[queue] = new ArrayList<>(target.chunkSize);
+      }
+    }
+  }
+
+  private void put(Stage target, int queue, List<Object> chunk, StageMetrics producer)
+      throws InterruptedException {
+    long started = System.nanoTime();
+    do {
+      if (failure.get() != null) {
+        throw new CancellationException("Pipeline aborted for jobId=" + jobId);
+      }
+    } while (!target.inbound[queue].offer(chunk, POLL_MILLIS, TimeUnit.MILLISECONDS));
+    producer.blocked(System.nanoTime() - started);
+    if (chunk != END) {
+      target.metrics.enqueued();
+    }
+  }
+
+  private List<Object> take(Stage stage, BlockingQueue<List<Object>> inbound) throws InterruptedException {
+    while (failure.get() == null) {
+      List<Object> chunk = inbound.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+      if (chunk != null) {
+        if (chunk != END) {
+          stage.metrics.dequeued();
+        }
+        return chunk;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * One end marker per downstream worker, so each of them stops exactly once.
+   */
+  private void signalEnd(Stage target, StageMetrics producer) throws InterruptedException {
+    for (int i = 0; i < target.workers; i++) {
+      put(target, target.inbound.length > 1 ? i : 0, END, producer);
+    }
+  }
+
+  private void fail(Throwable t) {
+    failure.compareAndSet(null, t);
+  }
+
+  private void awaitStages() {
+    for (Stage stage : stages) {
+      stage.executor.shutdown();
+    }
+    for (Stage stage : stages) {
+      try {
+        while (!stage.executor.awaitTermination(1, TimeUnit.SECONDS)) {
+          // keep waiting; workers exit on END or on failure
+        }
+      } catch (InterruptedException e) {
+        fail(e);
+        stages.forEach(s -> s.executor.shutdownNow());
+        Thread.currentThread().interrupt();
+        return;
+      }
+      // Leftovers only exist after a failure; keep the queue-depth gauge honest
+      for (BlockingQueue<List<Object>> inbound : stage.inbound) {
+        List<Object> leftover;
+        while ((leftover = inbound.poll()) != null) {
+          if (leftover != END) {
+            stage.metrics.dequeued();
+          }
+        }
+      }
+    }
+  }
+
+  private ThreadFactory threadFactory(String stageName) {
+    String prefix = "pipeline-" + stageName + "-" + (jobId.length() > 8 ? jobId.substring(0, 8) : jobId) + "-";
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  private static final class Stage {
+    private final String name;
+    private final int workers;
+    private final int chunkSize;
+    private final ChunkHandler<Object, Object> handler;
+    private final Function<Object, ?> partitionKey;
+    private BlockingQueue<List<Object>>[] inbound;
+    private AtomicInteger remaining;
+    private StageMetrics metrics;
+    private ExecutorService executor;
+
+    private Stage(String name, int workers, int chunkSize, Function<Object, ?> partitionKey,
+        ChunkHandler<Object, Object> handler) {
+      this.name = name;
+      this.workers = workers;
+      this.chunkSize = chunkSize;
+      this.partitionKey = partitionKey;
+      this.handler = handler;
+    }
+  }
+
+  /**
+   * Type-safe builder: each {@link #stage} call consumes the previous stage's output type.
+   *
+   * @param <S> source item type
+   * @param <T> output type of the last stage added so far
+   */
+  public static final class Builder<S, T> {
+    private final String jobId;
+    private final String sourceName;
+    private final int sourceChunkSize;
+    private final PipelineMetrics metrics;
+    private final List<Stage> stages = new ArrayList<>();
+    private int queueCapacity = 16;
+
+    private Builder(String jobId, String sourceName, int sourceChunkSize, PipelineMetrics metrics) {
+      this.jobId = jobId;
+      this.sourceName = sourceName;
+      this.sourceChunkSize = Math.max(1, sourceChunkSize);
+      this.metrics = metrics;
+    }
+
+    public <O> Builder<S, O> stage(String name, int workers, int chunkSize, ChunkHandler<T, O> handler) {
+      return stage(name, workers, chunkSize, null, handler);
+    }
+
+    /**
+     * Stage whose items are routed to workers by partitionKey: items with equal
+     * keys always reach the same worker, in the order they were produced upstream.
+     */
+    @SuppressWarnings("unchecked")
+    public <O> Builder<S, O> stage(String name, int workers, int chunkSize, Function<T, ?> partitionKey,
+        ChunkHandler<T, O> handler) {
+      stages.add(new Stage(name, Math.max(1, workers), Math.max(1, chunkSize),
+          (Function<Object, ?>) (Function<?, ?>) partitionKey,
+          (ChunkHandler<Object, Object>) (ChunkHandler<?, ?>) handler));
+      return (Builder<S, O>) this;
+    }
+
+    /**
+     * Capacity, in chunks, of every inter-stage queue.
+     */
+    public Builder<S, T> queueCapacity(int queueCapacity) {
+      this.queueCapacity = Math.max(1, queueCapacity);
+      return this;
+    }
+
+    public StagedPipeline<S> build() {
+      return new StagedPipeline<>(this);
+    }
+  }
+}
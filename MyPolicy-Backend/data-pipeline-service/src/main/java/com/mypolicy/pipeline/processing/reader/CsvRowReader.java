@@ -0,0 +1,201 @@
+package com.mypolicy.pipeline.processing.reader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Memory-mapped, single-pass CSV reader (RFC 4180 quoting).
+ *
+ * The stored file is mapped in fixed-size windows and tokenized byte by byte;
+ * only the current field buffer and row live on the heap, so memory use does
+ * not grow with file size. Fields are decoded as UTF-8 once they are complete,
+ * which is safe because the delimiter, quote and line-break bytes never occur
+ * inside a multi-byte UTF-8 sequence.
+ */
+public class CsvRowReader implements RowReader {
+
+  private static final long WINDOW_SIZE = 64L * 1024 * 1024; // 64MB per mapping
+  private static final byte QUOTE = '"';
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  private final FileChannel channel;
+  private final long fileSize;
+  private final long windowSize;
+  private final byte delimiter;
+  private final List<String> headers;
+  private final List<String> cells = new ArrayList<>();
+
+  private MappedByteBuffer window;
+  private long windowStart;
+  private byte[] field = new byte[256];
+  private int fieldLength;
+  private long rowCount;
+
+  public CsvRowReader(Path path) throws IOException {
+    this(path, ',');
+  }
+
+  public CsvRowReader(Path path, char delimiter) throws IOException {
+    this(path, delimiter, WINDOW_SIZE);
+  }
+
+  /**
+   * Visible for tests, which need window boundaries without 64MB files.
+   */
+  CsvRowReader(Path path, char delimiter, long windowSize) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.fileSize = channel.size();
+    this.windowSize = windowSize;
+    this.delimiter = (byte) delimiter;
+    try {
+      mapWindow(byteOrderMarkLength());
+      String[] header = readRecord();
+      this.headers = header != null
+          ? Collections.unmodifiableList(Arrays.asList(header))
+          : Collections.emptyList();
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public List<String> getHeaders() {
+    return headers;
+  }
+
+  @Override
+  public String[] nextRow() throws IOException {
+    String[] row = readRecord();
+    if (row != null) {
+      rowCount++;
+    }
+    return row;
+  }
+
+  @Override
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public void close() throws IOException {
+    window = null;
+    channel.close();
+  }
+
+  /**
+   * Reads one logical record, skipping blank lines. Returns null at end of file.
+   */
+  private String[] readRecord() throws IOException {
+    while (hasRemaining()) {
+      cells.clear();
+      fieldLength = 0;
+      boolean quoted = false;
+      boolean inQuotes = false;
+
+      while (true) {
+        if (!hasRemaining()) {
+          endField(quoted);
+          break;
+        }
+        byte b = window.get();
+        if (inQuotes) {
+          if (b == QUOTE) {
+            if (hasRemaining() && peek() == QUOTE) {
+              window.get();
+              append(QUOTE);
+            } else {
+              inQuotes = false;
+            }
+          } else {
+            append(b);
+          }
+        } else if (b == delimiter) {
+          endField(quoted);
+          quoted = false;
+        } else if (b == LF) {
+          endField(quoted);
+          break;
+        } else if (b == CR) {
+          if (hasRemaining() && peek() == LF) {
+            window.get();
+          }
+          endField(quoted);
+          break;
+        } else if (b == QUOTE && fieldLength == 0 && !quoted) {
+          inQuotes = true;
+          quoted = true;
+        } else {
+          append(b);
+        }
+      }
+
+      if (cells.size() == 1 && cells.get(0) == null) {
+        continue; // blank line
+      }
+      return cells.toArray(new String[0]);
+    }
+    return null;
+  }
+
+  private void endField(boolean quoted) {
+    if (fieldLength == 0 && !quoted) {
+      cells.add(null);
+    } else {
+      cells.add(new String(field, 0, fieldLength, StandardCharsets.UTF_8));
+    }
+    fieldLength = 0;
+  }
+
+  private void append(byte b) {
+    if (fieldLength == field.length) {
+      field = Arrays.copyOf(field, field.length * 2);
+    }
+    field[fieldLength++] = b;
+  }
+
+  private boolean hasRemaining() throws IOException {
+    if (window.hasRemaining()) {
+      return true;
+    }
+    long next = windowStart + window.limit();
+    if (next >= fileSize) {
+      return false;
+    }
+    mapWindow(next);
+    return window.hasRemaining();
+  }
+
+  private byte peek() {
+    return window.get(window.position());
+  }
+
+  private void mapWindow(long position) throws IOException {
+    long size = Math.min(windowSize, fileSize - position);
+    window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    windowStart = position;
+  }
+
+  private int byteOrderMarkLength() throws IOException {
+    ByteBuffer head = ByteBuffer.allocate(3);
+    while (head.hasRemaining() && channel.read(head, head.position()) > 0) {
+      // read until 3 bytes or end of file
+    }
+    boolean bom = head.position() == 3
+        && (head.get(0) & 0xFF) == 0xEF
+        && (head.get(1) & 0xFF) == 0xBB
+        && (head.get(2) & 0xFF) == 0xBF;
+    return bom ? 3 : 0;
+  }
+}
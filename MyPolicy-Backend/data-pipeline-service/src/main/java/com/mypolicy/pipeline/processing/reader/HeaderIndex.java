@@ -0,0 +1,79 @@
+package com.mypolicy.pipeline.processing.reader;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves configured source field names to column positions.
+ *
+ * Insurer files spell the same column differently ("Policy Number",
+ * "PolicyNumber", "PolicyNum", "Policy_No"), so lookup falls back from an
+ * exact match to a canonical form (lower-case, letters and digits only) and
+ * finally to a small table of known abbreviations.
+ */
+public class HeaderIndex {
+
+  private static final Map<String, String> ALIASES = new HashMap<>();
+
+  static {
+    ALIASES.put("policynum", "policynumber");
+    ALIASES.put("policyno", "policynumber");
+    ALIASES.put("annualprem", "annualpremium");
+    ALIASES.put("policystart", "policystartdate");
+    ALIASES.put("policyend", "policyenddate");
+    ALIASES.put("mobileno", "mobile");
+    ALIASES.put("mobilenumber", "mobile");
+    ALIASES.put("mobno", "mobile");
+    ALIASES.put("dateofbirth", "dob");
+    ALIASES.put("pannumber", "pan");
+    ALIASES.put("panno", "pan");
+    ALIASES.put("emailid", "email");
+  }
+
+  private final Map<String, Integer> exact = new HashMap<>();
+  private final Map<String, Integer> canonical = new HashMap<>();
+  private final int size;
+
+  public HeaderIndex(List<String> headers) {
+    this.size = headers.size();
+    for (int i = 0; i < headers.size(); i++) {
+      String header = headers.get(i);
+      if (header == null) {
+        continue;
+      }
+      exact.putIfAbsent(header.trim(), i);
+      canonical.putIfAbsent(canonicalize(header), i);
+    }
+  }
+
+  /**
+   * Column index for the given source field, or -1 if the file has no such column.
+   */
+  public int indexOf(String sourceField) {
+    if (sourceField == null) {
+      return -1;
+    }
+    Integer index = exact.get(sourceField.trim());
+    if (index == null) {
+      index = canonical.get(canonicalize(sourceField));
+    }
+    return index != null ? index : -1;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  static String canonicalize(String name) {
+    StringBuilder sb = new StringBuilder(name.length());
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        sb.append(Character.toLowerCase(c));
+      }
+    }
+    String key = sb.toString();
+    return ALIASES.getOrDefault(key, key);
+  }
+}
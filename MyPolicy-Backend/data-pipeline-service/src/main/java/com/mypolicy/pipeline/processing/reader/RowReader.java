@@ -0,0 +1,40 @@
+package com.mypolicy.pipeline.processing.reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Forward-only reader over a tabular insurer file (CSV or Excel).
+ * Rows are handed out one at a time as raw cell text, so callers never hold
+ * more than the current row in memory.
+ *
+ * Part of Processing Module in consolidated Data Pipeline Service.
+ */
+public interface RowReader extends Closeable {
+
+  /**
+   * Header row of the file (first line / first sheet row).
+   */
+  List<String> getHeaders();
+
+  /**
+   * Next data row, or null once the file is exhausted.
+   * Missing trailing cells are returned as null entries or a shorter array.
+   */
+  String[] nextRow() throws IOException;
+
+  /**
+   * Number of data rows returned so far.
+   */
+  long getRowCount();
+
+  /**
+   * Total data rows if the format knows it up front, otherwise -1. An upper
+   * bound: the range a sheet declares can include blank rows that are skipped,
+   * so only {@link #getRowCount()} at end of file is exact.
+   */
+  default long getTotalRowsHint() {
+    return -1;
+  }
+}
@@ -0,0 +1,184 @@
+package com.mypolicy.pipeline.processing.reader;
+
+import org.apache.poi.util.XMLHelper;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded view of an XLSX shared-strings table (xl/sharedStrings.xml).
+ *
+ * Small tables stay in memory. Once more than {@code maxCached} strings have
+ * been seen, the table is spilled to a temp file (UTF-8 bytes plus an offset
+ * index) and lookups go through an LRU cache of at most {@code maxCached}
+ * entries, so heap use is capped however many distinct strings a workbook has.
+ */
+public class SharedStringsCache implements Closeable {
+
+  private final int maxCached;
+  private List<String> inMemory = new ArrayList<>();
+
+  private Path spillFile;
+  private FileChannel spill;
+  private long[] offsets;
+  private int count;
+  private Map<Integer, String> lru;
+
+  public SharedStringsCache(InputStream sharedStringsXml, int maxCached) throws IOException {
+    this.maxCached = Math.max(1, maxCached);
+    if (sharedStringsXml == null) {
+      return;
+    }
+    try {
+      load(sharedStringsXml);
+    } catch (XMLStreamException e) {
+      close();
+      throw new IOException("Malformed shared strings table", e);
+    } catch (IOException | RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /**
+   * String at the given shared-strings index.
+   */
+  public String get(int index) throws IOException {
+    if (index < 0 || index >= size()) {
+      throw new IOException("Shared string index out of range: " + index);
+    }
+    if (spill == null) {
+      return inMemory.get(index);
+    }
+    String cached = lru.get(index);
+    if (cached == null) {
+      cached = readSpilled(index);
+      lru.put(index, cached);
+    }
+    return cached;
+  }
+
+  public int size() {
+    return spill == null ? inMemory.size() : count;
+  }
+
+  @Override
+  public void close() throws IOException {
+    inMemory = null;
+    lru = null;
+    if (spill != null) {
+      spill.close();
+    }
+    if (spillFile != null) {
+      Files.deleteIfExists(spillFile);
+    }
+  }
+
+  private void load(InputStream xml) throws XMLStreamException, IOException {
+    XMLStreamReader reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(xml);
+    try {
+      StringBuilder text = new StringBuilder();
+      boolean inItem = false;
+      boolean inText = false;
+      int phoneticDepth = 0;
+
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          String name = reader.getLocalName();
+          if ("si".equals(name)) {
+            inItem = true;
+            text.setLength(0);
+          } else if ("rPh".equals(name)) {
+            phoneticDepth++; // phonetic hints are not part of the cell value
+          } else if ("t".equals(name) && inItem && phoneticDepth == 0) {
+            inText = true;
+          }
+        } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+          if (inText) {
+            text.append(reader.getText());
+          }
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          String name = reader.getLocalName();
+          if ("t".equals(name)) {
+            inText = false;
+          } else if ("rPh".equals(name)) {
+            phoneticDepth--;
+          } else if ("si".equals(name)) {
+            inItem = false;
+            add(text.toString());
+          }
+        }
+      }
+    } finally {
+      reader.close();
+    }
+  }
+
+  private void add(String value) throws IOException {
+    if (spill == null) {
+      inMemory.add(value);
+      if (inMemory.size() > maxCached) {
+        startSpilling();
+      }
+      return;
+    }
+    append(value);
+  }
+
+  private void startSpilling() throws IOException {
+    spillFile = Files.createTempFile("xlsx-sst-", ".bin");
+    spill = FileChannel.open(spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    offsets = new long[Math.max(1024, inMemory.size() * 2)];
+    count = 0;
+    for (String value : inMemory) {
+      append(value);
+    }
+    inMemory = null;
+    lru = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+        return size() > maxCached;
+      }
+    };
+  }
+
+  private void append(String value) throws IOException {
+    if (count + 1 >= offsets.length) {
+      offsets = Arrays.copyOf(offsets, offsets.length * 2);
+    }
+    ByteBuffer bytes = ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    long position = offsets[count];
+    while (bytes.hasRemaining()) {
+      position += spill.write(bytes, position);
+    }
+    offsets[++count] = position;
+  }
+
+  private String readSpilled(int index) throws IOException {
+    long start = offsets[index];
+    ByteBuffer bytes = ByteBuffer.allocate((int) (offsets[index + 1] - start));
+    while (bytes.hasRemaining()) {
+      int read = spill.read(bytes, start + bytes.position());
+      if (read < 0) {
+        throw new IOException("Unexpected end of shared strings spill file");
+      }
+    }
+    return new String(bytes.array(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,110 @@
+package com.mypolicy.pipeline.processing.reader;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Row reader over the first sheet of a workbook loaded through Apache POI's
+ * user model. Used for legacy .xls files, which have no streaming format.
+ *
+ * Cells are rendered to text the same way the CSV reader sees them: numbers
+ * without scientific notation (so 12-digit mobiles survive) and dates as ISO
+ * yyyy-MM-dd.
+ */
+public class WorkbookRowReader implements RowReader {
+
+  private final Workbook workbook;
+  private final Sheet sheet;
+  private final List<String> headers;
+  private final int lastRowNum;
+  private int nextRowNum = 1;
+  private long rowCount;
+
+  public WorkbookRowReader(Path path) throws IOException {
+    this.workbook = WorkbookFactory.create(path.toFile(), null, true);
+    this.sheet = workbook.getSheetAt(0);
+    this.lastRowNum = sheet.getLastRowNum();
+
+    List<String> names = new ArrayList<>();
+    Row headerRow = sheet.getRow(0);
+    if (headerRow != null) {
+      for (int i = 0; i < headerRow.getLastCellNum(); i++) {
+        names.add(cellText(headerRow.getCell(i)));
+      }
+    }
+    this.headers = Collections.unmodifiableList(names);
+  }
+
+  @Override
+  public List<String> getHeaders() {
+    return headers;
+  }
+
+  @Override
+  public String[] nextRow() {
+    while (nextRowNum <= lastRowNum) {
+      Row row = sheet.getRow(nextRowNum++);
+      if (row == null || row.getLastCellNum() < 0) {
+        continue;
+      }
+      String[] cells = new String[row.getLastCellNum()];
+      for (int i = 0; i < cells.length; i++) {
+        cells[i] = cellText(row.getCell(i));
+      }
+      rowCount++;
+      return cells;
+    }
+    return null;
+  }
+
+  @Override
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public long getTotalRowsHint() {
+    return lastRowNum;
+  }
+
+  @Override
+  public void close() throws IOException {
+    workbook.close();
+  }
+
+  static String cellText(Cell cell) {
+    if (cell == null) {
+      return null;
+    }
+    CellType type = cell.getCellType() == CellType.FORMULA
+        ? cell.getCachedFormulaResultType()
+        : cell.getCellType();
+    switch (type) {
+      case STRING:
+        String value = cell.getStringCellValue();
+        return value.isEmpty() ? null : value;
+      case NUMERIC:
+        if (DateUtil.isCellDateFormatted(cell)) {
+          return cell.getLocalDateTimeCellValue().toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+        return NumberToTextConverter.toText(cell.getNumericCellValue());
+      case BOOLEAN:
+        return Boolean.toString(cell.getBooleanCellValue());
+      default:
+        return null;
+    }
+  }
+}
@@ -0,0 +1,301 @@
+package com.mypolicy.pipeline.processing.reader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming .xlsx reader built on POI's XSSF event model.
+ *
+ * {@link XSSFReader} hands out the raw sheet part and the sheet XML is pulled
+ * event by event, one row at a time, instead of building an XSSFWorkbook.
+ * Shared strings go through a bounded {@link SharedStringsCache}, so peak heap
+ * is a few MB regardless of workbook size.
+ */
+public class XlsxStreamingRowReader implements RowReader {
+
+  private final OPCPackage pkg;
+  private final SharedStringsCache sharedStrings;
+  private final StylesTable styles;
+  private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+  private final InputStream sheetStream;
+  private final XMLStreamReader xml;
+  private final List<String> headers;
+  private final StringBuilder text = new StringBuilder();
+
+  private long totalRowsHint = -1;
+  private long rowCount;
+
+  public XlsxStreamingRowReader(Path path, int sharedStringsCacheSize) throws IOException {
+    this.pkg = openPackage(path);
+    SharedStringsCache strings = null;
+    InputStream sheet = null;
+    try {
+      XSSFReader reader = new XSSFReader(pkg);
+      strings = new SharedStringsCache(sharedStringsData(reader), sharedStringsCacheSize);
+      this.sharedStrings = strings;
+      this.styles = reader.getStylesTable();
+
+      Iterator<InputStream> sheets = reader.getSheetsData();
+      if (!sheets.hasNext()) {
+        throw new IOException("Workbook has no sheets: " + path);
+      }
+      sheet = sheets.next();
+      this.sheetStream = sheet;
+      this.xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheet);
+
+      String[] header = readRow();
+      this.headers = header != null
+          ? Collections.unmodifiableList(Arrays.asList(header))
+          : Collections.emptyList();
+    } catch (OpenXML4JException | XMLStreamException e) {
+      closeQuietly(sheet, strings);
+      pkg.revert();
+      throw new IOException("Unable to read workbook: " + path, e);
+    } catch (IOException | RuntimeException e) {
+      closeQuietly(sheet, strings);
+      pkg.revert();
+      throw e;
+    }
+  }
+
+  @Override
+  public List<String> getHeaders() {
+    return headers;
+  }
+
+  @Override
+  public String[] nextRow() throws IOException {
+    String[] row = readRow();
+    if (row != null) {
+      rowCount++;
+    }
+    return row;
+  }
+
+  @Override
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Taken from the sheet's {@code <dimension>} element when the writer emitted one.
+   * The dimension spans blank rows too, which {@link #nextRow()} skips.
+   */
+  @Override
+  public long getTotalRowsHint() {
+    return totalRowsHint;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      xml.close();
+    } catch (XMLStreamException e) {
+      // nothing left to release on the parser itself
+    } finally {
+      closeQuietly(sheetStream, sharedStrings);
+      pkg.revert();
+    }
+  }
+
+  /**
+   * Advances to the next non-empty {@code <row>} and returns its cells by column.
+   */
+  private String[] readRow() throws IOException {
+    try {
+      List<String> cells = null;
+      int column = -1;
+      String type = null;
+      int style = -1;
+      String value = null;
+      boolean capture = false;
+
+      while (xml.hasNext()) {
+        int event = xml.next();
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          switch (xml.getLocalName()) {
+            case "dimension":
+              totalRowsHint = dimensionRows(xml.getAttributeValue(null, "ref"));
+              break;
+            case "row":
+              cells = new ArrayList<>();
+              column = -1;
+              break;
+            case "c":
+              column = cells == null ? -1 : columnIndex(xml.getAttributeValue(null, "r"), column + 1);
+              type = xml.getAttributeValue(null, "t");
+              String s = xml.getAttributeValue(null, "s");
+              style = s != null ? Integer.parseInt(s) : -1;
+              value = null;
+              break;
+            case "v":
+            case "t":
+              capture = true;
+              text.setLength(0);
+              break;
+            default:
+              break;
+          }
+        } else if (capture
+            && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+          text.append(xml.getText());
+        } else if (event == XMLStreamConstants.END_ELEMENT) {
+          switch (xml.getLocalName()) {
+            case "v":
+            case "t":
+              capture = false;
+              value = value == null ? text.toString() : value + text;
+              break;
+            case "c":
+              if (cells != null && column >= 0) {
+                while (cells.size() < column) {
+                  cells.add(null);
+                }
+                cells.add(render(type, style, value));
+              }
+              break;
+            case "row":
+              if (cells != null && cells.stream().anyMatch(c -> c != null)) {
+                return cells.toArray(new String[0]);
+              }
+              cells = null;
+              break;
+            case "sheetData":
+              return null;
+            default:
+              break;
+          }
+        }
+      }
+      return null;
+    } catch (XMLStreamException e) {
+      throw new IOException("Malformed sheet XML", e);
+    }
+  }
+
+  private String render(String type, int style, String raw) throws IOException {
+    if (raw == null || raw.isEmpty()) {
+      return null;
+    }
+    if (type == null || "n".equals(type)) {
+      if (isDateStyle(style)) {
+        return DateUtil.getLocalDateTime(Double.parseDouble(raw)).toLocalDate()
+            .format(DateTimeFormatter.ISO_LOCAL_DATE);
+      }
+      // Writers normally store plain digits; normalise exponent form so mobiles stay intact
+      return raw.indexOf('E') >= 0 || raw.indexOf('e') >= 0
+          ? NumberToTextConverter.toText(Double.parseDouble(raw))
+          : raw;
+    }
+    switch (type) {
+      case "s":
+        return sharedStrings.get(Integer.parseInt(raw.trim()));
+      case "b":
+        return "1".equals(raw) ? "true" : "false";
+      case "e":
+        return null;
+      default: // "str", "inlineStr"
+        return raw;
+    }
+  }
+
+  private boolean isDateStyle(int style) {
+    if (style < 0 || styles == null) {
+      return false;
+    }
+    return dateStyles.computeIfAbsent(style, idx -> {
+      XSSFCellStyle cellStyle = styles.getStyleAt(idx);
+      return cellStyle != null
+          && DateUtil.isADateFormat(cellStyle.getDataFormat(), cellStyle.getDataFormatString());
+    });
+  }
+
+  /**
+   * Zero-based column from a cell reference such as "AB12"; falls back to the
+   * next position when the writer omitted the reference.
+   */
+  static int columnIndex(String ref, int fallback) {
+    if (ref == null) {
+      return fallback;
+    }
+    int col = 0;
+    for (int i = 0; i < ref.length(); i++) {
+      char c = ref.charAt(i);
+      if (c < 'A' || c > 'Z') {
+        break;
+      }
+      col = col * 26 + (c - 'A' + 1);
+    }
+    return col > 0 ? col - 1 : fallback;
+  }
+
+  /**
+   * Data rows implied by a dimension ref such as "A1:O1001" (header excluded).
+   */
+  private static long dimensionRows(String ref) {
+    if (ref == null || ref.indexOf(':') < 0) {
+      return -1;
+    }
+    String end = ref.substring(ref.indexOf(':') + 1);
+    int i = 0;
+    while (i < end.length() && Character.isLetter(end.charAt(i))) {
+      i++;
+    }
+    try {
+      return Math.max(0, Long.parseLong(end.substring(i)) - 1);
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static OPCPackage openPackage(Path path) throws IOException {
+    try {
+      return OPCPackage.open(path.toFile(), PackageAccess.READ);
+    } catch (org.apache.poi.openxml4j.exceptions.InvalidFormatException e) {
+      throw new IOException("Not a valid .xlsx file: " + path, e);
+    }
+  }
+
+  private InputStream sharedStringsData(XSSFReader reader) throws IOException, OpenXML4JException {
+    if (pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType()).isEmpty()) {
+      return null;
+    }
+    return reader.getSharedStringsData();
+  }
+
+  private void closeQuietly(InputStream sheet, SharedStringsCache strings) {
+    try {
+      if (sheet != null) {
+        sheet.close();
+      }
+      if (strings != null) {
+        strings.close();
+      }
+    } catch (IOException e) {
+      // best effort cleanup
+    }
+  }
+}
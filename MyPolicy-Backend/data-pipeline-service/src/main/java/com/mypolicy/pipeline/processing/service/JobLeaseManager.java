@@ -0,0 +1,178 @@
+package com.mypolicy.pipeline.processing.service;
+
+import com.mypolicy.pipeline.ingestion.model.IngestionJob;
+import com.mypolicy.pipeline.ingestion.service.IngestionService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Claims processing jobs for this node and keeps their leases alive.
+ *
+ * Every node polls ingestion_jobs and claims runnable jobs with an atomic
+ * findAndModify, but only while it has an idle job worker, so work spreads
+ * across nodes instead of piling up in one node's queue. Claimed jobs are
+ * heartbeated every heartbeat-interval-ms; if a node dies, its leases expire
+ * after duration-ms and another node reclaims the jobs, resuming from their
+ * last checkpoint. A node that fails to renew a lease stops working on that job.
+ *
+ * Requested jobs nobody has claimed yet form the processing queue, shared by
+ * all nodes; at pipeline.processing.jobs.queue-capacity new requests are
+ * turned away until the nodes catch up.
+ */
+@Component
+public class JobLeaseManager {
+
+  private static final Logger log = LoggerFactory.getLogger(JobLeaseManager.class);
+
+  private final IngestionService ingestionService;
+  private final ProcessingService processingService;
+  private final ProcessingJobExecutor jobExecutor;
+  private final String nodeId;
+  private final Duration leaseDuration;
+  private final long heartbeatIntervalMs;
+  private final long pollIntervalMs;
+  private final int queueCapacity;
+  private final Map<String, AtomicBoolean> leases = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService scheduler;
+
+  public JobLeaseManager(IngestionService ingestionService, ProcessingService processingService,
+      ProcessingJobExecutor jobExecutor,
+      @Value("${pipeline.processing.lease.node-id:}") String nodeId,
+      @Value("${pipeline.processing.lease.duration-ms:30000}") long leaseDurationMs,
+      @Value("${pipeline.processing.lease.heartbeat-interval-ms:10000}") long heartbeatIntervalMs,
+      @Value("${pipeline.processing.lease.poll-interval-ms:2000}") long pollIntervalMs,
+      @Value("${pipeline.processing.jobs.queue-capacity:50}") int queueCapacity) {
+    this.ingestionService = ingestionService;
+    this.processingService = processingService;
+    this.jobExecutor = jobExecutor;
+    this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    this.leaseDuration = Duration.ofMillis(leaseDurationMs);
+    this.heartbeatIntervalMs = heartbeatIntervalMs;
+    this.pollIntervalMs = pollIntervalMs;
+    this.queueCapacity = Math.max(1, queueCapacity);
+    AtomicInteger counter = new AtomicInteger();
+    this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+      Thread thread = new Thread(runnable, "job-lease-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    if (heartbeatIntervalMs >= leaseDurationMs) {
+      throw new IllegalArgumentException("Lease heartbeat interval must be shorter than the lease duration");
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    long orphaned = ingestionService.failOrphanedJobs();
+    if (orphaned > 0) {
+      log.warn("[Processing] Marked {} unclaimable PROCESSING jobs as FAILED", orphaned);
+    }
+    scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs,
+        TimeUnit.MILLISECONDS);
+    scheduler.scheduleWithFixedDelay(this::claimJobs, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    log.info("[Processing] Job claiming started: nodeId={}, lease={}ms", nodeId, leaseDuration.toMillis());
+  }
+
+  /**
+   * Claim now rather than on the next poll, e.g. right after a job was requested on this node.
+   */
+  public void claimSoon() {
+    try {
+      scheduler.execute(this::claimJobs);
+    } catch (RejectedExecutionException e) {
+      // Shutting down
+    }
+  }
+
+  /**
+   * True if queue-capacity jobs already wait to be claimed. Checked before a
+   * request is accepted, so concurrent requests may overshoot it slightly.
+   */
+  public boolean isQueueFull() {
+    return ingestionService.countQueuedJobs(queueCapacity) >= queueCapacity;
+  }
+
+  public String getNodeId() {
+    return nodeId;
+  }
+
+  private synchronized void claimJobs() {
+    try {
+      while (jobExecutor.hasIdleWorker()) {
+        IngestionJob job = ingestionService.claimNextJob(nodeId, leaseDuration);
+        if (job == null) {
+          return;
+        }
+        start(job);
+      }
+    } catch (Exception e) {
+      log.error("[Processing] Job claiming failed on nodeId={}", nodeId, e);
+    }
+  }
+
+  private void start(IngestionJob job) {
+    String jobId = job.getJobId();
+    AtomicBoolean held = new AtomicBoolean(true);
+    leases.put(jobId, held);
+    try {
+      jobExecutor.submit(jobId, () -> {
+        try {
+          processingService.processJob(job, held::get);
+        } finally {
+          leases.remove(jobId);
+        }
+      });
+    } catch (RejectedExecutionException | IllegalStateException e) {
+      leases.remove(jobId);
+      ingestionService.releaseLease(jobId, nodeId);
+      log.warn("[Processing] Released claim on jobId={}: {}", jobId, e.getMessage());
+    }
+  }
+
+  private void heartbeat() {
+    for (Map.Entry<String, AtomicBoolean> lease : leases.entrySet()) {
+      try {
+        if (!ingestionService.renewLease(lease.getKey(), nodeId, leaseDuration)) {
+          // Finished in the meantime, or reclaimed by another node after a missed heartbeat
+          lease.getValue().set(false);
+          leases.remove(lease.getKey());
+        }
+      } catch (Exception e) {
+        // Keep the job running; the lease is still valid until it expires
+        log.warn("[Processing] Lease renewal failed: jobId={}", lease.getKey(), e);
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  private static String defaultNodeId() {
+    String host;
+    try {
+      host = InetAddress.getLocalHost().getHostName();
+    } catch (Exception e) {
+      host = "node";
+    }
+    return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+  }
+}
@@ -0,0 +1,90 @@
+package com.mypolicy.pipeline.processing.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs processing jobs off the request thread.
+ *
+ * A fixed number of jobs run concurrently (pipeline.processing.jobs.max-concurrent).
+ * Jobs are only submitted while a worker is idle (see {@link JobLeaseManager}):
+ * jobs not yet claimed wait in the shared queue in Mongo, bounded by
+ * pipeline.processing.jobs.queue-capacity, where any node can pick them up.
+ * The hand-off queue here is bounded by the worker count, so a node never
+ * holds more jobs than it can run.
+ */
+@Component
+public class ProcessingJobExecutor {
+
+  private static final Logger log = LoggerFactory.getLogger(ProcessingJobExecutor.class);
+
+  private final ThreadPoolExecutor executor;
+  private final int maxConcurrent;
+  private final Set<String> pendingJobs = ConcurrentHashMap.newKeySet();
+
+  public ProcessingJobExecutor(
+      @Value("${pipeline.processing.jobs.max-concurrent:2}") int maxConcurrent) {
+    this.maxConcurrent = maxConcurrent;
+    AtomicInteger counter = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+        // A worker that just finished may not be polling yet when its replacement is submitted
+        new ArrayBlockingQueue<>(maxConcurrent),
+        runnable -> new Thread(runnable, "processing-job-" + counter.incrementAndGet()),
+        new ThreadPoolExecutor.AbortPolicy());
+    log.info("[Processing] Job executor ready: maxConcurrent={}", maxConcurrent);
+  }
+
+  /**
+   * Start a job on an idle worker.
+   *
+   * @throws IllegalStateException      if the job is already running on this node
+   * @throws RejectedExecutionException if every worker is busy
+   */
+  public void submit(String jobId, Runnable task) {
+    if (!hasIdleWorker()) {
+      throw new RejectedExecutionException("All " + maxConcurrent + " job workers are busy");
+    }
+    if (!pendingJobs.add(jobId)) {
+      throw new IllegalStateException("Job already running: " + jobId);
+    }
+    try {
+      executor.execute(() -> {
+        try {
+          task.run();
+        } catch (Exception e) {
+          // Job status has already been moved to FAILED by the processing module
+          log.error("[Processing] Async job failed: jobId={}", jobId, e);
+        } finally {
+          pendingJobs.remove(jobId);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      pendingJobs.remove(jobId);
+      throw e;
+    }
+    log.info("[Processing] Job started: jobId={}, running={}", jobId, pendingJobs.size());
+  }
+
+  /**
+   * True if a newly submitted job would start right away.
+   */
+  public boolean hasIdleWorker() {
+    return pendingJobs.size() < maxConcurrent;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
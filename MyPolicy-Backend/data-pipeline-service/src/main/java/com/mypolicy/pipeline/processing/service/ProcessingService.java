@@ -1,25 +1,57 @@
 package com.mypolicy.pipeline.processing.service;
 
-import com.mypolicy.pipeline.metadata.model.FieldMapping;
 import com.mypolicy.pipeline.metadata.model.InsurerConfiguration;
 import com.mypolicy.pipeline.metadata.service.MetadataService;
+import com.mypolicy.pipeline.metadata.transform.CompiledMapping;
+import com.mypolicy.pipeline.metadata.transform.TransformEngine;
 import com.mypolicy.pipeline.ingestion.service.IngestionService;
+import com.mypolicy.pipeline.ingestion.service.LeaseLostException;
+import com.mypolicy.pipeline.ingestion.service.ProgressAccumulator;
 import com.mypolicy.pipeline.ingestion.dto.StatusUpdateRequest;
+import com.mypolicy.pipeline.ingestion.model.IngestionJob;
 import com.mypolicy.pipeline.ingestion.model.IngestionStatus;
+import com.mypolicy.pipeline.matching.dto.PolicyBatchItemResult;
+import com.mypolicy.pipeline.matching.dto.PolicyUpsertResponse;
+import com.mypolicy.pipeline.matching.review.ReviewQueueService;
+import com.mypolicy.pipeline.matching.service.MatchCache;
+import com.mypolicy.pipeline.matching.service.MatchScorer;
 import com.mypolicy.pipeline.matching.service.MatchingService;
+import com.mypolicy.pipeline.processing.mapping.ColumnMappingPlan;
+import com.mypolicy.pipeline.processing.model.PolicyRecord;
+import com.mypolicy.pipeline.processing.model.RawRow;
+import com.mypolicy.pipeline.processing.pipeline.CheckpointTracker;
+import com.mypolicy.pipeline.processing.pipeline.PipelineMetrics;
+import com.mypolicy.pipeline.processing.pipeline.PipelineSettings;
+import com.mypolicy.pipeline.processing.pipeline.StagedPipeline;
+import com.mypolicy.pipeline.processing.reader.CsvRowReader;
+import com.mypolicy.pipeline.processing.reader.HeaderIndex;
+import com.mypolicy.pipeline.processing.reader.RowReader;
+import com.mypolicy.pipeline.processing.reader.WorkbookRowReader;
+import com.mypolicy.pipeline.processing.reader.XlsxStreamingRowReader;
 import lombok.RequiredArgsConstructor;
-import org.apache.poi.ss.usermodel.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 
 /**
  * Processing Service: Excel/CSV parsing, field mapping, data transformation.
+ * Rows stream through a staged pipeline (parse -> map -> match -> persist) with
+ * bounded queues between stages, so matching starts before the file is fully read.
  * 
  * Consolidated Service: Part of data-pipeline-service.
  * OPTIMIZATION: Direct method calls to MetadataService and MatchingService (no HTTP overhead).
@@ -33,138 +65,353 @@ public class ProcessingService {
   private final MetadataService metadataService;    // Direct injection - no HTTP!
   private final IngestionService ingestionService;  // Direct injection - no HTTP!
   private final MatchingService matchingService;    // Direct injection - no HTTP!
+  private final ReviewQueueService reviewQueueService;
+  private final TransformEngine transformEngine;
+  private final ProgressAccumulator progress;
+
+  private final PipelineSettings settings;
+  private final PipelineMetrics pipelineMetrics;
+
+  @Value("${pipeline.processing.xlsx.shared-strings-cache-size:10000}")
+  private int sharedStringsCacheSize;
 
   /**
-   * Process uploaded file: parse Excel/CSV, apply mappings, transform data.
+   * Process a job this node has claimed: parse Excel/CSV, apply mappings, transform data.
+   * A job reclaimed from another node continues after its last checkpoint.
    * 
    * Consolidation Benefit: Metadata lookup is now a method call (< 1ms) instead of HTTP (~50ms).
+   *
+   * @param leaseHeld checked while reading rows; once it turns false the run stops
+   *                  and the job is left to whichever node holds the lease now
    */
-  public void processFile(String jobId, String filePath, String insurerId, String policyType) {
-    log.info("[Processing] Starting file processing: jobId={}, insurerId={}, policyType={}", 
-        jobId, insurerId, policyType);
+  public void processJob(IngestionJob job, BooleanSupplier leaseHeld) {
+    if (job.getStatus() != IngestionStatus.PROCESSING) {
+      throw new IllegalStateException("Cannot process job " + job.getJobId() + " in state " + job.getStatus());
+    }
+    log.info("[Processing] Starting file processing: jobId={}, insurerId={}, policyType={}, fromRow={}",
+        job.getJobId(), job.getInsurerId(), job.getPolicyType(), job.getCheckpointRow() + 1);
 
-    try {
-      // Update job status to PROCESSING
-      StatusUpdateRequest statusUpdate = new StatusUpdateRequest();
-      statusUpdate.setStatus(IngestionStatus.PROCESSING);
-      ingestionService.updateStatus(jobId, statusUpdate);
+    String owner = job.getLeaseOwner();
+    if (job.getCheckpointRow() > 0) {
+      // Rows past the checkpoint are processed (and counted) again
+      ingestionService.resetProgress(job.getJobId(), owner, job.getCheckpointRow());
+    }
+    runJob(job.getJobId(), owner, job.getCreatedAt(), job.getFilePath(), job.getInsurerId(),
+        job.getPolicyType(), job.getTotalRecords(), job.getCheckpointRow(), leaseHeld);
+  }
 
+  /**
+   * @param owner        node holding the job's lease; every job write of the run is conditional on it
+   * @param jobCreatedAt orders this job's rows against other jobs' when policies are upserted
+   */
+  private void runJob(String jobId, String owner, LocalDateTime jobCreatedAt, String filePath, String insurerId,
+      String policyType, int knownTotal, long checkpointRow, BooleanSupplier leaseHeld) {
+    try {
       // 1. Fetch Mapping Rules (DIRECT METHOD CALL - no HTTP!)
       log.debug("[Processing] Fetching metadata configuration for insurerId={}", insurerId);
       InsurerConfiguration config = metadataService.getConfiguration(insurerId);
-      List<FieldMapping> mappings = metadataService.getMappingsForPolicyType(insurerId, policyType);
+      List<CompiledMapping> mappings = transformEngine.getCompiledMappings(config, policyType);
 
-      if (mappings == null || mappings.isEmpty()) {
+      if (mappings.isEmpty()) {
         throw new RuntimeException("No mappings found for policy type: " + policyType);
       }
 
       log.info("[Processing] Found {} field mappings for policyType={}", mappings.size(), policyType);
 
-      List<Map<String, Object>> processedRecords = new ArrayList<>();
-
-      // 2. Read Excel
-      try (InputStream is = new FileInputStream(filePath);
-          Workbook workbook = WorkbookFactory.create(is)) {
+      // 2. Stream the file through parse -> map -> match -> persist
+      try (RowReader reader = openReader(filePath)) {
 
-        Sheet sheet = workbook.getSheetAt(0);
-        Row headerRow = sheet.getRow(0);
-        Map<String, Integer> columnIndexMap = new HashMap<>();
-
-        // Map headers to column index
-        for (Cell cell : headerRow) {
-          columnIndexMap.put(cell.getStringCellValue(), cell.getColumnIndex());
+        // Compile mappings once per job: column indexes + typed setters
+        ColumnMappingPlan plan = ColumnMappingPlan.compile(mappings, transformEngine,
+            new HeaderIndex(reader.getHeaders()), insurerId, policyType);
+        for (String missing : plan.getMissingRequired()) {
+          log.warn("[Processing] Required field '{}' not found in file headers", missing);
         }
 
-        log.info("[Processing] Processing {} rows from Excel", sheet.getLastRowNum());
+        // CSV rows are counted at upload; otherwise fall back to the reader's hint
+        long totalRowsHint = knownTotal > 0 ? knownTotal : reader.getTotalRowsHint();
+        if (totalRowsHint >= 0) {
+          log.info("[Processing] Processing {} rows from {}", totalRowsHint, filePath);
+          if (knownTotal <= 0) {
+            // Set total records for progress tracking
+            ingestionService.setTotalRecords(jobId, owner, (int) totalRowsHint);
+          }
+        }
 
-        // Set total records for progress tracking
-        ingestionService.setTotalRecords(jobId, sheet.getLastRowNum());
+        // Rows already covered by a checkpoint are read but not processed again
+        for (long skipped = 0; skipped < checkpointRow; skipped++) {
+          if (reader.nextRow() == null) {
+            break;
+          }
+        }
 
-        // 3. Iterate Rows
-        for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-          Row row = sheet.getRow(i);
-          if (row == null)
-            continue;
+        LongAdder stitched = new LongAdder();
+        LongAdder unmatched = new LongAdder();
+        LongAdder failed = new LongAdder();
+        MatchCache matchCache = matchingService.newJobCache();
+        CheckpointTracker checkpoints = new CheckpointTracker(checkpointRow, settings.getCheckpointInterval(),
+            row -> ingestionService.saveCheckpoint(jobId, owner, row));
+        RowsDone rowsDone = (rows, count) -> {
+          checkpoints.complete(rows, count);
+          progress.add(jobId, owner, count);
+        };
 
-          Map<String, Object> standardRecord = new HashMap<>();
+        StagedPipeline<RawRow> pipeline = StagedPipeline
+            .<RawRow>source(jobId, "parse", settings.getParseChunkSize(), pipelineMetrics)
+            .queueCapacity(settings.getQueueCapacity())
+            .stage("map", settings.getMapThreads(), settings.getMapChunkSize(),
+                (List<RawRow> rows) -> mapRows(rows, plan, jobCreatedAt, failed, rowsDone))
+            .stage("match", settings.getMatchThreads(), settings.getMatchChunkSize(),
+                (List<PolicyRecord> records) -> matchRecords(jobId, records, matchCache, unmatched, failed, rowsDone))
+            .stage("persist", settings.getPersistThreads(), settings.getPersistChunkSize(),
+                ProcessingService::policyKey,
+                (List<PolicyRecord> records) -> persistRecords(jobId, records, stitched, failed, rowsDone))
+            .build();
 
-          for (FieldMapping mapping : mappings) {
-            Integer colIndex = columnIndexMap.get(mapping.getSourceField());
-            if (colIndex != null) {
-              Cell cell = row.getCell(colIndex);
-              Object cellValue = getCellValue(cell);
-              standardRecord.put(mapping.getTargetField(), cellValue);
-            } else if (mapping.isRequired()) {
-              log.warn("[Processing] Required field '{}' not found in Excel headers", 
-                  mapping.getSourceField());
+        long started = System.currentTimeMillis();
+        try {
+          pipeline.run(() -> {
+            if (!leaseHeld.getAsBoolean()) {
+              throw new LeaseLostException(jobId, owner);
             }
-          }
-
-          standardRecord.put("insurerId", insurerId);
-          standardRecord.put("policyType", policyType);
-          processedRecords.add(standardRecord);
+            String[] values = reader.nextRow();
+            return values != null ? new RawRow(reader.getRowCount(), values) : null;
+          });
+        } finally {
+          flushCheckpoint(jobId, checkpoints, leaseHeld);
         }
 
-        log.info("[Processing] Parsed {} records, sending to Matching Engine", processedRecords.size());
-
-        // 4. Send processed records to Matching Engine (DIRECT METHOD CALL - no HTTP!)
-        for (Map<String, Object> record : processedRecords) {
-          try {
-            matchingService.processAndMatchPolicy(record);
-          } catch (Exception e) {
-            log.error("[Processing] Matching failed for record: {}", record.get("policyNumber"), e);
-            // Continue processing other records
-          }
+        // A reader's hint is only an upper bound (and a resumed job's total may be one):
+        // settle on the rows actually read so the job ends at 100%
+        if (reader.getRowCount() != totalRowsHint) {
+          ingestionService.setTotalRecords(jobId, owner, (int) reader.getRowCount());
         }
 
-        log.info("[Processing] Processed and matched {} records successfully", processedRecords.size());
-
-        // Update job status to COMPLETED
-        StatusUpdateRequest completedUpdate = new StatusUpdateRequest();
-        completedUpdate.setStatus(IngestionStatus.COMPLETED);
-        ingestionService.updateStatus(jobId, completedUpdate);
-
-        log.info("[Processing] File processing completed: jobId={}", jobId);
-
-      } catch (IOException e) {
-        log.error("[Processing] Error processing file: jobId={}", jobId, e);
-        
-        // Update job status to FAILED
-        StatusUpdateRequest failedUpdate = new StatusUpdateRequest();
-        failedUpdate.setStatus(IngestionStatus.FAILED);
-        failedUpdate.setFailureReason("File processing failed: " + e.getMessage());
-        ingestionService.updateStatus(jobId, failedUpdate);
-        
-        throw new RuntimeException("Error processing file", e);
+        log.info("[Processing] Processed {} records in {} ms: stitched={}, unmatched={}, failed={}",
+            reader.getRowCount() - checkpointRow, System.currentTimeMillis() - started, stitched.sum(),
+            unmatched.sum(), failed.sum());
+        log.info("[Processing] Match cache for jobId={}: hits={}, misses={}, hitRate={}, entries={}", jobId,
+            matchCache.getHits(), matchCache.getMisses(), String.format("%.3f", matchCache.getHitRate()),
+            matchCache.size());
       }
 
+      // Update job status to COMPLETED
+      progress.complete(jobId);
+      StatusUpdateRequest completedUpdate = new StatusUpdateRequest();
+      completedUpdate.setStatus(IngestionStatus.COMPLETED);
+      ingestionService.updateStatus(jobId, owner, completedUpdate);
+
+      log.info("[Processing] File processing completed: jobId={}", jobId);
+
     } catch (Exception e) {
+      if (e instanceof LeaseLostException || !leaseHeld.getAsBoolean()) {
+        throw leaseLost(jobId, e);
+      }
       log.error("[Processing] Processing failed for jobId={}", jobId, e);
       
       // Update job status to FAILED
+      progress.complete(jobId);
       StatusUpdateRequest failedUpdate = new StatusUpdateRequest();
       failedUpdate.setStatus(IngestionStatus.FAILED);
       failedUpdate.setFailureReason(e.getMessage());
-      ingestionService.updateStatus(jobId, failedUpdate);
+      try {
+        ingestionService.updateStatus(jobId, owner, failedUpdate);
+      } catch (LeaseLostException lost) {
+        throw leaseLost(jobId, lost);
+      }
       
       throw new RuntimeException("Processing failed", e);
     }
   }
 
-  private Object getCellValue(Cell cell) {
-    if (cell == null)
-      return null;
-    switch (cell.getCellType()) {
-      case STRING:
-        return cell.getStringCellValue();
-      case NUMERIC:
-        if (DateUtil.isCellDateFormatted(cell))
-          return cell.getDateCellValue();
-        return cell.getNumericCellValue();
-      case BOOLEAN:
-        return cell.getBooleanCellValue();
-      default:
-        return null;
+  /**
+   * Save the rows finished since the last checkpoint when a run completes or fails.
+   * Never throws, so it cannot hide the run's own failure.
+   */
+  private void flushCheckpoint(String jobId, CheckpointTracker checkpoints, BooleanSupplier leaseHeld) {
+    if (!leaseHeld.getAsBoolean()) {
+      return; // The new owner checkpoints from here on
+    }
+    try {
+      checkpoints.flush();
+    } catch (RuntimeException e) {
+      log.warn("[Processing] Final checkpoint failed for jobId={}: {}", jobId, e.getMessage());
+    }
+  }
+
+  /**
+   * Another node owns the job now; its status and progress are no longer ours to write.
+   */
+  private IllegalStateException leaseLost(String jobId, Exception cause) {
+    log.warn("[Processing] Stopped processing, lease lost: jobId={}", jobId);
+    progress.discard(jobId);
+    return new IllegalStateException("Lease lost for jobId=" + jobId, cause);
+  }
+
+  /**
+   * Receives the row numbers a stage has finished with, successfully or not.
+   */
+  @FunctionalInterface
+  private interface RowsDone {
+    void accept(long[] rows, int count);
+  }
+
+  /**
+   * Map stage: run each raw row through the compiled mapping plan.
+   */
+  private List<PolicyRecord> mapRows(List<RawRow> rows, ColumnMappingPlan plan, LocalDateTime jobCreatedAt,
+      LongAdder failed, RowsDone rowsDone) {
+    List<PolicyRecord> records = new ArrayList<>(rows.size());
+    long[] dropped = new long[rows.size()];
+    int droppedCount = 0;
+    for (RawRow row : rows) {
+      try {
+        PolicyRecord record = plan.map(row.getValues());
+        record.setRowNumber(row.getRowNumber());
+        record.setSourceJobAt(jobCreatedAt);
+        records.add(record);
+      } catch (IllegalArgumentException e) {
+        log.warn("[Processing] Skipping unmappable row {}: {}", row.getRowNumber(), e.getMessage());
+        failed.increment();
+        dropped[droppedCount++] = row.getRowNumber();
+      }
+    }
+    if (droppedCount > 0) {
+      rowsDone.accept(dropped, droppedCount);
+    }
+    return records;
+  }
+
+  /**
+   * Match stage: resolve the whole chunk to customers with one bulk lookup
+   * (DIRECT METHOD CALL - no HTTP to Matching!), reusing results for identities
+   * already seen in this job. Only stitched records flow on to the persist stage;
+   * the rest are queued for review in one bulk write.
+   */
+  private List<PolicyRecord> matchRecords(String jobId, List<PolicyRecord> records, MatchCache matchCache,
+      LongAdder unmatched, LongAdder failed, RowsDone rowsDone) {
+    List<PolicyRecord> matched = new ArrayList<>(records.size());
+    long[] dropped = new long[records.size()];
+    int droppedCount = 0;
+    List<MatchScorer.Result> results;
+    try {
+      results = matchingService.resolveCustomers(records, matchCache);
+    } catch (Exception e) {
+      log.error("[Processing] Matching failed for chunk of {} records", records.size(), e);
+      failed.add(records.size()); // Continue processing other chunks
+      for (PolicyRecord record : records) {
+        dropped[droppedCount++] = record.getRowNumber();
+      }
+      rowsDone.accept(dropped, droppedCount);
+      return matched;
+    }
+    List<PolicyRecord> review = new ArrayList<>();
+    List<MatchScorer.Result> reviewResults = new ArrayList<>();
+    for (int i = 0; i < records.size(); i++) {
+      PolicyRecord record = records.get(i);
+      if (record.getCustomerId() != null) {
+        matched.add(record);
+      } else {
+        unmatched.increment();
+        dropped[droppedCount++] = record.getRowNumber();
+        review.add(record);
+        reviewResults.add(results.get(i));
+      }
+    }
+    if (!review.isEmpty()) {
+      try {
+        reviewQueueService.enqueue(jobId, review, reviewResults);
+      } catch (Exception e) {
+        // The rows still count as unmatched; a re-upload queues them again
+        log.error("[Processing] Failed to queue {} unmatched records for review", review.size(), e);
+      }
+    }
+    if (droppedCount > 0) {
+      rowsDone.accept(dropped, droppedCount);
+    }
+    return matched;
+  }
+
+  /**
+   * Persist stage: create the stitched policies in Policy Service, one bulk call per chunk.
+   *
+   * Match workers may hand rows over out of file order, so each policy is sent
+   * with its source (job creation time, row number) and Policy Service only
+   * applies it if no newer source was written: the newest row in the file wins,
+   * as it would in a sequential run, without remembering every policy seen.
+   * Within a chunk only the newest row per policy is sent; the others count as
+   * stitched. The stage is partitioned by policy key, so concurrent upserts
+   * never contend for the same policy row. Review rows queued for the stitched
+   * policies by older jobs are resolved.
+   */
+  private List<Void> persistRecords(String jobId, List<PolicyRecord> records, LongAdder stitched,
+      LongAdder failed, RowsDone rowsDone) {
+    Map<String, PolicyRecord> newest = new LinkedHashMap<>(records.size() * 2);
+    for (PolicyRecord record : records) {
+      newest.merge(policyKey(record), record,
+          (current, candidate) -> candidate.getRowNumber() > current.getRowNumber() ? candidate : current);
+    }
+    int superseded = records.size() - newest.size();
+    if (superseded > 0) {
+      log.debug("[Processing] Skipped {} rows superseded by newer rows of the same policy", superseded);
+      stitched.add(superseded);
+    }
+    if (!newest.isEmpty()) {
+      List<PolicyRecord> batch = new ArrayList<>(newest.values());
+      List<PolicyRecord> written = new ArrayList<>(batch.size());
+      try {
+        PolicyUpsertResponse response = matchingService.upsertStitchedPolicies(batch);
+        Set<String> failedPolicies = new HashSet<>();
+        if (response.getResults() != null) {
+          for (PolicyBatchItemResult item : response.getResults()) {
+            if ("FAILED".equals(item.getOutcome())) {
+              failedPolicies.add(item.getPolicyNumber());
+            }
+          }
+        }
+        for (PolicyRecord record : batch) {
+          if (!failedPolicies.contains(record.getPolicyNumber())) {
+            written.add(record);
+          }
+        }
+        stitched.add(written.size());
+        failed.add(batch.size() - written.size());
+      } catch (Exception e) {
+        log.error("[Processing] Policy creation failed for chunk of {} records", batch.size(), e);
+        failed.add(batch.size());
+      }
+      try {
+        reviewQueueService.resolveStitched(jobId, written);
+      } catch (Exception e) {
+        // The rows stay PENDING; re-matching them later writes nothing newer than this job's rows
+        log.warn("[Processing] Failed to resolve review rows for {} stitched policies", written.size(), e);
+      }
+    }
+    long[] done = new long[records.size()];
+    for (int i = 0; i < done.length; i++) {
+      done[i] = records.get(i).getRowNumber();
+    }
+    rowsDone.accept(done, done.length);
+    return Collections.emptyList();
+  }
+
+  private static String policyKey(PolicyRecord record) {
+    return record.getInsurerId() + "|" + record.getPolicyNumber();
+  }
+
+  /**
+   * Pick a row reader by file extension. CSV never goes through POI, which cannot parse it,
+   * and .xlsx is streamed; only legacy .xls still loads a full workbook.
+   */
+  private RowReader openReader(String filePath) throws IOException {
+    Path path = Paths.get(filePath);
+    String name = path.getFileName().toString().toLowerCase();
+    if (name.endsWith(".csv")) {
+      return new CsvRowReader(path);
+    }
+    if (name.endsWith(".xlsx")) {
+      return new XlsxStreamingRowReader(path, sharedStringsCacheSize);
     }
+    return new WorkbookRowReader(path);
   }
 }
@@ -0,0 +1,206 @@
+package com.mypolicy.pipeline.ingestion.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mypolicy.pipeline.ingestion.dto.StatusUpdateRequest;
+import com.mypolicy.pipeline.ingestion.event.JobEventBus;
+import com.mypolicy.pipeline.ingestion.model.IngestionJob;
+import com.mypolicy.pipeline.ingestion.model.IngestionStatus;
+import com.mypolicy.pipeline.ingestion.repository.IngestionJobRepository;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Lease claiming, expiry and takeover against an in-memory MongoDB wire server.
+ */
+class IngestionServiceLeaseTest {
+
+  private static final Duration LEASE = Duration.ofMinutes(1);
+  private static final Duration EXPIRED = Duration.ofMillis(-1);
+
+  private static MongoServer server;
+  private static MongoClient client;
+  private static MongoTemplate mongoTemplate;
+  private static IngestionJobRepository jobRepository;
+
+  private IngestionService ingestionService;
+
+  @BeforeAll
+  static void startMongo() {
+    server = new MongoServer(new MemoryBackend());
+    client = MongoClients.create(server.bindAndGetConnectionString());
+    mongoTemplate = new MongoTemplate(client, "pipeline-test");
+    jobRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(IngestionJobRepository.class);
+  }
+
+  @AfterAll
+  static void stopMongo() {
+    client.close();
+    server.shutdown();
+  }
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.dropCollection(IngestionJob.class);
+    ingestionService = new IngestionService(jobRepository, mongoTemplate, new JobEventBus());
+  }
+
+  @Test
+  void claimsOnlyRequestedJobsOldestFirst() {
+    saveJob("job-new", "HEALTH", LocalDateTime.now());
+    saveJob("job-old", "HEALTH", LocalDateTime.now().minusMinutes(5));
+    saveJob("job-unrequested", null, LocalDateTime.now().minusMinutes(10));
+
+    assertThat(ingestionService.claimNextJob("node-a", LEASE).getJobId()).isEqualTo("job-old");
+    assertThat(ingestionService.claimNextJob("node-a", LEASE).getJobId()).isEqualTo("job-new");
+    assertThat(ingestionService.claimNextJob("node-a", LEASE)).isNull();
+
+    IngestionJob claimed = jobRepository.findById("job-old").orElseThrow();
+    assertThat(claimed.getStatus()).isEqualTo(IngestionStatus.PROCESSING);
+    assertThat(claimed.getLeaseOwner()).isEqualTo("node-a");
+    assertThat(claimed.getLeaseExpiresAt()).isAfter(LocalDateTime.now());
+  }
+
+  @Test
+  void twoOwnersNeverClaimTheSameJob() throws Exception {
+    int jobs = 20;
+    for (int i = 0; i < jobs; i++) {
+      saveJob("job-" + i, "HEALTH", LocalDateTime.now().minusSeconds(jobs - i));
+    }
+
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<List<String>>> results = new ArrayList<>();
+      for (String owner : List.of("node-a", "node-b")) {
+        Callable<List<String>> claimAll = () -> {
+          List<String> claimed = new ArrayList<>();
+          IngestionJob job;
+          while ((job = ingestionService.claimNextJob(owner, LEASE)) != null) {
+            claimed.add(job.getJobId());
+          }
+          return claimed;
+        };
+        results.add(pool.submit(claimAll));
+      }
+
+      List<String> byA = results.get(0).get();
+      List<String> byB = results.get(1).get();
+      Set<String> all = new HashSet<>(byA);
+      all.addAll(byB);
+      assertThat(byA.size() + byB.size()).isEqualTo(jobs);
+      assertThat(all).hasSize(jobs);
+      for (String jobId : byA) {
+        assertThat(jobRepository.findById(jobId).orElseThrow().getLeaseOwner()).isEqualTo("node-a");
+      }
+      for (String jobId : byB) {
+        assertThat(jobRepository.findById(jobId).orElseThrow().getLeaseOwner()).isEqualTo("node-b");
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  void liveLeaseIsNotTakenOver() {
+    saveJob("job-1", "HEALTH", LocalDateTime.now());
+    ingestionService.claimNextJob("node-a", LEASE);
+
+    assertThat(ingestionService.claimNextJob("node-b", LEASE)).isNull();
+    assertThat(ingestionService.renewLease("job-1", "node-a", LEASE)).isTrue();
+    assertThat(ingestionService.renewLease("job-1", "node-b", LEASE)).isFalse();
+  }
+
+  @Test
+  void expiredLeaseIsReclaimedFromTheCheckpoint() {
+    saveJob("job-1", "HEALTH", LocalDateTime.now());
+    ingestionService.claimNextJob("node-a", EXPIRED);
+    assertThat(ingestionService.saveCheckpoint("job-1", "node-a", 500)).isTrue();
+
+    IngestionJob reclaimed = ingestionService.claimNextJob("node-b", LEASE);
+
+    assertThat(reclaimed).isNotNull();
+    assertThat(reclaimed.getJobId()).isEqualTo("job-1");
+    assertThat(reclaimed.getLeaseOwner()).isEqualTo("node-b");
+    assertThat(reclaimed.getCheckpointRow()).isEqualTo(500);
+  }
+
+  @Test
+  void previousOwnerLosesEveryWriteAfterTakeover() {
+    saveJob("job-1", "HEALTH", LocalDateTime.now());
+    ingestionService.claimNextJob("node-a", EXPIRED);
+    ingestionService.claimNextJob("node-b", LEASE);
+
+    // node-a's heartbeat fails, so its worker stops; its in-flight writes are dropped or rejected
+    assertThat(ingestionService.renewLease("job-1", "node-a", LEASE)).isFalse();
+    assertThat(ingestionService.incrementProgress("job-1", "node-a", 10)).isFalse();
+    assertThat(ingestionService.saveCheckpoint("job-1", "node-a", 1000)).isFalse();
+    assertThatThrownBy(() -> ingestionService.setTotalRecords("job-1", "node-a", 42))
+        .isInstanceOf(LeaseLostException.class);
+    assertThatThrownBy(() -> ingestionService.updateStatus("job-1", "node-a", status(IngestionStatus.COMPLETED)))
+        .isInstanceOf(LeaseLostException.class);
+
+    IngestionJob job = jobRepository.findById("job-1").orElseThrow();
+    assertThat(job.getStatus()).isEqualTo(IngestionStatus.PROCESSING);
+    assertThat(job.getProcessedRecords()).isZero();
+    assertThat(job.getCheckpointRow()).isZero();
+
+    assertThat(ingestionService.incrementProgress("job-1", "node-b", 10)).isTrue();
+    ingestionService.updateStatus("job-1", "node-b", status(IngestionStatus.COMPLETED));
+    assertThat(jobRepository.findById("job-1").orElseThrow().getStatus()).isEqualTo(IngestionStatus.COMPLETED);
+  }
+
+  @Test
+  void releasedLeaseCanBeClaimedImmediately() {
+    saveJob("job-1", "HEALTH", LocalDateTime.now());
+    ingestionService.claimNextJob("node-a", LEASE);
+
+    ingestionService.releaseLease("job-1", "node-b");
+    assertThat(ingestionService.claimNextJob("node-b", LEASE)).isNull();
+
+    ingestionService.releaseLease("job-1", "node-a");
+    assertThat(ingestionService.claimNextJob("node-b", LEASE).getLeaseOwner()).isEqualTo("node-b");
+  }
+
+  @Test
+  void finishedJobIsNeitherRenewedNorReclaimed() {
+    saveJob("job-1", "HEALTH", LocalDateTime.now());
+    ingestionService.claimNextJob("node-a", EXPIRED);
+    ingestionService.updateStatus("job-1", "node-a", status(IngestionStatus.COMPLETED));
+
+    assertThat(ingestionService.renewLease("job-1", "node-a", LEASE)).isFalse();
+    assertThat(ingestionService.claimNextJob("node-b", LEASE)).isNull();
+  }
+
+  private static void saveJob(String jobId, String policyType, LocalDateTime createdAt) {
+    IngestionJob job = new IngestionJob(jobId, "insurer-1", "/tmp/" + jobId + ".csv", IngestionStatus.UPLOADED,
+        0, 0, "tester", null, createdAt, createdAt);
+    job.setPolicyType(policyType);
+    jobRepository.save(job);
+  }
+
+  private static StatusUpdateRequest status(IngestionStatus status) {
+    StatusUpdateRequest request = new StatusUpdateRequest();
+    request.setStatus(status);
+    return request;
+  }
+}
@@ -0,0 +1,128 @@
+package com.mypolicy.pipeline.ingestion.service;
+
+import com.mypolicy.pipeline.processing.reader.CsvRowReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UploadWriterTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void writesHashesAndCountsInOnePass() throws Exception {
+    byte[] content = "a,b\n1,2\n3,4\n".getBytes(StandardCharsets.UTF_8);
+    Path file = dir.resolve("upload.csv");
+
+    UploadWriter.StoredFile stored;
+    try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      UploadWriter writer = new UploadWriter(out, true);
+      writer.write(Channels.newChannel(new ByteArrayInputStream(content)), Long.MAX_VALUE);
+      stored = writer.finish();
+    }
+
+    assertThat(Files.readAllBytes(file)).isEqualTo(content);
+    assertThat(stored.size()).isEqualTo(content.length);
+    assertThat(stored.sha256()).isEqualTo(
+        HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)));
+    assertThat(stored.rows()).isEqualTo(2);
+  }
+
+  @Test
+  void rejectsUploadsOverTheLimit() {
+    UploadWriter writer = new UploadWriter(null, false);
+
+    assertThatThrownBy(() -> writer.write(Channels.newChannel(new ByteArrayInputStream(new byte[1025])), 1024))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void doesNotCountRowsUnlessAsked() throws IOException {
+    assertThat(count("a\n1\n", false)).isEqualTo(-1);
+  }
+
+  @Test
+  void countsRowsLikeTheReaderReadsThem() throws IOException {
+    String[] samples = {
+        "",
+        "a,b",
+        "a,b\n",
+        "a,b\n1,2",
+        "a,b\n1,2\n\n\n",
+        "a,b\r\n1,2\r\n\r\n3,4\r\n",
+        "a,b\r1,2\r3,4",
+        "a,b\n\"multi\nline\",\"x\r\ny\"\n2,3\n",
+        "a,b\n\"say \"\"hi\"\"\nthere\",1\n",
+        "a,b\n\"\",\"\"\n\"\"\"\",x\n",
+        "a,b\n1 \"quoted\" mid,2\n\"a\"b\",\nc\n",
+        "a,b\n,\n,,\n",
+        "\uFEFFa,b\n1,2\n",
+    };
+    for (String sample : samples) {
+      assertThat(count(sample, true)).as("rows of %s", sample).isEqualTo(readerRows(sample));
+    }
+  }
+
+  @Test
+  void countsRandomCsvLikeTheReader() throws IOException {
+    Random random = new Random(42);
+    String alphabet = "ab,\"\r\n ";
+    for (int i = 0; i < 2000; i++) {
+      StringBuilder csv = new StringBuilder("h1,h2\n");
+      int length = random.nextInt(60);
+      for (int j = 0; j < length; j++) {
+        csv.append(alphabet.charAt(random.nextInt(alphabet.length())));
+      }
+      String sample = csv.toString();
+      assertThat(count(sample, true)).as("rows of %s", sample.replace("\r", "\\r").replace("\n", "\\n"))
+          .isEqualTo(readerRows(sample));
+    }
+  }
+
+  @Test
+  void carriesCounterStateAcrossWrites() throws IOException {
+    // Chunked uploads feed the writer piece by piece; splits land inside quotes and CRLF pairs
+    String sample = "a,b\r\n\"multi\r\nline \"\"x\"\"\",1\r\n\r\n2,3\r\n";
+    byte[] bytes = sample.getBytes(StandardCharsets.UTF_8);
+    for (int split = 1; split < bytes.length; split++) {
+      UploadWriter writer = new UploadWriter(null, true);
+      writer.write(Channels.newChannel(new ByteArrayInputStream(bytes, 0, split)), Long.MAX_VALUE);
+      writer.write(Channels.newChannel(new ByteArrayInputStream(bytes, split, bytes.length - split)),
+          Long.MAX_VALUE);
+      assertThat(writer.finish().rows()).as("split at %d", split).isEqualTo(2);
+    }
+  }
+
+  private static long count(String content, boolean countRows) throws IOException {
+    UploadWriter writer = new UploadWriter(null, countRows);
+    writer.write(Channels.newChannel(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))),
+        Long.MAX_VALUE);
+    return writer.finish().rows();
+  }
+
+  private long readerRows(String content) throws IOException {
+    Path file = Files.createTempFile(dir, "rows", ".csv");
+    Files.writeString(file, content, StandardCharsets.UTF_8);
+    try (CsvRowReader reader = new CsvRowReader(file)) {
+      while (reader.nextRow() != null) {
+        // count only
+      }
+      return reader.getRowCount();
+    }
+  }
+}
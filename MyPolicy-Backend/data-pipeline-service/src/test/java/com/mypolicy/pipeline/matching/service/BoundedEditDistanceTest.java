@@ -0,0 +1,111 @@
+package com.mypolicy.pipeline.matching.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedEditDistanceTest {
+
+  @Test
+  void knownDistances() {
+    assertThat(BoundedEditDistance.apply("kitten", "sitting", 3)).isEqualTo(3);
+    assertThat(BoundedEditDistance.apply("kitten", "sitting", 2)).isEqualTo(-1);
+    assertThat(BoundedEditDistance.apply("Rajesh Kumar", "rajesh kumar", 0)).isZero();
+    assertThat(BoundedEditDistance.apply("", "abc", 3)).isEqualTo(3);
+    assertThat(BoundedEditDistance.apply("", "abc", 2)).isEqualTo(-1);
+    assertThat(BoundedEditDistance.apply("José", "JOSE", 1)).isEqualTo(1);
+  }
+
+  @Test
+  void matchesPlainLevenshteinOnRandomStrings() {
+    Random random = new Random(7);
+    // Small alphabets force long common runs; mixed case and non-ASCII hit both mask paths
+    String[] alphabets = {"ab", "abcA", "abcdefghijklmnopqrstuvwxyz ", "aéÉñb"};
+    for (int i = 0; i < 20_000; i++) {
+      String alphabet = alphabets[random.nextInt(alphabets.length)];
+      String a = randomString(random, alphabet, random.nextInt(72));
+      String b = random.nextBoolean()
+          ? mutate(random, a, alphabet, random.nextInt(8))
+          : randomString(random, alphabet, random.nextInt(72));
+      assertAgreesWithReference(a, b, random.nextInt(12));
+    }
+  }
+
+  @Test
+  void matchesPlainLevenshteinAroundTheBitParallelLimit() {
+    Random random = new Random(11);
+    for (int i = 0; i < 5_000; i++) {
+      // 63, 64 and 65 chars: last bit of the word, and the first length past it
+      String a = randomString(random, "abcAB", 63 + random.nextInt(3));
+      String b = mutate(random, a, "abcAB", random.nextInt(6));
+      assertAgreesWithReference(a, b, random.nextInt(6));
+    }
+  }
+
+  @Test
+  void earlyExitNeverRejectsAPairWithinTheBound() {
+    Random random = new Random(13);
+    for (int i = 0; i < 5_000; i++) {
+      String a = randomString(random, "abcd", 1 + random.nextInt(64));
+      String b = mutate(random, a, "abcd", random.nextInt(5));
+      int distance = levenshtein(a.toLowerCase(), b.toLowerCase());
+      assertThat(BoundedEditDistance.apply(a, b, distance)).as("%s / %s", a, b).isEqualTo(distance);
+      if (distance > 0) {
+        assertThat(BoundedEditDistance.apply(a, b, distance - 1)).as("%s / %s", a, b).isEqualTo(-1);
+      }
+    }
+  }
+
+  private static void assertAgreesWithReference(String a, String b, int k) {
+    int distance = levenshtein(a.toLowerCase(), b.toLowerCase());
+    int expected = distance <= k ? distance : -1;
+    assertThat(BoundedEditDistance.apply(a, b, k)).as("d(%s, %s) within %d", a, b, k).isEqualTo(expected);
+    assertThat(BoundedEditDistance.apply(b, a, k)).as("d(%s, %s) within %d", b, a, k).isEqualTo(expected);
+  }
+
+  // Textbook dynamic programming, the reference the bit-parallel version must agree with
+  private static int levenshtein(String a, String b) {
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+      }
+      int[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    return previous[b.length()];
+  }
+
+  private static String randomString(Random random, String alphabet, int length) {
+    StringBuilder value = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+    return value.toString();
+  }
+
+  private static String mutate(Random random, String value, String alphabet, int edits) {
+    StringBuilder mutated = new StringBuilder(value);
+    for (int i = 0; i < edits; i++) {
+      char c = alphabet.charAt(random.nextInt(alphabet.length()));
+      int op = random.nextInt(3);
+      if (mutated.length() == 0 || op == 0) {
+        mutated.insert(random.nextInt(mutated.length() + 1), c);
+      } else if (op == 1) {
+        mutated.deleteCharAt(random.nextInt(mutated.length()));
+      } else {
+        mutated.setCharAt(random.nextInt(mutated.length()), c);
+      }
+    }
+    return mutated.toString();
+  }
+}
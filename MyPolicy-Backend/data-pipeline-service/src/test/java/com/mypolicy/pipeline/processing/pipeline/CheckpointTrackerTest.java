@@ -0,0 +1,63 @@
+package com.mypolicy.pipeline.processing.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckpointTrackerTest {
+
+  private final List<Long> saved = new ArrayList<>();
+
+  @Test
+  void savesEveryIntervalOfContiguousRows() {
+    CheckpointTracker tracker = new CheckpointTracker(0, 10, saved::add);
+
+    tracker.complete(rows(1, 4), 4);
+    tracker.complete(rows(6, 10), 5);
+    assertThat(saved).isEmpty(); // row 5 still open
+
+    tracker.complete(new long[] {5}, 1);
+    assertThat(tracker.getWatermark()).isEqualTo(10);
+    assertThat(saved).containsExactly(10L);
+  }
+
+  @Test
+  void flushSavesTheTailAfterTheLastInterval() {
+    CheckpointTracker tracker = new CheckpointTracker(100, 10, saved::add);
+
+    tracker.complete(rows(101, 117), 17);
+    assertThat(saved).containsExactly(117L);
+
+    tracker.complete(rows(118, 123), 6);
+    assertThat(saved).containsExactly(117L);
+
+    tracker.flush();
+    assertThat(saved).containsExactly(117L, 123L);
+  }
+
+  @Test
+  void flushSavesNothingWhenTheWatermarkDidNotMove() {
+    CheckpointTracker tracker = new CheckpointTracker(50, 10, saved::add);
+
+    tracker.flush();
+    tracker.complete(new long[] {52}, 1); // gap at 51
+    tracker.flush();
+    assertThat(saved).isEmpty();
+
+    tracker.complete(new long[] {51}, 1);
+    tracker.flush();
+    tracker.flush();
+    assertThat(saved).containsExactly(52L);
+  }
+
+  private static long[] rows(long from, long to) {
+    long[] rows = new long[(int) (to - from + 1)];
+    for (int i = 0; i < rows.length; i++) {
+      rows[i] = from + i;
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,191 @@
+package com.mypolicy.pipeline.processing.reader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRowReaderTest {
+
+  private static final long DEFAULT_WINDOW = 64L * 1024 * 1024;
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void readsHeaderAndRows() throws IOException {
+    Path file = write("policy_number,name,premium\nP1,Alice,100\nP2,Bob,200\n");
+
+    try (CsvRowReader reader = new CsvRowReader(file)) {
+      assertThat(reader.getHeaders()).containsExactly("policy_number", "name", "premium");
+      assertThat(reader.nextRow()).containsExactly("P1", "Alice", "100");
+      assertThat(reader.nextRow()).containsExactly("P2", "Bob", "200");
+      assertThat(reader.nextRow()).isNull();
+      assertThat(reader.getRowCount()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void unescapesDoubledQuotesInsideQuotedFields() throws IOException {
+    Path file = write("a,b\n\"say \"\"hi\"\"\",\"\"\"\"\n\"\",x\n");
+
+    try (CsvRowReader reader = new CsvRowReader(file)) {
+      assertThat(reader.nextRow()).containsExactly("say \"hi\"", "\"");
+      // A quoted empty field is an empty string, an unquoted one is null
+      assertThat(reader.nextRow()).containsExactly("", "x");
+      assertThat(reader.nextRow()).isNull();
+    }
+  }
+
+  @Test
+  void keepsQuotedDelimitersAndLineBreaks() throws IOException {
+    Path file = write("a,b\n\"1 Main St,\nApt 2\",\"x\r\ny\"\n");
+
+    try (CsvRowReader reader = new CsvRowReader(file)) {
+      assertThat(reader.nextRow()).containsExactly("1 Main St,\nApt 2", "x\r\ny");
+      assertThat(reader.nextRow()).isNull();
+      assertThat(reader.getRowCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void handlesCrlfAndBareCrLineEndings() throws IOException {
+    Path file = write("a,b\r\n1,2\r\n3,4\r5,6");
+
+    try (CsvRowReader reader = new CsvRowReader(file)) {
+      assertThat(reader.getHeaders()).containsExactly("a", "b");
+      assertThat(reader.nextRow()).containsExactly("1", "2");
+      assertThat(reader.nextRow()).containsExactly("3", "4");
+      assertThat(reader.nextRow()).containsExactly("5", "6");
+      assertThat(reader.nextRow()).isNull();
+    }
+  }
+
+  @Test
+  void skipsUtf8ByteOrderMark() throws IOException {
+    Path file = dir.resolve("bom.csv");
+    byte[] body = "policy_number,name\nP1,Zoë\n".getBytes(StandardCharsets.UTF_8);
+    byte[] bytes = new byte[body.length + 3];
+    bytes[0] = (byte) 0xEF;
+    bytes[1] = (byte) 0xBB;
+    bytes[2] = (byte) 0xBF;
+    System.arraycopy(body, 0, bytes, 3, body.length);
+    Files.write(file, bytes);
+
+    for (long window : new long[] {1, 2, 3, 5, DEFAULT_WINDOW}) {
+      try (CsvRowReader reader = new CsvRowReader(file, ',', window)) {
+        assertThat(reader.getHeaders()).as("window %d", window).containsExactly("policy_number", "name");
+        assertThat(reader.nextRow()).containsExactly("P1", "Zoë");
+      }
+    }
+  }
+
+  @Test
+  void skipsBlankLinesIncludingTheLast() throws IOException {
+    Path file = write("a,b\n\n1,2\r\n\r\n3,4\n\n");
+
+    try (CsvRowReader reader = new CsvRowReader(file)) {
+      assertThat(reader.nextRow()).containsExactly("1", "2");
+      assertThat(reader.nextRow()).containsExactly("3", "4");
+      assertThat(reader.nextRow()).isNull();
+      assertThat(reader.getRowCount()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void lastRowWithoutLineBreakIsRead() throws IOException {
+    Path file = write("a,b\n1,");
+
+    try (CsvRowReader reader = new CsvRowReader(file)) {
+      assertThat(reader.nextRow()).containsExactly("1", null);
+      assertThat(reader.nextRow()).isNull();
+    }
+  }
+
+  @Test
+  void emptyFileHasNoHeadersOrRows() throws IOException {
+    Path file = write("");
+
+    try (CsvRowReader reader = new CsvRowReader(file)) {
+      assertThat(reader.getHeaders()).isEmpty();
+      assertThat(reader.nextRow()).isNull();
+    }
+  }
+
+  @Test
+  void sameRowsWhateverTheWindowSize() throws IOException {
+    // Every window size splits quotes, doubled quotes and CRLF pairs somewhere
+    Path file = write("id,note,amount\r\n"
+        + "1,\"a \"\"quoted\"\" word\",10\r\n"
+        + "2,\"multi\r\nline, with comma\",20\r\n"
+        + "\r\n"
+        + "3,,\"\"\r\n"
+        + "4,\"Zoë €\",40\r\n");
+
+    List<String[]> expected = readAll(file, DEFAULT_WINDOW);
+    assertThat(expected).hasSize(4);
+    for (long window = 1; window <= 16; window++) {
+      List<String[]> rows = readAll(file, window);
+      assertThat(rows).as("window %d", window).hasSameSizeAs(expected);
+      for (int i = 0; i < rows.size(); i++) {
+        assertThat(rows.get(i)).as("window %d, row %d", window, i + 1).containsExactly(expected.get(i));
+      }
+    }
+  }
+
+  @Test
+  void quotedFieldSpansThe64MbWindowBoundary() throws IOException {
+    Path file = dir.resolve("large.csv");
+    String quotedTail = "1,\"split \"\"across\"\"\r\nwindows\",2\r\n";
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 20)) {
+      byte[] header = "id,note,amount\r\n".getBytes(StandardCharsets.US_ASCII);
+      out.write(header);
+      // Pad with one long row so the quoted field starts 10 bytes before the boundary
+      long padding = DEFAULT_WINDOW - header.length - 10 - "0,,0\r\n".length();
+      out.write("0,".getBytes(StandardCharsets.US_ASCII));
+      byte[] chunk = new byte[1 << 20];
+      Arrays.fill(chunk, (byte) 'x');
+      for (long left = padding; left > 0; left -= chunk.length) {
+        out.write(chunk, 0, (int) Math.min(chunk.length, left));
+      }
+      out.write(",0\r\n".getBytes(StandardCharsets.US_ASCII));
+      out.write(quotedTail.getBytes(StandardCharsets.US_ASCII));
+    }
+    assertThat(Files.size(file)).isGreaterThan(DEFAULT_WINDOW);
+
+    try (CsvRowReader reader = new CsvRowReader(file)) {
+      String[] padded = reader.nextRow();
+      assertThat(padded[1]).hasSize((int) (DEFAULT_WINDOW - 16 - 10 - 6));
+      assertThat(reader.nextRow()).containsExactly("1", "split \"across\"\r\nwindows", "2");
+      assertThat(reader.nextRow()).isNull();
+      assertThat(reader.getRowCount()).isEqualTo(2);
+    }
+  }
+
+  private Path write(String content) throws IOException {
+    Path file = Files.createTempFile(dir, "rows", ".csv");
+    Files.writeString(file, content, StandardCharsets.UTF_8);
+    return file;
+  }
+
+  private static List<String[]> readAll(Path file, long window) throws IOException {
+    List<String[]> rows = new ArrayList<>();
+    try (CsvRowReader reader = new CsvRowReader(file, ',', window)) {
+      String[] row;
+      while ((row = reader.nextRow()) != null) {
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+}
@@ -0,0 +1,63 @@
+package com.mypolicy.pipeline.processing.reader;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxStreamingRowReaderTest {
+
+  @TempDir
+  Path dir;
+
+  @Test
+  void readsRowsAndHintsTheDeclaredRange() throws IOException {
+    Path file = workbook(new String[][] {{"policy_number", "name"}, {"P1", "Alice"}, {"P2", "Bob"}});
+
+    try (XlsxStreamingRowReader reader = new XlsxStreamingRowReader(file, 100)) {
+      assertThat(reader.getHeaders()).containsExactly("policy_number", "name");
+      assertThat(reader.getTotalRowsHint()).isEqualTo(2);
+      assertThat(reader.nextRow()).containsExactly("P1", "Alice");
+      assertThat(reader.nextRow()).containsExactly("P2", "Bob");
+      assertThat(reader.nextRow()).isNull();
+      assertThat(reader.getRowCount()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void hintIsAnUpperBoundWhenTheRangeHasBlankRows() throws IOException {
+    // Rows 3 and 5 exist in the sheet but hold no cells, as left behind by cleared rows
+    Path file = workbook(new String[][] {{"policy_number"}, {"P1"}, {}, {"P2"}, {}});
+
+    try (XlsxStreamingRowReader reader = new XlsxStreamingRowReader(file, 100)) {
+      assertThat(reader.getTotalRowsHint()).isEqualTo(4);
+      assertThat(reader.nextRow()).containsExactly("P1");
+      assertThat(reader.nextRow()).containsExactly("P2");
+      assertThat(reader.nextRow()).isNull();
+      assertThat(reader.getRowCount()).isEqualTo(2);
+    }
+  }
+
+  private Path workbook(String[][] rows) throws IOException {
+    Path file = dir.resolve("sheet.xlsx");
+    try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+      Sheet sheet = workbook.createSheet("Policies");
+      for (int r = 0; r < rows.length; r++) {
+        Row row = sheet.createRow(r);
+        for (int c = 0; c < rows[r].length; c++) {
+          row.createCell(c).setCellValue(rows[r][c]);
+        }
+      }
+      workbook.write(out);
+    }
+    return file;
+  }
+}
@@ -0,0 +1,124 @@
+package com.mypolicy.pipeline.processing.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mypolicy.pipeline.ingestion.event.JobEventBus;
+import com.mypolicy.pipeline.ingestion.model.IngestionJob;
+import com.mypolicy.pipeline.ingestion.model.IngestionStatus;
+import com.mypolicy.pipeline.ingestion.repository.IngestionJobRepository;
+import com.mypolicy.pipeline.ingestion.service.IngestionService;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Heartbeat behaviour of {@link JobLeaseManager}: a running job keeps its lease,
+ * and a job whose lease was taken over is told to stop.
+ */
+class JobLeaseManagerTest {
+
+  private static final long LEASE_MS = 400;
+  private static final long HEARTBEAT_MS = 50;
+
+  private MongoServer server;
+  private MongoClient client;
+  private MongoTemplate mongoTemplate;
+  private IngestionJobRepository jobRepository;
+  private ProcessingJobExecutor jobExecutor;
+  private JobLeaseManager leaseManager;
+
+  private final CountDownLatch started = new CountDownLatch(1);
+  private final CompletableFuture<BooleanSupplier> leaseHeld = new CompletableFuture<>();
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  @BeforeEach
+  void setUp() {
+    server = new MongoServer(new MemoryBackend());
+    client = MongoClients.create(server.bindAndGetConnectionString());
+    mongoTemplate = new MongoTemplate(client, "pipeline-test");
+    jobRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(IngestionJobRepository.class);
+    IngestionService ingestionService = new IngestionService(jobRepository, mongoTemplate, new JobEventBus());
+
+    // Stands in for a long-running job: holds its worker until the test lets it go
+    ProcessingService processingService = mock(ProcessingService.class);
+    doAnswer(invocation -> {
+      leaseHeld.complete(invocation.getArgument(1));
+      started.countDown();
+      release.await(10, TimeUnit.SECONDS);
+      return null;
+    }).when(processingService).processJob(any(IngestionJob.class), any(BooleanSupplier.class));
+
+    jobExecutor = new ProcessingJobExecutor(1);
+    leaseManager = new JobLeaseManager(ingestionService, processingService, jobExecutor, "node-a",
+        LEASE_MS, HEARTBEAT_MS, 20, 50);
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    leaseManager.shutdown();
+    jobExecutor.shutdown();
+    client.close();
+    server.shutdown();
+  }
+
+  @Test
+  void heartbeatKeepsRunningJobPastLeaseDuration() throws Exception {
+    saveRequestedJob("job-1");
+    leaseManager.start();
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+    Thread.sleep(LEASE_MS * 2);
+
+    IngestionJob job = jobRepository.findById("job-1").orElseThrow();
+    assertThat(job.getLeaseOwner()).isEqualTo("node-a");
+    assertThat(job.getLeaseExpiresAt()).isAfter(LocalDateTime.now());
+    assertThat(leaseHeld.get().getAsBoolean()).isTrue();
+  }
+
+  @Test
+  void heartbeatLossAfterTakeoverStopsTheJob() throws Exception {
+    saveRequestedJob("job-1");
+    leaseManager.start();
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    BooleanSupplier held = leaseHeld.get(5, TimeUnit.SECONDS);
+    assertThat(held.getAsBoolean()).isTrue();
+
+    // Another node reclaimed the job, e.g. after this node missed its heartbeats
+    mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is("job-1")),
+        new Update().set("leaseOwner", "node-b"), IngestionJob.class);
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (held.getAsBoolean() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(held.getAsBoolean()).isFalse();
+    assertThat(jobRepository.findById("job-1").orElseThrow().getLeaseOwner()).isEqualTo("node-b");
+  }
+
+  private void saveRequestedJob(String jobId) {
+    LocalDateTime now = LocalDateTime.now();
+    IngestionJob job = new IngestionJob(jobId, "insurer-1", "/tmp/" + jobId + ".csv", IngestionStatus.UPLOADED,
+        0, 0, "tester", null, now, now);
+    job.setPolicyType("HEALTH");
+    jobRepository.save(job);
+  }
+}
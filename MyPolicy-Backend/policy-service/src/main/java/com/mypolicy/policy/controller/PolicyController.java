@@ -1,11 +1,15 @@
 package com.mypolicy.policy.controller;
 
+import com.mypolicy.policy.dto.PolicyBatchResponse;
 import com.mypolicy.policy.dto.PolicyRequest;
+import com.mypolicy.policy.dto.PolicyUpsertResponse;
 import com.mypolicy.policy.model.Policy;
 import com.mypolicy.policy.service.PolicyService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -14,6 +18,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PolicyController {
 
+  private static final int MAX_BATCH_SIZE = 5000;
+
   private final PolicyService policyService;
 
   @PostMapping
@@ -21,6 +27,30 @@ public class PolicyController {
     return ResponseEntity.ok(policyService.createPolicy(request));
   }
 
+  /**
+   * Bulk create with JDBC batching; returns a per-item result in request order.
+   */
+  @PostMapping("/batch")
+  public ResponseEntity<PolicyBatchResponse> createPolicies(@RequestBody List<PolicyRequest> requests) {
+    if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "Batch must contain 1 to " + MAX_BATCH_SIZE + " policies");
+    }
+    return ResponseEntity.ok(policyService.createPolicies(requests));
+  }
+
+  /**
+   * Idempotent bulk write keyed by (policyNumber, insurerId), for re-runs and delta files.
+   */
+  @PostMapping("/batch/upsert")
+  public ResponseEntity<PolicyUpsertResponse> upsertPolicies(@RequestBody List<PolicyRequest> requests) {
+    if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+          "Batch must contain 1 to " + MAX_BATCH_SIZE + " policies");
+    }
+    return ResponseEntity.ok(policyService.upsertPolicies(requests));
+  }
+
   @GetMapping("/customer/{customerId}")
   public ResponseEntity<List<Policy>> getPoliciesByCustomer(@PathVariable String customerId) {
     return ResponseEntity.ok(policyService.getPoliciesByCustomerId(customerId));
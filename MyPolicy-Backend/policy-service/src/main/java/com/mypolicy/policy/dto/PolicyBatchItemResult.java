@@ -0,0 +1,36 @@
+package com.mypolicy.policy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch request, in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PolicyBatchItemResult {
+
+  public enum Outcome {
+    CREATED, UPDATED, UNCHANGED, FAILED
+  }
+
+  private int index;
+  private String policyNumber;
+  private Outcome outcome;
+  private String policyId;
+  private String error;
+
+  public static PolicyBatchItemResult created(int index, String policyNumber, String policyId) {
+    return new PolicyBatchItemResult(index, policyNumber, Outcome.CREATED, policyId, null);
+  }
+
+  public static PolicyBatchItemResult of(int index, String policyNumber, Outcome outcome, String policyId) {
+    return new PolicyBatchItemResult(index, policyNumber, outcome, policyId, null);
+  }
+
+  public static PolicyBatchItemResult failed(int index, String policyNumber, String error) {
+    return new PolicyBatchItemResult(index, policyNumber, Outcome.FAILED, null, error);
+  }
+}
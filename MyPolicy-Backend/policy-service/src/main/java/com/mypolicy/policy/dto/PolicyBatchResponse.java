@@ -0,0 +1,16 @@
+package com.mypolicy.policy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PolicyBatchResponse {
+  private int created;
+  private int failed;
+  private List<PolicyBatchItemResult> results;
+}
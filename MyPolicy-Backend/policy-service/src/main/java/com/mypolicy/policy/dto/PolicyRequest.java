@@ -3,6 +3,7 @@ package com.mypolicy.policy.dto;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Data
 public class PolicyRequest {
@@ -16,4 +17,8 @@ public class PolicyRequest {
   private LocalDate startDate;
   private LocalDate endDate;
   private String status;
+
+  // Optional: where the row came from (ingestion job creation time, file row); both or neither
+  private LocalDateTime sourceJobAt;
+  private Long sourceRow;
 }
@@ -0,0 +1,18 @@
+package com.mypolicy.policy.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PolicyUpsertResponse {
+  private int created;
+  private int updated;
+  private int unchanged;
+  private int failed;
+  private List<PolicyBatchItemResult> results;
+}
@@ -15,7 +15,9 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "policies")
+// Replaces the old unique key on policy_number alone; PolicyKeyMigration drops it on existing tables
+@Table(name = "policies", uniqueConstraints = @UniqueConstraint(
+    name = "uk_policies_policy_number_insurer", columnNames = {"policy_number", "insurer_id"}))
 public class Policy {
 
   @Id
@@ -28,8 +30,8 @@ public class Policy {
   @Column(nullable = false)
   private String insurerId; // Linked to Metadata Service rules
 
-  @Column(nullable = false, unique = true)
-  private String policyNumber;
+  @Column(nullable = false)
+  private String policyNumber; // Unique per insurer, see uk_policies_policy_number_insurer
 
   @Column(nullable = false)
   private String policyType; // e.g., TERM_LIFE, HEALTH
@@ -51,6 +53,11 @@ public class Policy {
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
 
+  // Ingestion job (by creation time) and file row these values came from; bulk upserts
+  // only apply rows at least as new, so an older row never overwrites a newer one
+  private LocalDateTime sourceJobAt;
+  private Long sourceRow;
+
   @PrePersist
   protected void onCreate() {
     createdAt = LocalDateTime.now();
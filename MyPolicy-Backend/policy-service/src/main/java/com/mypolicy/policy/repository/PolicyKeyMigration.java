@@ -0,0 +1,88 @@
+package com.mypolicy.policy.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves an existing policies table from the old policy_number-only unique key
+ * to uk_policies_policy_number_insurer, which the upsert's ON CONFLICT needs.
+ *
+ * ddl-auto=update adds the composite constraint but never drops the old one,
+ * and cannot add it while duplicate (policy_number, insurer_id) rows exist.
+ * Runs once Hibernate has updated the schema and before requests are served;
+ * on an already migrated table it only reads the catalog.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class PolicyKeyMigration {
+
+  private static final String KEY_CONSTRAINT = "uk_policies_policy_number_insurer";
+
+  // Unique constraints on policy_number alone, whatever Hibernate named them
+  private static final String OLD_KEY_CONSTRAINTS_SQL =
+      "SELECT con.conname FROM pg_constraint con "
+          + "JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = con.conkey[1] "
+          + "WHERE con.conrelid = 'policies'::regclass AND con.contype = 'u' "
+          + "AND array_length(con.conkey, 1) = 1 AND att.attname = 'policy_number'";
+
+  private static final String HAS_KEY_SQL =
+      "SELECT count(*) FROM pg_constraint WHERE conrelid = 'policies'::regclass AND conname = ?";
+
+  // Keeps the newest row of each key, in the order the upsert uses, then the most recently updated
+  private static final String DELETE_DUPLICATES_SQL =
+      "DELETE FROM policies p USING ("
+          + "SELECT id, row_number() OVER (PARTITION BY policy_number, insurer_id "
+          + "ORDER BY source_job_at DESC NULLS LAST, source_row DESC NULLS LAST, "
+          + "updated_at DESC NULLS LAST, created_at DESC NULLS LAST, id) AS rank FROM policies) d "
+          + "WHERE p.id = d.id AND d.rank > 1";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+
+  @PostConstruct
+  public void migrate() {
+    if (jdbcTemplate.queryForObject("SELECT to_regclass('policies')::text", String.class) == null) {
+      return;
+    }
+    if (oldKeyConstraints().isEmpty() && hasKey()) {
+      return;
+    }
+
+    transactionTemplate.executeWithoutResult(status -> {
+      // Blocks writers and other instances migrating at the same time; re-check under the lock
+      jdbcTemplate.execute("LOCK TABLE policies IN SHARE ROW EXCLUSIVE MODE");
+      for (String constraint : oldKeyConstraints()) {
+        jdbcTemplate.execute("ALTER TABLE policies DROP CONSTRAINT IF EXISTS \"" + constraint + "\"");
+        log.info("Dropped old unique constraint {} on policies(policy_number)", constraint);
+      }
+      if (!hasKey()) {
+        int removed = jdbcTemplate.update(DELETE_DUPLICATES_SQL);
+        if (removed > 0) {
+          log.warn("Removed {} duplicate policies before adding {}; the newest row of each key was kept",
+              removed, KEY_CONSTRAINT);
+        }
+        jdbcTemplate.execute("ALTER TABLE policies ADD CONSTRAINT " + KEY_CONSTRAINT
+            + " UNIQUE (policy_number, insurer_id)");
+        log.info("Added unique constraint {} on policies(policy_number, insurer_id)", KEY_CONSTRAINT);
+      }
+    });
+  }
+
+  private List<String> oldKeyConstraints() {
+    return jdbcTemplate.queryForList(OLD_KEY_CONSTRAINTS_SQL, String.class);
+  }
+
+  private boolean hasKey() {
+    Integer count = jdbcTemplate.queryForObject(HAS_KEY_SQL, Integer.class, KEY_CONSTRAINT);
+    return count != null && count > 0;
+  }
+}
@@ -2,6 +2,9 @@ package com.mypolicy.policy.repository;
 
 import com.mypolicy.policy.model.Policy;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,4 +12,8 @@ public interface PolicyRepository extends JpaRepository<Policy, String> {
   List<Policy> findByCustomerId(String customerId);
 
   Optional<Policy> findByPolicyNumberAndInsurerId(String policyNumber, String insurerId);
+
+  // (policyNumber, insurerId) pairs already stored for any of the given numbers
+  @Query("select p.policyNumber, p.insurerId from Policy p where p.policyNumber in :policyNumbers")
+  List<Object[]> findKeysByPolicyNumbers(@Param("policyNumbers") Collection<String> policyNumbers);
 }
@@ -0,0 +1,120 @@
+package com.mypolicy.policy.repository;
+
+import com.mypolicy.policy.model.Policy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Set-based upsert of policies keyed by (policy_number, insurer_id).
+ *
+ * A whole chunk goes to PostgreSQL as one INSERT ... SELECT FROM unnest(arrays)
+ * ... ON CONFLICT DO UPDATE statement. Rows whose values did not change are
+ * filtered by the DO UPDATE ... WHERE clause and not written at all, and
+ * RETURNING tells inserted rows (xmax = 0) from updated ones.
+ *
+ * Rows with a source (source_job_at, source_row) only update a policy whose
+ * stored source is not newer, so the newest row of a file wins however the
+ * rows are ordered across concurrent writers. Rows without a source update
+ * unconditionally and keep the stored source.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PolicyUpsertRepository {
+
+  private static final String UPSERT_SQL =
+      "INSERT INTO policies (id, customer_id, insurer_id, policy_number, policy_type, plan_name, "
+          + "premium_amount, sum_assured, start_date, end_date, status, created_at, updated_at, "
+          + "source_job_at, source_row) "
+          + "SELECT v.id, v.customer_id, v.insurer_id, v.policy_number, v.policy_type, v.plan_name, "
+          + "v.premium_amount, v.sum_assured, v.start_date, v.end_date, v.status, LOCALTIMESTAMP, LOCALTIMESTAMP, "
+          + "v.source_job_at, v.source_row "
+          + "FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], "
+          + "?::numeric[], ?::numeric[], ?::date[], ?::date[], ?::text[], ?::timestamp[], ?::bigint[]) "
+          + "AS v(id, customer_id, insurer_id, policy_number, policy_type, plan_name, "
+          + "premium_amount, sum_assured, start_date, end_date, status, source_job_at, source_row) "
+          + "ON CONFLICT (policy_number, insurer_id) DO UPDATE SET "
+          + "customer_id = EXCLUDED.customer_id, policy_type = EXCLUDED.policy_type, "
+          + "plan_name = EXCLUDED.plan_name, premium_amount = EXCLUDED.premium_amount, "
+          + "sum_assured = EXCLUDED.sum_assured, start_date = EXCLUDED.start_date, "
+          + "end_date = EXCLUDED.end_date, status = EXCLUDED.status, updated_at = EXCLUDED.updated_at, "
+          + "source_job_at = COALESCE(EXCLUDED.source_job_at, policies.source_job_at), "
+          + "source_row = COALESCE(EXCLUDED.source_row, policies.source_row) "
+          + "WHERE (EXCLUDED.source_row IS NULL OR policies.source_row IS NULL "
+          + "OR (EXCLUDED.source_job_at, EXCLUDED.source_row) >= (policies.source_job_at, policies.source_row)) "
+          + "AND ((policies.customer_id, policies.policy_type, policies.plan_name, policies.premium_amount, "
+          + "policies.sum_assured, policies.start_date, policies.end_date, policies.status) "
+          + "IS DISTINCT FROM (EXCLUDED.customer_id, EXCLUDED.policy_type, EXCLUDED.plan_name, "
+          + "EXCLUDED.premium_amount, EXCLUDED.sum_assured, EXCLUDED.start_date, EXCLUDED.end_date, "
+          + "EXCLUDED.status) "
+          + "OR (EXCLUDED.source_row IS NOT NULL AND (EXCLUDED.source_job_at, EXCLUDED.source_row) "
+          + "IS DISTINCT FROM (policies.source_job_at, policies.source_row))) "
+          + "RETURNING id, policy_number, insurer_id, (xmax = 0) AS inserted";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Written row of an upsert.
+   */
+  public record UpsertedRow(String id, String policyNumber, String insurerId, boolean inserted) {
+  }
+
+  /**
+   * Upsert one chunk in a single statement. Keys must be unique within the chunk;
+   * policies need an id, used only when the row is inserted.
+   *
+   * @return one entry per inserted or changed row; unchanged rows are absent
+   */
+  public List<UpsertedRow> upsert(List<Policy> policies) {
+    return jdbcTemplate.query(connection -> {
+      PreparedStatement statement = connection.prepareStatement(UPSERT_SQL);
+      statement.setArray(1, textArray(connection, policies, Policy::getId));
+      statement.setArray(2, textArray(connection, policies, Policy::getCustomerId));
+      statement.setArray(3, textArray(connection, policies, Policy::getInsurerId));
+      statement.setArray(4, textArray(connection, policies, Policy::getPolicyNumber));
+      statement.setArray(5, textArray(connection, policies, Policy::getPolicyType));
+      statement.setArray(6, textArray(connection, policies, Policy::getPlanName));
+      statement.setArray(7, textArray(connection, policies, p -> plain(p.getPremiumAmount())));
+      statement.setArray(8, textArray(connection, policies, p -> plain(p.getSumAssured())));
+      statement.setArray(9, textArray(connection, policies, p -> iso(p.getStartDate())));
+      statement.setArray(10, textArray(connection, policies, p -> iso(p.getEndDate())));
+      statement.setArray(11, textArray(connection, policies, p -> p.getStatus().name()));
+      statement.setArray(12, textArray(connection, policies, p -> iso(p.getSourceJobAt())));
+      statement.setArray(13, textArray(connection, policies,
+          p -> p.getSourceRow() != null ? p.getSourceRow().toString() : null));
+      return statement;
+    }, (rs, rowNum) -> new UpsertedRow(rs.getString("id"), rs.getString("policy_number"),
+        rs.getString("insurer_id"), rs.getBoolean("inserted")));
+  }
+
+  private static Array textArray(Connection connection, List<Policy> policies,
+      Function<Policy, String> column) throws SQLException {
+    String[] values = new String[policies.size()];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = column.apply(policies.get(i));
+    }
+    return connection.createArrayOf("text", values);
+  }
+
+  private static String plain(BigDecimal value) {
+    return value != null ? value.toPlainString() : null;
+  }
+
+  private static String iso(LocalDate value) {
+    return value != null ? value.toString() : null;
+  }
+
+  private static String iso(LocalDateTime value) {
+    return value != null ? value.toString() : null;
+  }
+}
@@ -1,6 +1,8 @@
 package com.mypolicy.policy.service;
 
+import com.mypolicy.policy.dto.PolicyBatchResponse;
 import com.mypolicy.policy.dto.PolicyRequest;
+import com.mypolicy.policy.dto.PolicyUpsertResponse;
 import com.mypolicy.policy.model.Policy;
 import com.mypolicy.policy.model.PolicyStatus;
 
@@ -9,6 +11,10 @@ import java.util.List;
 public interface PolicyService {
   Policy createPolicy(PolicyRequest request);
 
+  PolicyBatchResponse createPolicies(List<PolicyRequest> requests);
+
+  PolicyUpsertResponse upsertPolicies(List<PolicyRequest> requests);
+
   List<Policy> getPoliciesByCustomerId(String customerId);
 
   Policy getPolicyById(String id);
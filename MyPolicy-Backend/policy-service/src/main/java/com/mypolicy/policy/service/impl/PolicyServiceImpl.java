@@ -1,25 +1,307 @@
 package com.mypolicy.policy.service.impl;
 
+import com.mypolicy.policy.dto.PolicyBatchItemResult;
+import com.mypolicy.policy.dto.PolicyBatchResponse;
 import com.mypolicy.policy.dto.PolicyRequest;
+import com.mypolicy.policy.dto.PolicyUpsertResponse;
 import com.mypolicy.policy.model.Policy;
 import com.mypolicy.policy.model.PolicyStatus;
 import com.mypolicy.policy.repository.PolicyRepository;
+import com.mypolicy.policy.repository.PolicyUpsertRepository;
 import com.mypolicy.policy.service.PolicyService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PolicyServiceImpl implements PolicyService {
 
   private final PolicyRepository repository;
+  private final TransactionTemplate transactionTemplate;
+  private final PolicyUpsertRepository upsertRepository;
+
+  // Rows per insert transaction; matches hibernate.jdbc.batch_size
+  @Value("${policy.batch.chunk-size:500}")
+  private int chunkSize;
 
   @Override
   public Policy createPolicy(PolicyRequest request) {
-    Policy policy = Policy.builder()
+    return repository.save(toEntity(request));
+  }
+
+  /**
+   * Creates many policies with JDBC batch inserts, one transaction per chunk.
+   * Invalid items and policy numbers that already exist (in the database or
+   * earlier in the same request) are reported per item and never reach the
+   * insert, so one bad row does not roll back its chunk. If a chunk still
+   * fails (e.g. a concurrent insert of the same number), it is retried row by
+   * row to pin the failure on the right item.
+   */
+  @Override
+  public PolicyBatchResponse createPolicies(List<PolicyRequest> requests) {
+    PolicyBatchItemResult[] results = new PolicyBatchItemResult[requests.size()];
+    List<Policy> pending = new ArrayList<>(requests.size());
+    List<Integer> pendingIndexes = new ArrayList<>(requests.size());
+
+    Set<String> seen = new HashSet<>();
+    for (int i = 0; i < requests.size(); i++) {
+      PolicyRequest request = requests.get(i);
+      String policyNumber = request != null ? request.getPolicyNumber() : null;
+      try {
+        Policy policy = toEntity(request);
+        if (!seen.add(key(policy.getPolicyNumber(), policy.getInsurerId()))) {
+          results[i] = PolicyBatchItemResult.failed(i, policyNumber, "Duplicate policyNumber in request");
+          continue;
+        }
+        pending.add(policy);
+        pendingIndexes.add(i);
+      } catch (RuntimeException e) {
+        results[i] = PolicyBatchItemResult.failed(i, policyNumber, e.getMessage());
+      }
+    }
+
+    // One query for all keys that already exist
+    Set<String> existing = new HashSet<>();
+    if (!pending.isEmpty()) {
+      Set<String> numbers = new HashSet<>();
+      for (Policy policy : pending) {
+        numbers.add(policy.getPolicyNumber());
+      }
+      for (Object[] row : repository.findKeysByPolicyNumbers(numbers)) {
+        existing.add(key((String) row[0], (String) row[1]));
+      }
+    }
+
+    List<Policy> chunk = new ArrayList<>(chunkSize);
+    List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+    for (int p = 0; p < pending.size(); p++) {
+      Policy policy = pending.get(p);
+      int index = pendingIndexes.get(p);
+      if (existing.contains(key(policy.getPolicyNumber(), policy.getInsurerId()))) {
+        results[index] = PolicyBatchItemResult.failed(index, policy.getPolicyNumber(), "Policy already exists");
+        continue;
+      }
+      chunk.add(policy);
+      chunkIndexes.add(index);
+      if (chunk.size() >= chunkSize) {
+        insertChunk(chunk, chunkIndexes, results);
+        chunk = new ArrayList<>(chunkSize);
+        chunkIndexes = new ArrayList<>(chunkSize);
+      }
+    }
+    if (!chunk.isEmpty()) {
+      insertChunk(chunk, chunkIndexes, results);
+    }
+
+    int created = 0;
+    for (PolicyBatchItemResult result : results) {
+      if (result.getOutcome() == PolicyBatchItemResult.Outcome.CREATED) {
+        created++;
+      }
+    }
+    log.info("Batch create: requested={}, created={}, failed={}", requests.size(), created,
+        requests.size() - created);
+    return new PolicyBatchResponse(created, requests.size() - created, Arrays.asList(results));
+  }
+
+  /**
+   * Idempotent bulk write keyed by (policyNumber, insurerId): new keys are
+   * inserted, changed rows updated, identical rows left alone. Each chunk is a
+   * single INSERT ... ON CONFLICT DO UPDATE statement. Rows carrying a source
+   * (job, row) never overwrite a policy written from a newer source. When a key
+   * repeats in the request, the newest source (else the last occurrence) wins
+   * and the others report UNCHANGED.
+   */
+  @Override
+  public PolicyUpsertResponse upsertPolicies(List<PolicyRequest> requests) {
+    PolicyBatchItemResult[] results = new PolicyBatchItemResult[requests.size()];
+    Map<String, Integer> newestIndexByKey = new LinkedHashMap<>();
+    Policy[] policies = new Policy[requests.size()];
+
+    for (int i = 0; i < requests.size(); i++) {
+      PolicyRequest request = requests.get(i);
+      try {
+        Policy policy = toEntity(request);
+        String key = key(policy.getPolicyNumber(), policy.getInsurerId());
+        Integer previous = newestIndexByKey.get(key);
+        policies[i] = policy;
+        int superseded = i;
+        if (previous == null || !isOlder(policy, policies[previous])) {
+          newestIndexByKey.put(key, i);
+          superseded = previous != null ? previous : -1;
+        }
+        if (superseded >= 0) {
+          results[superseded] = PolicyBatchItemResult.of(superseded, policy.getPolicyNumber(),
+              PolicyBatchItemResult.Outcome.UNCHANGED, null);
+          policies[superseded] = null;
+        }
+      } catch (RuntimeException e) {
+        results[i] = PolicyBatchItemResult.failed(i, request != null ? request.getPolicyNumber() : null,
+            e.getMessage());
+      }
+    }
+
+    List<Policy> chunk = new ArrayList<>(chunkSize);
+    List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+    for (int index : newestIndexByKey.values()) {
+      Policy policy = policies[index];
+      policy.setId(UUID.randomUUID().toString());
+      chunk.add(policy);
+      chunkIndexes.add(index);
+      if (chunk.size() >= chunkSize) {
+        upsertChunk(chunk, chunkIndexes, results);
+        chunk = new ArrayList<>(chunkSize);
+        chunkIndexes = new ArrayList<>(chunkSize);
+      }
+    }
+    if (!chunk.isEmpty()) {
+      upsertChunk(chunk, chunkIndexes, results);
+    }
+
+    int[] counts = new int[PolicyBatchItemResult.Outcome.values().length];
+    for (PolicyBatchItemResult result : results) {
+      counts[result.getOutcome().ordinal()]++;
+    }
+    PolicyUpsertResponse response = new PolicyUpsertResponse(
+        counts[PolicyBatchItemResult.Outcome.CREATED.ordinal()],
+        counts[PolicyBatchItemResult.Outcome.UPDATED.ordinal()],
+        counts[PolicyBatchItemResult.Outcome.UNCHANGED.ordinal()],
+        counts[PolicyBatchItemResult.Outcome.FAILED.ordinal()],
+        Arrays.asList(results));
+    log.info("Batch upsert: requested={}, created={}, updated={}, unchanged={}, failed={}", requests.size(),
+        response.getCreated(), response.getUpdated(), response.getUnchanged(), response.getFailed());
+    return response;
+  }
+
+  @Override
+  public List<Policy> getPoliciesByCustomerId(String customerId) {
+    return repository.findByCustomerId(customerId);
+  }
+
+  @Override
+  public Policy getPolicyById(String id) {
+    return repository.findById(id)
+        .orElseThrow(() -> new RuntimeException("Policy not found"));
+  }
+
+  private void insertChunk(List<Policy> chunk, List<Integer> indexes, PolicyBatchItemResult[] results) {
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        repository.saveAll(chunk);
+        repository.flush();
+      });
+      for (int i = 0; i < chunk.size(); i++) {
+        Policy policy = chunk.get(i);
+        results[indexes.get(i)] = PolicyBatchItemResult.created(indexes.get(i), policy.getPolicyNumber(),
+            policy.getId());
+      }
+    } catch (DataAccessException e) {
+      log.warn("Batch insert of {} policies failed, retrying row by row: {}", chunk.size(), e.getMessage());
+      for (int i = 0; i < chunk.size(); i++) {
+        Policy policy = chunk.get(i);
+        int index = indexes.get(i);
+        policy.setId(null);
+        try {
+          Policy saved = transactionTemplate.execute(status -> repository.saveAndFlush(policy));
+          results[index] = PolicyBatchItemResult.created(index, saved.getPolicyNumber(), saved.getId());
+        } catch (DataAccessException rowError) {
+          results[index] = PolicyBatchItemResult.failed(index, policy.getPolicyNumber(),
+              rowError.getMostSpecificCause().getMessage());
+        }
+      }
+    }
+  }
+
+  private void upsertChunk(List<Policy> chunk, List<Integer> indexes, PolicyBatchItemResult[] results) {
+    try {
+      applyUpserted(chunk, indexes, upsertRepository.upsert(chunk), results);
+    } catch (DataAccessException e) {
+      log.warn("Batch upsert of {} policies failed, retrying row by row: {}", chunk.size(), e.getMessage());
+      for (int i = 0; i < chunk.size(); i++) {
+        List<Policy> single = List.of(chunk.get(i));
+        List<Integer> singleIndex = List.of(indexes.get(i));
+        try {
+          applyUpserted(single, singleIndex, upsertRepository.upsert(single), results);
+        } catch (DataAccessException rowError) {
+          results[indexes.get(i)] = PolicyBatchItemResult.failed(indexes.get(i), chunk.get(i).getPolicyNumber(),
+              rowError.getMostSpecificCause().getMessage());
+        }
+      }
+    }
+  }
+
+  private static void applyUpserted(List<Policy> chunk, List<Integer> indexes,
+      List<PolicyUpsertRepository.UpsertedRow> written, PolicyBatchItemResult[] results) {
+    Map<String, PolicyUpsertRepository.UpsertedRow> byKey = new HashMap<>(written.size() * 2);
+    for (PolicyUpsertRepository.UpsertedRow row : written) {
+      byKey.put(key(row.policyNumber(), row.insurerId()), row);
+    }
+    for (int i = 0; i < chunk.size(); i++) {
+      Policy policy = chunk.get(i);
+      int index = indexes.get(i);
+      PolicyUpsertRepository.UpsertedRow row = byKey.get(key(policy.getPolicyNumber(), policy.getInsurerId()));
+      if (row == null) {
+        results[index] = PolicyBatchItemResult.of(index, policy.getPolicyNumber(),
+            PolicyBatchItemResult.Outcome.UNCHANGED, null);
+      } else {
+        results[index] = PolicyBatchItemResult.of(index, policy.getPolicyNumber(),
+            row.inserted() ? PolicyBatchItemResult.Outcome.CREATED : PolicyBatchItemResult.Outcome.UPDATED,
+            row.id());
+      }
+    }
+  }
+
+  /**
+   * True if both rows carry a source and a's is older than b's.
+   */
+  private static boolean isOlder(Policy a, Policy b) {
+    if (a.getSourceRow() == null || b.getSourceRow() == null) {
+      return false;
+    }
+    int byJob = a.getSourceJobAt().compareTo(b.getSourceJobAt());
+    return byJob != 0 ? byJob < 0 : a.getSourceRow() < b.getSourceRow();
+  }
+
+  private static String key(String policyNumber, String insurerId) {
+    return policyNumber + "|" + insurerId;
+  }
+
+  private Policy toEntity(PolicyRequest request) {
+    if (request == null) {
+      throw new IllegalArgumentException("Policy request is empty");
+    }
+    requireField(request.getCustomerId(), "customerId");
+    requireField(request.getInsurerId(), "insurerId");
+    requireField(request.getPolicyNumber(), "policyNumber");
+    requireField(request.getPolicyType(), "policyType");
+    requireField(request.getPremiumAmount(), "premiumAmount");
+    requireField(request.getSumAssured(), "sumAssured");
+
+    PolicyStatus status;
+    try {
+      status = request.getStatus() != null ? PolicyStatus.valueOf(request.getStatus()) : PolicyStatus.ACTIVE;
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid status: " + request.getStatus());
+    }
+    boolean sourced = request.getSourceJobAt() != null && request.getSourceRow() != null;
+
+    return Policy.builder()
         .customerId(request.getCustomerId())
         .insurerId(request.getInsurerId())
         .policyNumber(request.getPolicyNumber())
@@ -29,22 +311,17 @@ public class PolicyServiceImpl implements PolicyService {
         .sumAssured(request.getSumAssured())
         .startDate(request.getStartDate())
         .endDate(request.getEndDate())
-        .status(PolicyStatus.valueOf(request.getStatus()))
+        .status(status)
+        .sourceJobAt(sourced ? request.getSourceJobAt() : null)
+        .sourceRow(sourced ? request.getSourceRow() : null)
         .createdAt(LocalDateTime.now())
         .updatedAt(LocalDateTime.now())
         .build();
-
-    return repository.save(policy);
-  }
-
-  @Override
-  public List<Policy> getPoliciesByCustomerId(String customerId) {
-    return repository.findByCustomerId(customerId);
   }
 
-  @Override
-  public Policy getPolicyById(String id) {
-    return repository.findById(id)
-        .orElseThrow(() -> new RuntimeException("Policy not found"));
+  private static void requireField(Object value, String name) {
+    if (value == null || (value instanceof String && ((String) value).isBlank())) {
+      throw new IllegalArgumentException(name + " is required");
+    }
   }
 }